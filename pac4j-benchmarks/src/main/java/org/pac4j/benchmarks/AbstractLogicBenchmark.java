@@ -0,0 +1,89 @@
+package org.pac4j.benchmarks;
+
+import lombok.val;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pac4j.core.adapter.FrameworkAdapter;
+import org.pac4j.core.client.Client;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.util.Pac4jConstants;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Common settings and helpers for the benchmarks of the security, callback and logout logics.
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class AbstractLogicBenchmark {
+
+    /** The URL of the benchmarked requests. */
+    protected static final String URL = "https://www.pac4j.org/protected/resource";
+
+    /** The callback URL. */
+    protected static final String CALLBACK_URL = "https://www.pac4j.org/callback";
+
+    /** The login URL. */
+    protected static final String LOGIN_URL = "https://www.pac4j.org/login";
+
+    /** The user identifier. */
+    protected static final String USERNAME = "jle";
+
+    /**
+     * Build a configuration with the in-memory web context and session store factories.
+     *
+     * @param clients the clients
+     * @return the configuration
+     */
+    protected static Config buildConfig(final Client... clients) {
+        val config = new Config(CALLBACK_URL, clients);
+        config.setWebContextFactory(p -> ((BenchmarkParameters) p).webContext());
+        config.setSessionStoreFactory(p -> ((BenchmarkParameters) p).sessionStore());
+        config.setHttpActionAdapter((action, context) -> action);
+        FrameworkAdapter.INSTANCE.applyDefaultSettingsIfUndefined(config);
+        return config;
+    }
+
+    /**
+     * Build a new request on the protected URL.
+     *
+     * @return the web context
+     */
+    protected static MockWebContext newRequest() {
+        return MockWebContext.create().setFullRequestURL(URL);
+    }
+
+    /**
+     * Build a new session store holding an authenticated user profile.
+     *
+     * @param context the web context
+     * @param clientName the name of the client which has authenticated the user
+     * @return the session store
+     */
+    protected static MockSessionStore newAuthenticatedSession(final MockWebContext context, final String clientName) {
+        val profile = new CommonProfile();
+        profile.setId(USERNAME);
+        profile.setClientName(clientName);
+        profile.addRole("admin");
+        val profiles = new LinkedHashMap<String, UserProfile>();
+        profiles.put(clientName, profile);
+        val sessionStore = new MockSessionStore();
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        return sessionStore;
+    }
+}
@@ -0,0 +1,40 @@
+package org.pac4j.benchmarks;
+
+import lombok.val;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <p>Run the pac4j benchmarks with the GC profiler, to report both the throughput and the allocation rate.</p>
+ *
+ * <p>Build with <code>mvn package -pl pac4j-benchmarks -am</code>, then run
+ * <code>java -cp pac4j-benchmarks/target/benchmarks.jar org.pac4j.benchmarks.Benchmarks [JMH options]</code>
+ * (or <code>java -jar pac4j-benchmarks/target/benchmarks.jar -prof gc</code>).</p>
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {}
+
+    /**
+     * Run the benchmarks.
+     *
+     * @param args the JMH command line options (by default, all the pac4j benchmarks)
+     * @throws CommandLineOptionException if the options are invalid
+     * @throws RunnerException if the benchmarks fail
+     */
+    public static void main(final String[] args) throws CommandLineOptionException, RunnerException {
+        val commandLineOptions = new CommandLineOptions(args);
+        val builder = new OptionsBuilder().parent(commandLineOptions).addProfiler(GCProfiler.class);
+        if (commandLineOptions.getIncludes().isEmpty()) {
+            builder.include(Benchmarks.class.getPackageName() + ".*Benchmark");
+        }
+        new Runner(builder.build()).run();
+    }
+}
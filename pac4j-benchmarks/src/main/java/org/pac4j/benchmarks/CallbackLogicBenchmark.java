@@ -0,0 +1,69 @@
+package org.pac4j.benchmarks;
+
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.engine.DefaultCallbackLogic;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.http.client.indirect.FormClient;
+import org.pac4j.http.credentials.authenticator.test.SimpleTestUsernamePasswordAuthenticator;
+
+/**
+ * Benchmarks the {@link DefaultCallbackLogic}: login of a form client, with and without session renewal.
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+@State(Scope.Benchmark)
+public class CallbackLogicBenchmark extends AbstractLogicBenchmark {
+
+    private static final String FORM_CLIENT = "FormClient";
+
+    private static final String DEFAULT_URL = "https://www.pac4j.org/";
+
+    private final DefaultCallbackLogic logic = new DefaultCallbackLogic();
+
+    private Config config;
+
+    /**
+     * Build the configuration.
+     */
+    @Setup
+    public void setUp() {
+        config = buildConfig(new FormClient(LOGIN_URL, new SimpleTestUsernamePasswordAuthenticator()));
+    }
+
+    private Object callback(final boolean renewSession) {
+        val context = newRequest()
+            .setRequestMethod(HttpConstants.HTTP_METHOD.POST.name())
+            .addRequestParameter(Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER, FORM_CLIENT)
+            .addRequestParameter(Pac4jConstants.USERNAME, USERNAME)
+            .addRequestParameter(Pac4jConstants.PASSWORD, USERNAME);
+        return logic.perform(config, DEFAULT_URL, renewSession, null, new BenchmarkParameters(context, new MockSessionStore()));
+    }
+
+    /**
+     * Successful form login, renewing the session.
+     *
+     * @return the result
+     */
+    @Benchmark
+    public Object formLogin() {
+        return callback(true);
+    }
+
+    /**
+     * Successful form login, keeping the session.
+     *
+     * @return the result
+     */
+    @Benchmark
+    public Object formLoginWithoutSessionRenewal() {
+        return callback(false);
+    }
+}
@@ -0,0 +1,74 @@
+package org.pac4j.benchmarks;
+
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.engine.DefaultLogoutLogic;
+import org.pac4j.http.client.indirect.FormClient;
+import org.pac4j.http.credentials.authenticator.test.SimpleTestUsernamePasswordAuthenticator;
+
+/**
+ * Benchmarks the {@link DefaultLogoutLogic}: local logout of an authenticated user, with and without session destruction,
+ * and logout of an anonymous user.
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+@State(Scope.Benchmark)
+public class LogoutLogicBenchmark extends AbstractLogicBenchmark {
+
+    private static final String FORM_CLIENT = "FormClient";
+
+    private static final String DEFAULT_URL = "https://www.pac4j.org/";
+
+    private final DefaultLogoutLogic logic = new DefaultLogoutLogic();
+
+    private Config config;
+
+    /**
+     * Build the configuration.
+     */
+    @Setup
+    public void setUp() {
+        config = buildConfig(new FormClient(LOGIN_URL, new SimpleTestUsernamePasswordAuthenticator()));
+    }
+
+    /**
+     * Local logout of an authenticated user.
+     *
+     * @return the result
+     */
+    @Benchmark
+    public Object localLogout() {
+        val context = newRequest();
+        return logic.perform(config, DEFAULT_URL, null, true, false, false,
+            new BenchmarkParameters(context, newAuthenticatedSession(context, FORM_CLIENT)));
+    }
+
+    /**
+     * Local logout of an authenticated user, destroying the session.
+     *
+     * @return the result
+     */
+    @Benchmark
+    public Object localLogoutDestroySession() {
+        val context = newRequest();
+        return logic.perform(config, DEFAULT_URL, null, true, true, false,
+            new BenchmarkParameters(context, newAuthenticatedSession(context, FORM_CLIENT)));
+    }
+
+    /**
+     * Logout without any authenticated user.
+     *
+     * @return the result
+     */
+    @Benchmark
+    public Object anonymousLogout() {
+        return logic.perform(config, DEFAULT_URL, null, true, false, false,
+            new BenchmarkParameters(newRequest(), new MockSessionStore()));
+    }
+}
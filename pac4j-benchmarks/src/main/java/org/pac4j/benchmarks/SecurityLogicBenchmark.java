@@ -0,0 +1,154 @@
+package org.pac4j.benchmarks;
+
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.pac4j.core.authorization.authorizer.RequireAnyRoleAuthorizer;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.engine.DefaultSecurityLogic;
+import org.pac4j.core.engine.SecurityGrantedAccessAdapter;
+import org.pac4j.core.matching.matcher.PathMatcher;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.http.client.direct.DirectBasicAuthClient;
+import org.pac4j.http.client.direct.HeaderClient;
+import org.pac4j.http.client.indirect.FormClient;
+import org.pac4j.http.credentials.authenticator.test.SimpleTestTokenAuthenticator;
+import org.pac4j.http.credentials.authenticator.test.SimpleTestUsernamePasswordAuthenticator;
+import org.pac4j.jwt.config.signature.SecretSignatureConfiguration;
+import org.pac4j.jwt.credentials.authenticator.JwtAuthenticator;
+import org.pac4j.jwt.profile.JwtGenerator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Benchmarks the {@link DefaultSecurityLogic}: direct clients (header, basic auth, JWT),
+ * profiles loaded from the session and matcher/authorizer chains.
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+@State(Scope.Benchmark)
+public class SecurityLogicBenchmark extends AbstractLogicBenchmark {
+
+    private static final String HEADER_CLIENT = "HeaderClient";
+
+    private static final String BASIC_AUTH_CLIENT = "DirectBasicAuthClient";
+
+    private static final String JWT_CLIENT = "JwtClient";
+
+    private static final String FORM_CLIENT = "FormClient";
+
+    private static final String TOKEN_HEADER = "X-Token";
+
+    private static final String SECRET = "12345678901234567890123456789012";
+
+    private static final SecurityGrantedAccessAdapter GRANTED = (context, sessionStore, profiles) -> profiles;
+
+    private final DefaultSecurityLogic logic = new DefaultSecurityLogic();
+
+    private Config config;
+
+    private String basicAuthHeader;
+
+    private String jwtHeader;
+
+    /**
+     * Build the configuration and the credentials.
+     */
+    @Setup
+    public void setUp() {
+        val jwtClient = new HeaderClient(HttpConstants.AUTHORIZATION_HEADER, HttpConstants.BEARER_HEADER_PREFIX,
+            new JwtAuthenticator(new SecretSignatureConfiguration(SECRET)));
+        jwtClient.setName(JWT_CLIENT);
+        config = buildConfig(new HeaderClient(TOKEN_HEADER, new SimpleTestTokenAuthenticator()),
+            new DirectBasicAuthClient(new SimpleTestUsernamePasswordAuthenticator()), jwtClient,
+            new FormClient(LOGIN_URL, new SimpleTestUsernamePasswordAuthenticator()));
+        config.addAuthorizer("admin", new RequireAnyRoleAuthorizer("admin"));
+        config.addMatcher("excludedPaths", new PathMatcher().excludePaths("/health", "/metrics").excludeBranch("/static"));
+
+        basicAuthHeader = HttpConstants.BASIC_HEADER_PREFIX
+            + Base64.getEncoder().encodeToString((USERNAME + ":" + USERNAME).getBytes(StandardCharsets.UTF_8));
+        val profile = new CommonProfile();
+        profile.setId(USERNAME);
+        jwtHeader = HttpConstants.BEARER_HEADER_PREFIX + new JwtGenerator(new SecretSignatureConfiguration(SECRET)).generate(profile);
+    }
+
+    private Object secure(final String clients, final String authorizers, final String matchers,
+                          final BenchmarkParameters parameters) {
+        return logic.perform(config, GRANTED, clients, authorizers, matchers, parameters);
+    }
+
+    /**
+     * Authentication by a header token.
+     *
+     * @return the result
+     */
+    @Benchmark
+    public Object headerClient() {
+        val context = newRequest().addRequestHeader(TOKEN_HEADER, USERNAME);
+        return secure(HEADER_CLIENT, null, null, new BenchmarkParameters(context, new MockSessionStore()));
+    }
+
+    /**
+     * Authentication by a basic auth header.
+     *
+     * @return the result
+     */
+    @Benchmark
+    public Object basicAuthClient() {
+        val context = newRequest().addRequestHeader(HttpConstants.AUTHORIZATION_HEADER, basicAuthHeader);
+        return secure(BASIC_AUTH_CLIENT, null, null,
+            new BenchmarkParameters(context, new MockSessionStore()));
+    }
+
+    /**
+     * Authentication by a signed JWT bearer token.
+     *
+     * @return the result
+     */
+    @Benchmark
+    public Object jwtClient() {
+        val context = newRequest().addRequestHeader(HttpConstants.AUTHORIZATION_HEADER, jwtHeader);
+        return secure(JWT_CLIENT, null, null, new BenchmarkParameters(context, new MockSessionStore()));
+    }
+
+    /**
+     * Profile loaded from the session (indirect client).
+     *
+     * @return the result
+     */
+    @Benchmark
+    public Object sessionProfile() {
+        val context = newRequest();
+        return secure(FORM_CLIENT, null, null, new BenchmarkParameters(context, newAuthenticatedSession(context, FORM_CLIENT)));
+    }
+
+    /**
+     * Profile loaded from the session with a chain of matchers and authorizers.
+     *
+     * @return the result
+     */
+    @Benchmark
+    public Object matchersAndAuthorizers() {
+        val context = newRequest().setPath("/protected/resource");
+        return secure(FORM_CLIENT, "+admin", "+get,excludedPaths",
+            new BenchmarkParameters(context, newAuthenticatedSession(context, FORM_CLIENT)));
+    }
+
+    /**
+     * Request excluded by the matchers.
+     *
+     * @return the result
+     */
+    @Benchmark
+    public Object excludedPath() {
+        val context = newRequest().setPath("/static/app.js");
+        return secure(FORM_CLIENT, null, "excludedPaths",
+            new BenchmarkParameters(context, new MockSessionStore()));
+    }
+}
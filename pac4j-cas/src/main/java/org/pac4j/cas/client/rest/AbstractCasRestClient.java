@@ -4,7 +4,10 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.val;
 import org.apereo.cas.client.validation.TicketValidationException;
+import org.apereo.cas.client.validation.TicketValidator;
 import org.pac4j.cas.config.CasConfiguration;
+import org.pac4j.cas.http.CasHttpResponse;
+import org.pac4j.cas.http.CasHttpTransport;
 import org.pac4j.cas.profile.CasProfile;
 import org.pac4j.cas.profile.CasRestProfile;
 import org.pac4j.core.client.DirectClient;
@@ -15,21 +18,35 @@ import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.ProfileHelper;
 import org.pac4j.core.util.HttpUtils;
 
-import java.io.*;
-import java.net.HttpURLConnection;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * This is {@link CasRestFormClient} able to communicate to
  * a CAS server via its REST api, to retrieve TGTs and STs
  * and to construct CAS principals.
  *
+ * <p>The <code>*Async</code> methods return futures which can be composed to pipeline the calls to the CAS server
+ * without blocking the request thread: the HTTP requests are sent by the {@link CasHttpTransport#sendAsync} method
+ * and the blocking steps (like the ticket validation) run on the {@code CasConfiguration#getAsyncExecutor()}.
+ * The web context is only read on the calling thread. The futures fail with a {@link TechnicalException}
+ * (wrapped in a {@link CompletionException}).</p>
+ *
  * @author Misagh Moayyed
  * @since 1.8.0
  */
 public abstract class AbstractCasRestClient extends DirectClient {
 
+    private static final Map<String, String> SERVICE_TICKET_REQUEST_HEADERS =
+        Map.of(HttpConstants.CONTENT_TYPE_HEADER, HttpConstants.APPLICATION_FORM_ENCODED_HEADER_VALUE);
+
     @Getter
     @Setter
     protected CasConfiguration configuration;
@@ -41,20 +58,35 @@ public abstract class AbstractCasRestClient extends DirectClient {
      * @param context a {@link WebContext} object
      */
     public void destroyTicketGrantingTicket(final CasRestProfile profile, final WebContext context) {
-        HttpURLConnection connection = null;
         try {
-            val endpointURL = new URL(configuration.computeFinalRestUrl(context));
-            val deleteURL = new URL(endpointURL, endpointURL.getPath() + "/" + profile.getTicketGrantingTicketId());
-            connection = HttpUtils.openDeleteConnection(deleteURL);
-            val responseCode = connection.getResponseCode();
-            if (responseCode != HttpConstants.OK) {
-                throw new TechnicalException("TGT delete request for `" + profile + "` failed: " +
-                        HttpUtils.buildHttpErrorMessage(connection));
-            }
+            val response = configuration.getHttpTransport()
+                .send(HttpConstants.HTTP_METHOD.DELETE.name(), buildTicketURL(profile, context), Map.of(), null);
+            checkDestroyResponse(profile, response);
         } catch (final IOException e) {
             throw new TechnicalException(e);
-        } finally {
-            HttpUtils.closeConnection(connection);
+        }
+    }
+
+    /**
+     * Destroy the ticket granting ticket asynchronously.
+     *
+     * @param profile a {@link CasRestProfile} object
+     * @param context a {@link WebContext} object
+     * @return the future completed when the ticket granting ticket is destroyed
+     */
+    public CompletableFuture<Void> destroyTicketGrantingTicketAsync(final CasRestProfile profile, final WebContext context) {
+        try {
+            return wrapErrors(configuration.getHttpTransport()
+                .sendAsync(HttpConstants.HTTP_METHOD.DELETE.name(), buildTicketURL(profile, context), Map.of(), null, getAsyncExecutor())
+                .thenAccept(response -> checkDestroyResponse(profile, response)));
+        } catch (final IOException e) {
+            return CompletableFuture.failedFuture(new TechnicalException(e));
+        }
+    }
+
+    private static void checkDestroyResponse(final CasRestProfile profile, final CasHttpResponse response) {
+        if (response.status() != HttpConstants.OK) {
+            throw new TechnicalException("TGT delete request for `" + profile + "` failed: " + response.buildErrorMessage());
         }
     }
 
@@ -67,31 +99,48 @@ public abstract class AbstractCasRestClient extends DirectClient {
      * @return a {@link TokenCredentials} object
      */
     public TokenCredentials requestServiceTicket(final String serviceURL, final CasRestProfile profile, final WebContext context) {
-        HttpURLConnection connection = null;
         try {
-            val endpointURL = new URL(configuration.computeFinalRestUrl(context));
-            val ticketURL = new URL(endpointURL, endpointURL.getPath() + "/" + profile.getTicketGrantingTicketId());
+            val response = configuration.getHttpTransport().send(HttpConstants.HTTP_METHOD.POST.name(),
+                buildTicketURL(profile, context), SERVICE_TICKET_REQUEST_HEADERS, buildServiceTicketPayload(serviceURL));
+            return readServiceTicket(profile, response);
+        } catch (final IOException e) {
+            throw new TechnicalException(e);
+        }
+    }
 
-            connection = HttpUtils.openPostConnection(ticketURL);
-            val payload = HttpUtils.encodeQueryParam("service", serviceURL);
+    /**
+     * Request a service ticket asynchronously.
+     *
+     * @param serviceURL a {@link String} object
+     * @param profile a {@link CasRestProfile} object
+     * @param context a {@link WebContext} object
+     * @return the future service ticket
+     */
+    public CompletableFuture<TokenCredentials> requestServiceTicketAsync(final String serviceURL, final CasRestProfile profile,
+                                                                         final WebContext context) {
+        try {
+            return wrapErrors(configuration.getHttpTransport()
+                .sendAsync(HttpConstants.HTTP_METHOD.POST.name(), buildTicketURL(profile, context), SERVICE_TICKET_REQUEST_HEADERS,
+                    buildServiceTicketPayload(serviceURL), getAsyncExecutor())
+                .thenApply(response -> readServiceTicket(profile, response)));
+        } catch (final IOException e) {
+            return CompletableFuture.failedFuture(new TechnicalException(e));
+        }
+    }
 
-            val out = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8));
-            out.write(payload);
-            out.close();
+    private static byte[] buildServiceTicketPayload(final String serviceURL) {
+        return HttpUtils.encodeQueryParam("service", serviceURL).getBytes(StandardCharsets.UTF_8);
+    }
 
-            val responseCode = connection.getResponseCode();
-            if (responseCode == HttpConstants.OK) {
-                try (var in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
-                    return new TokenCredentials(in.readLine());
-                }
+    private static TokenCredentials readServiceTicket(final CasRestProfile profile, final CasHttpResponse response) {
+        if (response.status() == HttpConstants.OK) {
+            try (var in = new BufferedReader(new StringReader(response.getBodyAsString()))) {
+                return new TokenCredentials(in.readLine());
+            } catch (final IOException e) {
+                throw new TechnicalException(e);
             }
-            throw new TechnicalException("Service ticket request for `" + profile + "` failed: " +
-                    HttpUtils.buildHttpErrorMessage(connection));
-        } catch (final IOException e) {
-            throw new TechnicalException(e);
-        } finally {
-            HttpUtils.closeConnection(connection);
         }
+        throw new TechnicalException("Service ticket request for `" + profile + "` failed: " + response.buildErrorMessage());
     }
 
     /**
@@ -103,8 +152,33 @@ public abstract class AbstractCasRestClient extends DirectClient {
      * @return a {@link CasProfile} object
      */
     public CasProfile validateServiceTicket(final String serviceURL, final TokenCredentials ticket, final WebContext context) {
+        return validateServiceTicket(configuration.retrieveTicketValidator(context), serviceURL, ticket);
+    }
+
+    /**
+     * Validate a service ticket asynchronously: the CAS client validators are blocking, so the validation runs
+     * on the {@code CasConfiguration#getAsyncExecutor()}.
+     *
+     * @param serviceURL a {@link String} object
+     * @param ticket a {@link TokenCredentials} object
+     * @param context a {@link WebContext} object
+     * @return the future CAS profile
+     */
+    public CompletableFuture<CasProfile> validateServiceTicketAsync(final String serviceURL, final TokenCredentials ticket,
+                                                                    final WebContext context) {
+        final TicketValidator ticketValidator;
+        try {
+            ticketValidator = configuration.retrieveTicketValidator(context);
+        } catch (final RuntimeException e) {
+            return CompletableFuture.failedFuture(e instanceof TechnicalException ? e : new TechnicalException(e));
+        }
+        return CompletableFuture.supplyAsync(() -> validateServiceTicket(ticketValidator, serviceURL, ticket), getAsyncExecutor());
+    }
+
+    private static CasProfile validateServiceTicket(final TicketValidator ticketValidator, final String serviceURL,
+                                                    final TokenCredentials ticket) {
         try {
-            val assertion = configuration.retrieveTicketValidator(context).validate(ticket.getToken(), serviceURL);
+            val assertion = ticketValidator.validate(ticket.getToken(), serviceURL);
             val principal = assertion.getPrincipal();
             val casProfile = new CasProfile();
             casProfile.setId(ProfileHelper.sanitizeIdentifier(principal.getName()));
@@ -114,4 +188,21 @@ public abstract class AbstractCasRestClient extends DirectClient {
             throw new TechnicalException(e);
         }
     }
+
+    private URL buildTicketURL(final CasRestProfile profile, final WebContext context) throws IOException {
+        val endpointURL = new URL(configuration.computeFinalRestUrl(context));
+        return new URL(endpointURL, endpointURL.getPath() + "/" + profile.getTicketGrantingTicketId());
+    }
+
+    private Executor getAsyncExecutor() {
+        configuration.init();
+        return configuration.getAsyncExecutor();
+    }
+
+    private static <T> CompletableFuture<T> wrapErrors(final CompletableFuture<T> future) {
+        return future.exceptionallyCompose(throwable -> {
+            val cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+            return CompletableFuture.failedFuture(cause instanceof TechnicalException ? cause : new TechnicalException(cause));
+        });
+    }
 }
@@ -7,6 +7,9 @@ import org.apereo.cas.client.ssl.HttpURLConnectionFactory;
 import org.apereo.cas.client.util.PrivateKeyUtils;
 import org.apereo.cas.client.validation.*;
 import org.pac4j.cas.client.CasProxyReceptor;
+import org.pac4j.cas.http.CasHttpTransport;
+import org.pac4j.cas.http.CasHttpTransportURLConnectionFactory;
+import org.pac4j.cas.http.UrlConnectionCasHttpTransport;
 import org.pac4j.cas.store.ProxyGrantingTicketStore;
 import org.pac4j.core.client.config.BaseClientConfiguration;
 import org.pac4j.core.context.WebContext;
@@ -23,6 +26,9 @@ import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
 import java.security.PrivateKey;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
  * CAS configuration.
@@ -53,6 +59,8 @@ public class CasConfiguration extends BaseClientConfiguration {
     /** Constant <code>RELAY_STATE_PARAMETER="RelayState"</code> */
     public final static String RELAY_STATE_PARAMETER = "RelayState";
 
+    private static final int MAX_TICKET_VALIDATORS = 64;
+
     private String encoding = StandardCharsets.UTF_8.name();
 
     private String loginUrl;
@@ -96,6 +104,16 @@ public class CasConfiguration extends BaseClientConfiguration {
 
     private SSLSocketFactory sslSocketFactory;
 
+    private CasHttpTransport httpTransport = new UrlConnectionCasHttpTransport();
+
+    /* executor of the blocking steps of the asynchronous REST calls (a shared cached pool of daemon threads if not defined) */
+    private Executor asyncExecutor;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final Map<TicketValidatorKey, TicketValidator> ticketValidators = new ConcurrentHashMap<>();
+
     /**
      * <p>Constructor for CasConfiguration.</p>
      */
@@ -141,6 +159,14 @@ public class CasConfiguration extends BaseClientConfiguration {
         if (urlResolver == null) {
             urlResolver = new DefaultUrlResolver();
         }
+        if (httpTransport == null) {
+            httpTransport = new UrlConnectionCasHttpTransport();
+        }
+        if (!(httpTransport instanceof UrlConnectionCasHttpTransport) && (sslSocketFactory != null || hostnameVerifier != null)) {
+            throw new TechnicalException("sslSocketFactory and hostnameVerifier only apply to the default httpTransport: "
+                + "define the TLS settings of the custom httpTransport instead");
+        }
+        ticketValidators.clear();
 
         initializeClientConfiguration();
 
@@ -151,6 +177,24 @@ public class CasConfiguration extends BaseClientConfiguration {
         }
     }
 
+    /**
+     * Return the executor of the blocking steps of the asynchronous REST calls: the defined one or a cached pool
+     * of daemon threads, created on first use and shared by all the configurations (its idle threads expire).
+     *
+     * @return the executor
+     */
+    public Executor getAsyncExecutor() {
+        return asyncExecutor != null ? asyncExecutor : DefaultAsyncExecutorHolder.INSTANCE;
+    }
+
+    private static class DefaultAsyncExecutorHolder {
+        private static final Executor INSTANCE = Executors.newCachedThreadPool(runnable -> {
+            val thread = new Thread(runnable, "pac4j-cas-async");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     /**
      * <p>initializeClientConfiguration.</p>
      */
@@ -173,7 +217,8 @@ public class CasConfiguration extends BaseClientConfiguration {
     }
 
     /**
-     * <p>retrieveTicketValidator.</p>
+     * Retrieve the ticket validator: the validators are built once and reused per protocol, prefix URL,
+     * proxy callback URL and validation settings.
      *
      * @param context a {@link WebContext} object
      * @return a {@link TicketValidator} object
@@ -182,21 +227,44 @@ public class CasConfiguration extends BaseClientConfiguration {
         if (this.defaultTicketValidator != null) {
             return this.defaultTicketValidator;
         } else {
-            if (this.protocol == CasProtocol.CAS10) {
-                return buildCas10TicketValidator(context);
-            } else if (this.protocol == CasProtocol.CAS20) {
-                return buildCas20TicketValidator(context);
-            } else if (this.protocol == CasProtocol.CAS20_PROXY) {
-                return buildCas20ProxyTicketValidator(context);
-            } else if (this.protocol == CasProtocol.CAS30) {
-                return buildCas30TicketValidator(context);
-            } else if (this.protocol == CasProtocol.CAS30_PROXY) {
-                return buildCas30ProxyTicketValidator(context);
-            } else if (this.protocol == CasProtocol.SAML) {
-                return buildSAMLTicketValidator(context);
-            } else {
-                throw new TechnicalException("Unable to initialize the TicketValidator for protocol: " + this.protocol);
+            val proxyCallbackUrl = this.proxyReceptor != null ? this.proxyReceptor.computeFinalCallbackUrl(context) : null;
+            val key = new TicketValidatorKey(this.protocol, computeFinalPrefixUrl(context), proxyCallbackUrl,
+                Arrays.asList(this.encoding, this.renew, this.timeTolerance, this.acceptAnyProxy, this.allowedProxyChains,
+                    this.proxyReceptor, this.privateKey, this.sslSocketFactory, this.hostnameVerifier, this.httpTransport));
+            var validator = ticketValidators.get(key);
+            if (validator == null) {
+                validator = buildTicketValidator(context);
+                if (ticketValidators.size() >= MAX_TICKET_VALIDATORS) {
+                    // the settings or the computed URLs keep changing: do not retain the obsolete validators
+                    ticketValidators.clear();
+                }
+                ticketValidators.put(key, validator);
             }
+            return validator;
+        }
+    }
+
+    /**
+     * <p>buildTicketValidator.</p>
+     *
+     * @param context a {@link WebContext} object
+     * @return a {@link TicketValidator} object
+     */
+    protected TicketValidator buildTicketValidator(final WebContext context) {
+        if (this.protocol == CasProtocol.CAS10) {
+            return buildCas10TicketValidator(context);
+        } else if (this.protocol == CasProtocol.CAS20) {
+            return buildCas20TicketValidator(context);
+        } else if (this.protocol == CasProtocol.CAS20_PROXY) {
+            return buildCas20ProxyTicketValidator(context);
+        } else if (this.protocol == CasProtocol.CAS30) {
+            return buildCas30TicketValidator(context);
+        } else if (this.protocol == CasProtocol.CAS30_PROXY) {
+            return buildCas30ProxyTicketValidator(context);
+        } else if (this.protocol == CasProtocol.SAML) {
+            return buildSAMLTicketValidator(context);
+        } else {
+            throw new TechnicalException("Unable to initialize the TicketValidator for protocol: " + this.protocol);
         }
     }
 
@@ -372,6 +440,9 @@ public class CasConfiguration extends BaseClientConfiguration {
     }
 
     private Optional<HttpURLConnectionFactory> getHttpURLConnectionFactory() {
+        if (this.httpTransport != null && !(this.httpTransport instanceof UrlConnectionCasHttpTransport)) {
+            return Optional.of(new CasHttpTransportURLConnectionFactory(this.httpTransport));
+        }
         if (this.sslSocketFactory == null && this.hostnameVerifier == null) {
             return Optional.empty();
         }
@@ -394,4 +465,6 @@ public class CasConfiguration extends BaseClientConfiguration {
         };
         return Optional.of(factory);
     }
+
+    private record TicketValidatorKey(CasProtocol protocol, String prefixUrl, String proxyCallbackUrl, List<Object> settings) {}
 }
@@ -16,12 +16,10 @@ import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.HttpUtils;
 import org.pac4j.core.util.Pac4jConstants;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -60,30 +58,27 @@ public class CasRestAuthenticator implements Authenticator {
     }
 
     private String requestTicketGrantingTicket(final String username, final String password, final WebContext context) {
-        HttpURLConnection connection = null;
         try {
-            connection = HttpUtils.openPostConnection(new URL(this.configuration.computeFinalRestUrl(context)));
+            val url = new URL(this.configuration.computeFinalRestUrl(context));
             val payload = HttpUtils.encodeQueryParam(Pac4jConstants.USERNAME, username)
                     + "&" + HttpUtils.encodeQueryParam(Pac4jConstants.PASSWORD, password);
 
-            val out = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8));
-            out.write(payload);
-            out.close();
+            val response = this.configuration.getHttpTransport().send(HttpConstants.HTTP_METHOD.POST.name(), url,
+                Map.of(HttpConstants.CONTENT_TYPE_HEADER, HttpConstants.APPLICATION_FORM_ENCODED_HEADER_VALUE),
+                payload.getBytes(StandardCharsets.UTF_8));
 
-            val locationHeader = connection.getHeaderField("location");
-            val responseCode = connection.getResponseCode();
+            val locationHeader = response.getHeader("location");
+            val responseCode = response.status();
             if (locationHeader != null && responseCode == HttpConstants.CREATED) {
                 return locationHeader.substring(locationHeader.lastIndexOf("/") + 1);
             }
 
             LOGGER.debug("Ticket granting ticket request failed: " + locationHeader + " " + responseCode +
-                HttpUtils.buildHttpErrorMessage(connection));
+                response.buildErrorMessage());
 
             return null;
         } catch (final IOException e) {
             throw new TechnicalException(e);
-        } finally {
-            HttpUtils.closeConnection(connection);
         }
     }
 }
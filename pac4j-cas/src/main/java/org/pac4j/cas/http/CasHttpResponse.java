@@ -0,0 +1,52 @@
+package org.pac4j.cas.http;
+
+import lombok.val;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A HTTP response of the CAS server.
+ *
+ * @param status the HTTP status code
+ * @param headers the response headers
+ * @param body the response body
+ * @author agent
+ * @since 6.1.3
+ */
+public record CasHttpResponse(int status, Map<String, List<String>> headers, byte[] body) {
+
+    /**
+     * Return the first value of a response header (the header name is case insensitive).
+     *
+     * @param name the header name
+     * @return the header value or <code>null</code>
+     */
+    public String getHeader(final String name) {
+        for (val entry : headers.entrySet()) {
+            if (name.equalsIgnoreCase(entry.getKey()) && !entry.getValue().isEmpty()) {
+                return entry.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return the response body as a UTF-8 string.
+     *
+     * @return the response body
+     */
+    public String getBodyAsString() {
+        return body != null ? new String(body, StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * Build an error message from the response status and body.
+     *
+     * @return the error message
+     */
+    public String buildErrorMessage() {
+        return "(" + status + ")[" + getBodyAsString() + "]";
+    }
+}
@@ -0,0 +1,51 @@
+package org.pac4j.cas.http;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * The HTTP transport used to call the CAS server (REST API and ticket validation).
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+public interface CasHttpTransport {
+
+    /**
+     * Send a HTTP request and read the whole response.
+     *
+     * @param method the HTTP method
+     * @param url the URL
+     * @param headers the request headers
+     * @param body the request body (may be <code>null</code>)
+     * @return the HTTP response
+     * @throws IOException if the request cannot be sent or the response cannot be read
+     */
+    CasHttpResponse send(String method, URL url, Map<String, String> headers, byte[] body) throws IOException;
+
+    /**
+     * Send a HTTP request asynchronously: by default, the blocking {@link #send(String, URL, Map, byte[])} method is run
+     * on the provided executor.
+     *
+     * @param method the HTTP method
+     * @param url the URL
+     * @param headers the request headers
+     * @param body the request body (may be <code>null</code>)
+     * @param executor the executor of the blocking operations
+     * @return the future HTTP response
+     */
+    default CompletableFuture<CasHttpResponse> sendAsync(final String method, final URL url, final Map<String, String> headers,
+                                                         final byte[] body, final Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return send(method, url, headers, body);
+            } catch (final IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+}
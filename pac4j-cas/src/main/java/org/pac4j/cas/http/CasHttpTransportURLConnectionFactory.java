@@ -0,0 +1,144 @@
+package org.pac4j.cas.http;
+
+import lombok.val;
+import org.apereo.cas.client.ssl.HttpURLConnectionFactory;
+import org.pac4j.core.util.CommonHelper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.io.Serial;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Connection factory for the CAS client ticket validators, sending their requests through a {@link CasHttpTransport}
+ * (the validators only allow to customize the connections, not to replace them).
+ *
+ * <p>The transport is not serialized: after a deserialization, the requests are sent through the default
+ * {@link UrlConnectionCasHttpTransport}.</p>
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+public class CasHttpTransportURLConnectionFactory implements HttpURLConnectionFactory {
+
+    @Serial
+    private static final long serialVersionUID = -2453197325634216917L;
+
+    private transient CasHttpTransport transport;
+
+    /**
+     * <p>Constructor for CasHttpTransportURLConnectionFactory.</p>
+     *
+     * @param transport the HTTP transport
+     */
+    public CasHttpTransportURLConnectionFactory(final CasHttpTransport transport) {
+        CommonHelper.assertNotNull("transport", transport);
+        this.transport = transport;
+    }
+
+    @Serial
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.transport = new UrlConnectionCasHttpTransport();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public HttpURLConnection buildHttpURLConnection(final URLConnection conn) {
+        return new TransportHttpURLConnection(conn.getURL(), transport);
+    }
+
+    /**
+     * A connection which sends its request through the transport on first access to the response.
+     */
+    private static final class TransportHttpURLConnection extends HttpURLConnection {
+
+        private final CasHttpTransport transport;
+
+        private ByteArrayOutputStream requestBody;
+
+        private CasHttpResponse response;
+
+        private TransportHttpURLConnection(final URL url, final CasHttpTransport transport) {
+            super(url);
+            this.transport = transport;
+        }
+
+        @Override
+        public void connect() throws IOException {
+            if (response == null) {
+                final Map<String, String> headers = new LinkedHashMap<>();
+                getRequestProperties().forEach((name, values) -> {
+                    if (name != null && !values.isEmpty()) {
+                        headers.put(name, values.get(0));
+                    }
+                });
+                val body = requestBody != null ? requestBody.toByteArray() : null;
+                response = transport.send(getRequestMethod(), getURL(), headers, body);
+                responseCode = response.status();
+                connected = true;
+            }
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            if (response != null) {
+                throw new IOException("The request has already been sent");
+            }
+            if (requestBody == null) {
+                requestBody = new ByteArrayOutputStream();
+                if ("GET".equals(getRequestMethod())) {
+                    // same behavior as the JDK connection
+                    setRequestMethod("POST");
+                }
+            }
+            return requestBody;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            connect();
+            if (responseCode >= HTTP_BAD_REQUEST) {
+                throw new IOException("Server returned HTTP response code: " + responseCode + " for URL: " + getURL());
+            }
+            return new ByteArrayInputStream(response.body());
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            if (response == null || responseCode < HTTP_BAD_REQUEST) {
+                return null;
+            }
+            return new ByteArrayInputStream(response.body());
+        }
+
+        @Override
+        public int getResponseCode() throws IOException {
+            connect();
+            return responseCode;
+        }
+
+        @Override
+        public String getHeaderField(final String name) {
+            return response != null && name != null ? response.getHeader(name) : null;
+        }
+
+        @Override
+        public void disconnect() {
+            // the connections are managed by the transport
+        }
+
+        @Override
+        public boolean usingProxy() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package org.pac4j.cas.http;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.HttpUtils;
+import org.pac4j.core.util.InitializableObject;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP transport based on a shared {@link HttpClient}: the connections are kept alive and reused (HTTP/2 multiplexes
+ * the requests over a single connection), so that the TLS handshakes are not repeated for each call to the CAS server.
+ *
+ * <p>The number of concurrent requests per host is limited to {@link #maxConcurrentRequestsPerHost}, which also bounds
+ * the number of HTTP/1.1 connections opened to the CAS server. The {@link #requestTimeout} covers both the wait for a permit
+ * and the request itself: a request waiting longer for a permit fails. The idle connections are closed by the JDK after
+ * the <code>jdk.httpclient.keepalive.timeout</code> system property (in seconds).</p>
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+@Getter
+@Setter
+@ToString(exclude = {"httpClient", "hostPermits"})
+@Slf4j
+public class HttpClientCasHttpTransport extends InitializableObject implements CasHttpTransport {
+
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private Duration connectTimeout = Duration.ofMillis(HttpUtils.getConnectTimeout());
+
+    private Duration requestTimeout = Duration.ofMillis(HttpUtils.getReadTimeout());
+
+    private int maxConcurrentRequestsPerHost = 64;
+
+    private HttpClient.Version version = HttpClient.Version.HTTP_2;
+
+    private SSLContext sslContext;
+
+    private Executor executor;
+
+    private HttpClient httpClient;
+
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    /** {@inheritDoc} */
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotNull("connectTimeout", connectTimeout);
+        CommonHelper.assertNotNull("requestTimeout", requestTimeout);
+        CommonHelper.assertTrue(maxConcurrentRequestsPerHost > 0, "maxConcurrentRequestsPerHost must be greater than zero");
+
+        if (httpClient == null || forceReinit) {
+            val builder = HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER);
+            if (sslContext != null) {
+                builder.sslContext(sslContext);
+            }
+            if (executor != null) {
+                builder.executor(executor);
+            }
+            httpClient = builder.build();
+        }
+        hostPermits.clear();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CasHttpResponse send(final String method, final URL url, final Map<String, String> headers, final byte[] body)
+        throws IOException {
+        init();
+
+        val deadline = System.nanoTime() + requestTimeout.toNanos();
+        val permits = acquirePermit(url, requestTimeout);
+        try {
+            val request = buildRequest(method, url, headers, body, remainingTimeout(deadline));
+            val response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            return new CasHttpResponse(response.statusCode(), response.headers().map(), response.body());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted request to: " + url);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The request is sent by the non-blocking {@link HttpClient#sendAsync(HttpRequest, HttpResponse.BodyHandler)} method:
+     * the executor is only used to wait for a permit when the concurrency limit of the host is reached.
+     */
+    @Override
+    public CompletableFuture<CasHttpResponse> sendAsync(final String method, final URL url, final Map<String, String> headers,
+                                                        final byte[] body, final Executor executor) {
+        init();
+
+        val deadline = System.nanoTime() + requestTimeout.toNanos();
+        val permits = hostPermits.computeIfAbsent(getHost(url), k -> new Semaphore(maxConcurrentRequestsPerHost));
+        final CompletableFuture<Semaphore> permit;
+        if (permits.tryAcquire()) {
+            permit = CompletableFuture.completedFuture(permits);
+        } else {
+            permit = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return acquirePermit(url, remainingTimeout(deadline));
+                } catch (final IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+        }
+        return permit.thenCompose(acquired -> {
+            final CompletableFuture<HttpResponse<byte[]>> response;
+            try {
+                val request = buildRequest(method, url, headers, body, remainingTimeout(deadline));
+                response = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+            } catch (final IOException | RuntimeException e) {
+                // the request has not been sent: the permit must be released now
+                acquired.release();
+                return CompletableFuture.failedFuture(e);
+            }
+            return response
+                .whenComplete((r, throwable) -> acquired.release())
+                .thenApply(r -> new CasHttpResponse(r.statusCode(), r.headers().map(), r.body()));
+        });
+    }
+
+    /**
+     * Build the HTTP request.
+     *
+     * @param method the HTTP method
+     * @param url the URL
+     * @param headers the request headers
+     * @param body the request body
+     * @param timeout the timeout of the request
+     * @return the HTTP request
+     * @throws IOException if the URL is not valid
+     */
+    protected HttpRequest buildRequest(final String method, final URL url, final Map<String, String> headers, final byte[] body,
+                                       final Duration timeout) throws IOException {
+        try {
+            val builder = HttpRequest.newBuilder(url.toURI())
+                .timeout(timeout)
+                .method(method, body != null ? HttpRequest.BodyPublishers.ofByteArray(body) : HttpRequest.BodyPublishers.noBody());
+            for (val entry : headers.entrySet()) {
+                // the HTTP client computes these headers itself and rejects them
+                if (!RESTRICTED_HEADERS.contains(entry.getKey().toLowerCase())) {
+                    builder.header(entry.getKey(), entry.getValue());
+                }
+            }
+            return builder.build();
+        } catch (final URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Acquire a permit to send a request to the host of the URL.
+     *
+     * @param url the URL
+     * @param timeout the maximum time to wait for a permit
+     * @return the semaphore to release after the request
+     * @throws IOException if no permit is available within the timeout
+     */
+    protected Semaphore acquirePermit(final URL url, final Duration timeout) throws IOException {
+        val host = getHost(url);
+        val permits = hostPermits.computeIfAbsent(host, k -> new Semaphore(maxConcurrentRequestsPerHost));
+        try {
+            if (!permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new IOException("Too many concurrent requests to: " + host);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to send a request to: " + host);
+        }
+        return permits;
+    }
+
+    /**
+     * Compute the time left until a deadline (at least one millisecond, as the HTTP client rejects a zero timeout).
+     *
+     * @param deadline the deadline (in {@link System#nanoTime()} units)
+     * @return the time left
+     */
+    protected static Duration remainingTimeout(final long deadline) {
+        return Duration.ofNanos(Math.max(TimeUnit.MILLISECONDS.toNanos(1), deadline - System.nanoTime()));
+    }
+
+    private static String getHost(final URL url) {
+        return url.getProtocol() + "://" + url.getAuthority();
+    }
+}
@@ -0,0 +1,69 @@
+package org.pac4j.cas.http;
+
+import lombok.ToString;
+import lombok.val;
+import org.pac4j.core.util.HttpUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The default HTTP transport: a new {@link HttpURLConnection} per request, with the {@link HttpUtils} timeouts.
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+@ToString
+public class UrlConnectionCasHttpTransport implements CasHttpTransport {
+
+    /** {@inheritDoc} */
+    @Override
+    public CasHttpResponse send(final String method, final URL url, final Map<String, String> headers, final byte[] body)
+        throws IOException {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) url.openConnection();
+            connection.setDoInput(true);
+            connection.setRequestMethod(method);
+            connection.setConnectTimeout(HttpUtils.getConnectTimeout());
+            connection.setReadTimeout(HttpUtils.getReadTimeout());
+            for (val entry : headers.entrySet()) {
+                connection.setRequestProperty(entry.getKey(), entry.getValue());
+            }
+            if (body != null) {
+                connection.setDoOutput(true);
+                try (val out = connection.getOutputStream()) {
+                    out.write(body);
+                }
+            }
+            val status = connection.getResponseCode();
+            final Map<String, List<String>> responseHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            connection.getHeaderFields().forEach((name, values) -> {
+                // the null name is the status line
+                if (name != null) {
+                    responseHeaders.put(name, values);
+                }
+            });
+            val in = status < HttpURLConnection.HTTP_BAD_REQUEST ? connection.getInputStream() : connection.getErrorStream();
+            return new CasHttpResponse(status, responseHeaders, readAll(in));
+        } finally {
+            HttpUtils.closeConnection(connection);
+        }
+    }
+
+    private static byte[] readAll(final InputStream in) throws IOException {
+        if (in == null) {
+            return new byte[0];
+        }
+        try (in; val out = new ByteArrayOutputStream()) {
+            in.transferTo(out);
+            return out.toByteArray();
+        }
+    }
+}
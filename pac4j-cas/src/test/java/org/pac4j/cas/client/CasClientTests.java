@@ -2,7 +2,10 @@ package org.pac4j.cas.client;
 
 import lombok.val;
 import org.junit.Test;
+import org.apereo.cas.client.validation.Cas20ServiceTicketValidator;
+import org.apereo.cas.client.validation.Saml11TicketValidator;
 import org.pac4j.cas.config.CasConfiguration;
+import org.pac4j.cas.config.CasProtocol;
 import org.pac4j.core.context.CallContext;
 import org.pac4j.core.context.MockWebContext;
 import org.pac4j.core.context.WebContext;
@@ -108,6 +111,24 @@ public final class CasClientTests implements TestsConstants {
         assertEquals(HOST + CAS + "/", configuration.computeFinalPrefixUrl(null));
     }
 
+    @Test
+    public void testTicketValidatorIsReused() {
+        val configuration = new CasConfiguration();
+        configuration.setLoginUrl(LOGIN_URL);
+        configuration.setProtocol(CasProtocol.CAS20);
+        val context = MockWebContext.create();
+        val validator = configuration.retrieveTicketValidator(context);
+        assertTrue(validator instanceof Cas20ServiceTicketValidator);
+        assertSame(validator, configuration.retrieveTicketValidator(MockWebContext.create()));
+
+        configuration.setRenew(true);
+        val renewValidator = configuration.retrieveTicketValidator(context);
+        assertNotSame(validator, renewValidator);
+
+        configuration.setProtocol(CasProtocol.SAML);
+        assertTrue(configuration.retrieveTicketValidator(context) instanceof Saml11TicketValidator);
+    }
+
     @Test
     public void testRenewMissing() {
         val configuration = new CasConfiguration();
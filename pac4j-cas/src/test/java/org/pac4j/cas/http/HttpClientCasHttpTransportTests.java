@@ -0,0 +1,261 @@
+package org.pac4j.cas.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.val;
+import org.apereo.cas.client.validation.Cas20ServiceTicketValidator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.cas.client.rest.CasRestFormClient;
+import org.pac4j.cas.config.CasConfiguration;
+import org.pac4j.cas.config.CasProtocol;
+import org.pac4j.cas.profile.CasRestProfile;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.core.util.serializer.JavaSerializer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link HttpClientCasHttpTransport}.
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+public final class HttpClientCasHttpTransportTests implements TestsConstants {
+
+    private static final String USER = "jleleu";
+
+    private static final String SERVICE_TICKET = "ST-1";
+
+    private static final String VALIDATION_RESPONSE = """
+        <cas:serviceResponse xmlns:cas="http://www.yale.edu/tp/cas">
+            <cas:authenticationSuccess><cas:user>jleleu</cas:user></cas:authenticationSuccess>
+        </cas:serviceResponse>""";
+
+    private HttpServer server;
+
+    private String prefixUrl;
+
+    private final AtomicReference<String> lastRequestBody = new AtomicReference<>();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/cas/serviceValidate", exchange -> respond(exchange, 200, VALIDATION_RESPONSE));
+        server.createContext("/cas/v1/tickets/TGT-1", exchange -> {
+            lastRequestBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            if ("DELETE".equals(exchange.getRequestMethod())) {
+                respond(exchange, 200, "");
+            } else {
+                respond(exchange, 200, SERVICE_TICKET);
+            }
+        });
+        server.createContext("/cas/slow", exchange -> {
+            try {
+                Thread.sleep(250);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, VALUE);
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        prefixUrl = "http://localhost:" + server.getAddress().getPort() + "/cas/";
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private static void respond(final HttpExchange exchange, final int status, final String body) throws IOException {
+        val bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (val out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private CasConfiguration buildConfiguration(final CasHttpTransport transport) {
+        val configuration = new CasConfiguration();
+        configuration.setPrefixUrl(prefixUrl);
+        configuration.setHttpTransport(transport);
+        return configuration;
+    }
+
+    @Test
+    public void testValidateServiceTicket() throws Exception {
+        val configuration = buildConfiguration(new HttpClientCasHttpTransport());
+        configuration.setProtocol(CasProtocol.CAS20);
+        val validator = configuration.retrieveTicketValidator(MockWebContext.create());
+        assertTrue(validator instanceof Cas20ServiceTicketValidator);
+        val assertion = validator.validate(SERVICE_TICKET, CALLBACK_URL);
+        assertEquals(USER, assertion.getPrincipal().getName());
+    }
+
+    @Test
+    public void testRestCalls() {
+        for (val transport : new CasHttpTransport[] {new HttpClientCasHttpTransport(), new UrlConnectionCasHttpTransport()}) {
+            val client = new CasRestFormClient();
+            client.setConfiguration(buildConfiguration(transport));
+            val context = MockWebContext.create();
+            val profile = new CasRestProfile("TGT-1", USER);
+
+            val ticket = client.requestServiceTicket(CALLBACK_URL, profile, context);
+            assertEquals(SERVICE_TICKET, ticket.getToken());
+            assertTrue(lastRequestBody.get().startsWith("service="));
+
+            client.destroyTicketGrantingTicket(profile, context);
+        }
+    }
+
+    @Test
+    public void testAsyncRestCalls() throws Exception {
+        for (val transport : new CasHttpTransport[] {new HttpClientCasHttpTransport(), new UrlConnectionCasHttpTransport()}) {
+            val configuration = buildConfiguration(transport);
+            configuration.setProtocol(CasProtocol.CAS20);
+            val client = new CasRestFormClient();
+            client.setConfiguration(configuration);
+            val context = MockWebContext.create();
+            val profile = new CasRestProfile("TGT-1", USER);
+
+            val casProfile = client.requestServiceTicketAsync(CALLBACK_URL, profile, context)
+                .thenCompose(ticket -> client.validateServiceTicketAsync(CALLBACK_URL, ticket, context))
+                .thenCompose(p -> client.destroyTicketGrantingTicketAsync(profile, context).thenApply(v -> p))
+                .get(5, TimeUnit.SECONDS);
+            assertEquals(USER, casProfile.getId());
+        }
+    }
+
+    @Test
+    public void testFailedAsyncRestCall() throws Exception {
+        val client = new CasRestFormClient();
+        client.setConfiguration(buildConfiguration(new HttpClientCasHttpTransport()));
+        try {
+            client.requestServiceTicketAsync(CALLBACK_URL, new CasRestProfile("TGT-2", USER), MockWebContext.create())
+                .get(5, TimeUnit.SECONDS);
+            fail("should fail");
+        } catch (final ExecutionException e) {
+            assertTrue(e.getCause() instanceof TechnicalException);
+            assertTrue(e.getCause().getMessage().contains("(404)"));
+        }
+    }
+
+    @Test
+    public void testFailedRestCall() {
+        val client = new CasRestFormClient();
+        client.setConfiguration(buildConfiguration(new HttpClientCasHttpTransport()));
+        try {
+            client.requestServiceTicket(CALLBACK_URL, new CasRestProfile("TGT-2", USER), MockWebContext.create());
+            fail("should fail");
+        } catch (final TechnicalException e) {
+            assertTrue(e.getMessage().contains("(404)"));
+        }
+    }
+
+    @Test
+    public void testConcurrencyLimitPerHost() throws Exception {
+        val transport = new HttpClientCasHttpTransport();
+        transport.setMaxConcurrentRequestsPerHost(1);
+        transport.setRequestTimeout(Duration.ofMillis(100));
+        transport.init();
+        val url = new URL(prefixUrl + "serviceValidate");
+        val permits = transport.acquirePermit(url, transport.getRequestTimeout());
+        try {
+            transport.send("GET", url, Map.of(), null);
+            fail("should fail");
+        } catch (final IOException e) {
+            assertTrue(e.getMessage().startsWith("Too many concurrent requests to: http://localhost:"));
+        }
+        permits.release();
+        assertEquals(200, transport.send("GET", url, Map.of(), null).status());
+        assertEquals(1, transport.getHostPermits().values().iterator().next().availablePermits());
+    }
+
+    @Test
+    public void testTimeoutCoversThePermitWait() throws Exception {
+        val transport = new HttpClientCasHttpTransport();
+        transport.setMaxConcurrentRequestsPerHost(1);
+        transport.setRequestTimeout(Duration.ofMillis(400));
+        transport.init();
+        val url = new URL(prefixUrl + "slow");
+        assertEquals(200, transport.send("GET", url, Map.of(), null).status());
+
+        val permits = transport.acquirePermit(url, transport.getRequestTimeout());
+        val releaser = Executors.newSingleThreadScheduledExecutor();
+        try {
+            releaser.schedule((Runnable) permits::release, 300, TimeUnit.MILLISECONDS);
+            transport.send("GET", url, Map.of(), null);
+            fail("should fail");
+        } catch (final HttpTimeoutException e) {
+            // the request only had the time left after the wait for a permit
+            assertNotNull(e.getMessage());
+        } finally {
+            releaser.shutdown();
+        }
+    }
+
+    @Test
+    public void testSslSettingsRejectedWithCustomTransport() {
+        val configuration = buildConfiguration(new HttpClientCasHttpTransport());
+        configuration.setHostnameVerifier((hostname, session) -> true);
+        TestsHelper.expectException(configuration::init, TechnicalException.class,
+            "sslSocketFactory and hostnameVerifier only apply to the default httpTransport: "
+                + "define the TLS settings of the custom httpTransport instead");
+    }
+
+    @Test
+    public void testDeserializedConnectionFactory() throws Exception {
+        val factory = new CasHttpTransportURLConnectionFactory(new HttpClientCasHttpTransport());
+        val serializer = new JavaSerializer();
+        serializer.addTrustedClass(CasHttpTransportURLConnectionFactory.class);
+        val deserialized = (CasHttpTransportURLConnectionFactory) serializer.deserializeFromBytes(serializer.serializeToBytes(factory));
+        val url = new URL(prefixUrl + "serviceValidate");
+        val connection = deserialized.buildHttpURLConnection(url.openConnection());
+        assertEquals(200, connection.getResponseCode());
+    }
+
+    @Test
+    public void testPermitReleasedWhenAsyncRequestNotSent() throws Exception {
+        val transport = new HttpClientCasHttpTransport();
+        transport.setMaxConcurrentRequestsPerHost(1);
+        val future = transport.sendAsync("GET", new URL("ftp://localhost/cas"), Map.of(), null, Runnable::run);
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(1, transport.getHostPermits().values().iterator().next().availablePermits());
+    }
+
+    @Test
+    public void testAsyncValidationFailure() {
+        val client = new CasRestFormClient();
+        client.setConfiguration(new CasConfiguration());
+        val future = client.validateServiceTicketAsync(CALLBACK_URL, new TokenCredentials(SERVICE_TICKET), MockWebContext.create());
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testDefaultAsyncExecutor() {
+        val executor = new CasConfiguration().getAsyncExecutor();
+        assertNotNull(executor);
+        assertSame(executor, new CasConfiguration().getAsyncExecutor());
+        val configuration = new CasConfiguration();
+        configuration.setAsyncExecutor(Runnable::run);
+        assertNotSame(executor, configuration.getAsyncExecutor());
+    }
+}
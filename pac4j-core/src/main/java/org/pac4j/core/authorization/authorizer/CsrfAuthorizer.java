@@ -7,6 +7,8 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.matching.matcher.csrf.DefaultCsrfTokenGenerator;
+import org.pac4j.core.matching.matcher.csrf.HmacCsrfTokenGenerator;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.util.Pac4jConstants;
 
@@ -18,6 +20,9 @@ import static org.pac4j.core.context.WebContextHelper.*;
 /**
  * Authorizer that checks CSRF tokens.
  *
+ * <p>By default, the tokens are compared to the ones saved in the session by the {@link DefaultCsrfTokenGenerator}.
+ * If an {@link HmacCsrfTokenGenerator} is defined, the tokens are checked by recomputation, without any session access.</p>
+ *
  * @author Jerome Leleu
  * @since 1.8.0
  */
@@ -33,6 +38,8 @@ public class CsrfAuthorizer implements Authorizer {
 
     private boolean checkAllRequests = false;
 
+    private HmacCsrfTokenGenerator hmacTokenGenerator;
+
     /**
      * <p>Constructor for CsrfAuthorizer.</p>
      */
@@ -62,6 +69,15 @@ public class CsrfAuthorizer implements Authorizer {
         this.checkAllRequests = checkAllRequests;
     }
 
+    /**
+     * <p>Constructor for CsrfAuthorizer.</p>
+     *
+     * @param hmacTokenGenerator the generator of the stateless tokens to check
+     */
+    public CsrfAuthorizer(final HmacCsrfTokenGenerator hmacTokenGenerator) {
+        this.hmacTokenGenerator = hmacTokenGenerator;
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean isAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles) {
@@ -71,6 +87,10 @@ public class CsrfAuthorizer implements Authorizer {
             val headerToken = context.getRequestHeader(headerName).orElse(null);
             LOGGER.debug("parameterToken: {}", parameterToken);
             LOGGER.debug("headerToken: {}", headerToken);
+            if (hmacTokenGenerator != null) {
+                return hmacTokenGenerator.isValid(context, sessionStore, parameterToken)
+                    | hmacTokenGenerator.isValid(context, sessionStore, headerToken);
+            }
             val sessionPreviousToken = sessionStore.get(context, Pac4jConstants.PREVIOUS_CSRF_TOKEN);
             val sessionToken = sessionStore.get(context, Pac4jConstants.CSRF_TOKEN);
             val sessionDate = sessionStore.get(context, Pac4jConstants.CSRF_TOKEN_EXPIRATION_DATE);
@@ -86,16 +86,54 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
      */
     protected List<Authorizer> computeDefaultAuthorizers(final WebContext context, final List<UserProfile> profiles,
                                                          final List<Client> clients, final Map<String, Authorizer> authorizersMap) {
+        return computeDefaultAuthorizers(containsClientType(clients, IndirectClient.class),
+            containsClientType(clients, AnonymousClient.class), authorizersMap);
+    }
+
+    /**
+     * <p>computeDefaultAuthorizers.</p>
+     *
+     * @param indirectClient whether the clients contain an indirect client
+     * @param anonymousClient whether the clients contain an anonymous client
+     * @param authorizersMap a {@link Map} object
+     * @return a {@link List} object
+     */
+    protected List<Authorizer> computeDefaultAuthorizers(final boolean indirectClient, final boolean anonymousClient,
+                                                         final Map<String, Authorizer> authorizersMap) {
         List<Authorizer> authorizers = new ArrayList<>();
-        if (containsClientType(clients, IndirectClient.class)) {
+        if (indirectClient) {
             authorizers.add(retrieveAuthorizer(DefaultAuthorizers.CSRF_CHECK, authorizersMap));
         }
-        if (!containsClientType(clients, AnonymousClient.class)) {
+        if (!anonymousClient) {
             authorizers.add(retrieveAuthorizer(DefaultAuthorizers.IS_AUTHENTICATED, authorizersMap));
         }
         return authorizers;
     }
 
+    /**
+     * Compile the authorizers once for all, for the {@link org.pac4j.core.engine.SecurityPlan}.
+     *
+     * @param authorizersValue the authorizers
+     * @param authorizersMap the defined authorizers
+     * @param indirectClient whether the clients contain an indirect client
+     * @param anonymousClient whether the clients contain an anonymous client
+     * @return the resolved authorizers
+     */
+    public Authorizer[] compileAuthorizers(final String authorizersValue, final Map<String, Authorizer> authorizersMap,
+                                           final boolean indirectClient, final boolean anonymousClient) {
+        final List<Authorizer> authorizers;
+        if (StringUtils.isBlank(authorizersValue)) {
+            authorizers = computeDefaultAuthorizers(indirectClient, anonymousClient, authorizersMap);
+        } else if (authorizersValue.trim().startsWith(Pac4jConstants.ADD_ELEMENT)) {
+            val authorizerNames = StringUtils.substringAfter(authorizersValue, Pac4jConstants.ADD_ELEMENT);
+            authorizers = computeDefaultAuthorizers(indirectClient, anonymousClient, authorizersMap);
+            authorizers.addAll(computeAuthorizersFromNames(authorizerNames, authorizersMap));
+        } else {
+            authorizers = computeAuthorizersFromNames(authorizersValue, authorizersMap);
+        }
+        return authorizers.toArray(new Authorizer[0]);
+    }
+
     /**
      * <p>computeAuthorizersFromNames.</p>
      *
@@ -167,6 +205,30 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
         return false;
     }
 
+    /**
+     * Check the authorizers already resolved by {@link #compileAuthorizers(String, Map, boolean, boolean)}.
+     *
+     * @param context a {@link WebContext} object
+     * @param sessionStore a {@link SessionStore} object
+     * @param profiles a {@link List} object
+     * @param authorizers the resolved authorizers
+     * @return a boolean
+     */
+    public boolean checkAuthorizers(final WebContext context, final SessionStore sessionStore,
+                                    final List<UserProfile> profiles, final Authorizer[] authorizers) {
+        // authorizations check comes after authentication and profile must not be null nor empty
+        assertTrue(isNotEmpty(profiles), "profiles must not be null or empty");
+        // check authorizations using authorizers: all must be satisfied
+        for (val authorizer : authorizers) {
+            val isAuthorized = authorizer.isAuthorized(context, sessionStore, profiles);
+            LOGGER.debug("Checking authorizer: {} -> {}", authorizer, isAuthorized);
+            if (!isAuthorized) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * <p>isAuthorized.</p>
      *
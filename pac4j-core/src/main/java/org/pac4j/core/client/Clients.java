@@ -1,5 +1,6 @@
 package org.pac4j.core.client;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -14,11 +15,15 @@ import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.InitializableObject;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * <p>This class is made to group multiple clients, generally on one callback url.</p>
  *
- * <p>Clients can be changed at any time.</p>
+ * <p>Clients can be changed at any time (via {@link #addClient(Client)}, {@link #setClients(List)} or the list returned
+ * by {@code getClients()}): the name to client index is an immutable snapshot which is rebuilt on the next lookup
+ * after a change, so that lookups only cost a volatile read and a hash probe.</p>
  *
  * @author Jerome Leleu
  * @since 1.3.0
@@ -29,11 +34,14 @@ import java.util.*;
 @ToString
 public class Clients extends InitializableObject {
 
-    private volatile List<Client> clients = new ArrayList<>();
+    private volatile List<Client> clients = new ClientsList(new ArrayList<>());
 
-    private Map<String, Client> clientsMap;
+    private volatile Map<String, Client> clientsMap;
 
-    private volatile Integer oldClientsHash;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final AtomicInteger version = new AtomicInteger();
 
     private String callbackUrl;
 
@@ -96,11 +104,7 @@ public class Clients extends InitializableObject {
     /** {@inheritDoc} */
     @Override
     protected boolean shouldInitialize(final boolean forceReinit) {
-        if (forceReinit) {
-            return true;
-        }
-
-        return oldClientsHash == null || oldClientsHash.intValue() != clients.hashCode();
+        return forceReinit || clientsMap == null;
     }
 
     /**
@@ -111,15 +115,27 @@ public class Clients extends InitializableObject {
      */
     @Override
     protected void internalInit(final boolean forceReinit) {
-        clientsMap = new HashMap<>();
-        for (val client : this.clients) {
+        buildIndex();
+    }
+
+    /**
+     * Build the name to client index from the current clients and publish it, unless the clients have changed
+     * in the meantime.
+     *
+     * @return the built index (even if not published)
+     */
+    private Map<String, Client> buildIndex() {
+        val currentVersion = version.get();
+        final Map<String, Client> newClientsMap = new HashMap<>();
+        // iterate over a snapshot: the clients may be modified concurrently
+        for (val client : List.copyOf(this.clients)) {
             val name = client.getName();
             CommonHelper.assertNotBlank("name", name);
             val lowerTrimmedName = name.toLowerCase().trim();
-            if (clientsMap.containsKey(lowerTrimmedName)) {
+            if (newClientsMap.containsKey(lowerTrimmedName)) {
                 throw new TechnicalException("Duplicate name in clients: " + name);
             }
-            clientsMap.put(lowerTrimmedName, client);
+            newClientsMap.put(lowerTrimmedName, client);
             if (client instanceof IndirectClient indirectClient) {
                 if (this.callbackUrl != null && indirectClient.getCallbackUrl() == null) {
                     indirectClient.setCallbackUrl(this.callbackUrl);
@@ -139,7 +155,13 @@ public class Clients extends InitializableObject {
                 baseClient.addAuthorizationGenerators(this.authorizationGenerators);
             }
         }
-        this.oldClientsHash = this.clients.hashCode();
+        // publish the new snapshot, unless the clients have changed in the meantime
+        val index = Collections.unmodifiableMap(newClientsMap);
+        this.clientsMap = index;
+        if (version.get() != currentVersion) {
+            this.clientsMap = null;
+        }
+        return index;
     }
 
     /**
@@ -150,13 +172,29 @@ public class Clients extends InitializableObject {
      */
     public Optional<Client> findClient(final String name) {
         CommonHelper.assertNotBlank("name", name);
-        init();
 
-        val foundClient = clientsMap.get(name.toLowerCase().trim());
+        val foundClient = getIndex().get(name.toLowerCase().trim());
         LOGGER.debug("Found client: {} for name: {}", foundClient, name);
         return Optional.ofNullable(foundClient);
     }
 
+    /**
+     * Return the current name to client index, building it if the clients have changed.
+     *
+     * @return the name to client index
+     */
+    protected Map<String, Client> getIndex() {
+        val index = clientsMap;
+        if (index != null) {
+            return index;
+        }
+        // same lock as init(): the index built here is returned even if a concurrent change has already invalidated it
+        synchronized (this) {
+            val current = clientsMap;
+            return current != null ? current : buildIndex();
+        }
+    }
+
     /**
      * Find all the clients (initialized).
      *
@@ -177,6 +215,14 @@ public class Clients extends InitializableObject {
         this.clients.add(client);
     }
 
+    /**
+     * Invalidate the name to client index: it will be rebuilt on the next lookup.
+     */
+    protected void invalidate() {
+        version.incrementAndGet();
+        this.clientsMap = null;
+    }
+
     /**
      * <p>Setter for the field <code>clients</code>.</p>
      *
@@ -184,7 +230,8 @@ public class Clients extends InitializableObject {
      */
     public void setClients(final List<Client> clients) {
         CommonHelper.assertNotNull("clients", clients);
-        this.clients = clients;
+        this.clients = new ClientsList(clients);
+        invalidate();
     }
 
     /**
@@ -235,4 +282,53 @@ public class Clients extends InitializableObject {
         CommonHelper.assertNotNull("authorizationGenerator", authorizationGenerator);
         this.authorizationGenerators.add(authorizationGenerator);
     }
+
+    /**
+     * The list of clients: a copy-on-write list which invalidates the name to client index when it is modified.
+     */
+    private final class ClientsList extends AbstractList<Client> implements RandomAccess {
+
+        private final List<Client> delegate;
+
+        private ClientsList(final List<Client> clients) {
+            this.delegate = new CopyOnWriteArrayList<>(clients);
+        }
+
+        @Override
+        public Client get(final int index) {
+            return delegate.get(index);
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public Object[] toArray() {
+            return delegate.toArray();
+        }
+
+        @Override
+        public Client set(final int index, final Client client) {
+            val previous = delegate.set(index, client);
+            invalidate();
+            return previous;
+        }
+
+        @Override
+        public void add(final int index, final Client client) {
+            delegate.add(index, client);
+            modCount++;
+            invalidate();
+        }
+
+        @Override
+        public Client remove(final int index) {
+            val previous = delegate.remove(index);
+            modCount++;
+            invalidate();
+            return previous;
+        }
+    }
 }
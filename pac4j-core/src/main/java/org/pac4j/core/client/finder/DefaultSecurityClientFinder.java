@@ -12,8 +12,8 @@ import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.Pac4jConstants;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -32,8 +32,56 @@ public class DefaultSecurityClientFinder implements ClientFinder {
     /** {@inheritDoc} */
     @Override
     public List<Client> find(final Clients clients, final WebContext context, final String clientNames) {
+        val names = computeClientNames(clients, clientNames);
         final List<Client> result = new ArrayList<>();
+        if (names.length > 0) {
+            val clientOnRequest = context.getRequestParameter(clientNameParameter);
+
+            // if a client is provided on the request, get the client
+            // and check if it is allowed (defined in the list of the clients)
+            LOGGER.debug("clientNameOnRequest: {}", clientOnRequest);
+            if (clientOnRequest.isPresent()) {
+                // from the request
+                findAllowedClient(clients, names, clientOnRequest.get()).ifPresent(result::add);
+            } else {
+                // no client provided, return all
+                result.addAll(findClients(clients, names));
+            }
+        }
+        LOGGER.debug("result: {}", result.stream().map(Client::getName).collect(Collectors.toList()));
+        return result;
+    }
+
+    /**
+     * Find the right clients based on the client names already computed by {@link #computeClientNames(Clients, String)}
+     * and the clients already resolved from them by {@link #findClients(Clients, String[])}.
+     *
+     * @param clients the clients
+     * @param context the web context
+     * @param names the computed client names
+     * @param resolvedClients the clients resolved from the names
+     * @return the found clients
+     */
+    public List<Client> find(final Clients clients, final WebContext context, final String[] names,
+                             final List<Client> resolvedClients) {
+        if (names.length > 0) {
+            val clientOnRequest = context.getRequestParameter(clientNameParameter);
+            if (clientOnRequest.isPresent()) {
+                LOGGER.debug("clientNameOnRequest: {}", clientOnRequest);
+                return findAllowedClient(clients, names, clientOnRequest.get()).map(List::of).orElse(List.of());
+            }
+        }
+        return resolvedClients;
+    }
 
+    /**
+     * Compute the names of the clients to use.
+     *
+     * @param clients the clients
+     * @param clientNames the client names
+     * @return the trimmed client names
+     */
+    public String[] computeClientNames(final Clients clients, final String clientNames) {
         var securityClientNames = clientNames;
         // we don't have defined clients to secure the URL, use the general default security ones from the Clients if they exist
         // we check the nullity and not the blankness to allow the blank string to mean no client
@@ -49,38 +97,54 @@ public class DefaultSecurityClientFinder implements ClientFinder {
             }
         }
 
-        if (StringUtils.isNotBlank(securityClientNames)) {
-            val names = Arrays.asList(securityClientNames.split(Pac4jConstants.ELEMENT_SEPARATOR));
-            val clientOnRequest = context.getRequestParameter(clientNameParameter);
+        if (StringUtils.isBlank(securityClientNames)) {
+            return new String[0];
+        }
+        val names = securityClientNames.split(Pac4jConstants.ELEMENT_SEPARATOR);
+        for (var i = 0; i < names.length; i++) {
+            names[i] = names[i].trim();
+        }
+        return names;
+    }
 
-            // if a client is provided on the request, get the client
-            // and check if it is allowed (defined in the list of the clients)
-            LOGGER.debug("clientNameOnRequest: {}", clientOnRequest);
-            if (clientOnRequest.isPresent()) {
-                // from the request
-                val client = clients.findClient(clientOnRequest.get());
-                if (client.isPresent()) {
-                    val nameFound = client.get().getName();
-                    // if allowed -> return it
-                    for (val name : names) {
-                        if (CommonHelper.areEqualsIgnoreCaseAndTrim(name, nameFound)) {
-                            result.add(client.get());
-                            break;
-                        }
-                    }
-                }
-            } else {
-                // no client provided, return all
-                for (val name : names) {
-                    // from its name
-                    val client = clients.findClient(name);
-                    if (client.isPresent()) {
-                        result.add(client.get());
-                    }
-                }
+    /**
+     * Find the clients from their names.
+     *
+     * @param clients the clients
+     * @param names the client names
+     * @return the found clients
+     */
+    public List<Client> findClients(final Clients clients, final String[] names) {
+        final List<Client> result = new ArrayList<>();
+        for (val name : names) {
+            // from its name
+            val client = clients.findClient(name);
+            if (client.isPresent()) {
+                result.add(client.get());
             }
         }
-        LOGGER.debug("result: {}", result.stream().map(Client::getName).collect(Collectors.toList()));
         return result;
     }
+
+    /**
+     * Find the client requested by name if it is allowed.
+     *
+     * @param clients the clients
+     * @param names the allowed client names
+     * @param clientOnRequest the name of the client requested
+     * @return the client if it is allowed
+     */
+    protected Optional<Client> findAllowedClient(final Clients clients, final String[] names, final String clientOnRequest) {
+        val client = clients.findClient(clientOnRequest);
+        if (client.isPresent()) {
+            val nameFound = client.get().getName();
+            // if allowed -> return it
+            for (val name : names) {
+                if (CommonHelper.areEqualsIgnoreCaseAndTrim(name, nameFound)) {
+                    return client;
+                }
+            }
+        }
+        return Optional.empty();
+    }
 }
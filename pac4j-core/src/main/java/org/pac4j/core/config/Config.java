@@ -18,20 +18,21 @@ import org.pac4j.core.matching.matcher.Matcher;
 import org.pac4j.core.profile.factory.ProfileManagerFactory;
 import org.pac4j.core.util.CommonHelper;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The configuration with clients, authorizers, matchers, etc.
  *
+ * <p>The authorizers and matchers maps are wrapped when they are set: the maps returned by {@link #getAuthorizers()}
+ * and {@link #getMatchers()} increment the {@link #getGeneration() generation} when they are modified.</p>
+ *
  * @author Jerome Leleu
  * @since 1.8.0
  */
 @Setter
 @Getter
 @With
-@AllArgsConstructor
 @Accessors(chain = true)
 public class Config {
 
@@ -39,9 +40,9 @@ public class Config {
 
     private Clients clients = new Clients();
 
-    private Map<String, Authorizer> authorizers = new HashMap<>();
+    private Map<String, Authorizer> authorizers = new TrackedMap<>(new HashMap<>());
 
-    private Map<String, Matcher> matchers = new HashMap<>();
+    private Map<String, Matcher> matchers = new TrackedMap<>(new HashMap<>());
 
     private SecurityLogic securityLogic;
 
@@ -59,11 +60,47 @@ public class Config {
 
     private SessionLogoutHandler sessionLogoutHandler = DEFAULT_SESSION_LOGOUT_HANDLER;
 
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong generation = new AtomicLong();
+
     /**
      * <p>Constructor for Config.</p>
      */
     public Config() {}
 
+    /**
+     * <p>Constructor for Config.</p>
+     *
+     * @param clients a {@link Clients} object
+     * @param authorizers a {@link Map} object
+     * @param matchers a {@link Map} object
+     * @param securityLogic a {@link SecurityLogic} object
+     * @param callbackLogic a {@link CallbackLogic} object
+     * @param logoutLogic a {@link LogoutLogic} object
+     * @param webContextFactory a {@link WebContextFactory} object
+     * @param sessionStoreFactory a {@link SessionStoreFactory} object
+     * @param profileManagerFactory a {@link ProfileManagerFactory} object
+     * @param httpActionAdapter a {@link HttpActionAdapter} object
+     * @param sessionLogoutHandler a {@link SessionLogoutHandler} object
+     */
+    public Config(final Clients clients, final Map<String, Authorizer> authorizers, final Map<String, Matcher> matchers,
+                  final SecurityLogic securityLogic, final CallbackLogic callbackLogic, final LogoutLogic logoutLogic,
+                  final WebContextFactory webContextFactory, final SessionStoreFactory sessionStoreFactory,
+                  final ProfileManagerFactory profileManagerFactory, final HttpActionAdapter httpActionAdapter,
+                  final SessionLogoutHandler sessionLogoutHandler) {
+        this.clients = clients;
+        this.authorizers = track(authorizers);
+        this.matchers = track(matchers);
+        this.securityLogic = securityLogic;
+        this.callbackLogic = callbackLogic;
+        this.logoutLogic = logoutLogic;
+        this.webContextFactory = webContextFactory;
+        this.sessionStoreFactory = sessionStoreFactory;
+        this.profileManagerFactory = profileManagerFactory;
+        this.httpActionAdapter = httpActionAdapter;
+        this.sessionLogoutHandler = sessionLogoutHandler;
+    }
+
     /**
      * <p>Constructor for Config.</p>
      *
@@ -225,6 +262,7 @@ public class Config {
     public Config setClients(final Clients clients) {
         this.clients = clients;
         setConfigForClients();
+        incrementGeneration();
         return this;
     }
 
@@ -237,6 +275,7 @@ public class Config {
     public Config addClient(final Client client) {
         this.clients.addClient(client);
         setConfigForClients();
+        incrementGeneration();
         return this;
     }
 
@@ -249,6 +288,7 @@ public class Config {
     public Config setAuthorizer(final Authorizer authorizer) {
         CommonHelper.assertNotNull("authorizer", authorizer);
         this.authorizers.put(authorizer.getClass().getSimpleName(), authorizer);
+        incrementGeneration();
         return this;
     }
 
@@ -260,7 +300,8 @@ public class Config {
      */
     public Config setAuthorizers(final Map<String, Authorizer> authorizers) {
         CommonHelper.assertNotNull("authorizers", authorizers);
-        this.authorizers = authorizers;
+        this.authorizers = track(authorizers);
+        incrementGeneration();
         return this;
     }
 
@@ -273,6 +314,7 @@ public class Config {
      */
     public Config addAuthorizer(final String name, final Authorizer authorizer) {
         authorizers.put(name, authorizer);
+        incrementGeneration();
         return this;
     }
 
@@ -285,6 +327,7 @@ public class Config {
     public Config setMatcher(final Matcher matcher) {
         CommonHelper.assertNotNull("matcher", matcher);
         this.matchers.put(matcher.getClass().getSimpleName(), matcher);
+        incrementGeneration();
         return this;
     }
 
@@ -296,7 +339,8 @@ public class Config {
      */
     public Config setMatchers(final Map<String, Matcher> matchers) {
         CommonHelper.assertNotNull("matchers", matchers);
-        this.matchers = matchers;
+        this.matchers = track(matchers);
+        incrementGeneration();
         return this;
     }
 
@@ -309,9 +353,29 @@ public class Config {
      */
     public Config addMatcher(final String name, final Matcher matcher) {
         matchers.put(name, matcher);
+        incrementGeneration();
         return this;
     }
 
+    /**
+     * Return the generation of this configuration, incremented each time the clients, authorizers or matchers
+     * are changed through this configuration.
+     *
+     * @return the generation
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Increment the generation of this configuration, so that the compiled security plans are rebuilt.
+     *
+     * @return the new generation
+     */
+    public long incrementGeneration() {
+        return generation.incrementAndGet();
+    }
+
     /**
      * <p>Setter for the field <code>securityLogic</code>.</p>
      *
@@ -465,4 +529,97 @@ public class Config {
             setHttpActionAdapter(httpActionAdapter);
         }
     }
+
+    private <V> Map<String, V> track(final Map<String, V> map) {
+        return map != null ? new TrackedMap<>(map) : null;
+    }
+
+    /**
+     * A map which increments the generation of this configuration when it is modified.
+     *
+     * @param <V> the type of the values
+     */
+    private final class TrackedMap<V> extends AbstractMap<String, V> {
+
+        private final Map<String, V> delegate;
+
+        private TrackedMap(final Map<String, V> map) {
+            this.delegate = map instanceof Config.TrackedMap<V> tracked ? tracked.delegate : map;
+        }
+
+        @Override
+        public V get(final Object key) {
+            return delegate.get(key);
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return delegate.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public V put(final String key, final V value) {
+            val previous = delegate.put(key, value);
+            incrementGeneration();
+            return previous;
+        }
+
+        @Override
+        public V remove(final Object key) {
+            val previous = delegate.remove(key);
+            incrementGeneration();
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+            incrementGeneration();
+        }
+
+        @Override
+        public Set<Entry<String, V>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, V>> iterator() {
+                    val iterator = delegate.entrySet().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, V> next() {
+                            val entry = iterator.next();
+                            return new SimpleEntry<>(entry) {
+                                @Override
+                                public V setValue(final V value) {
+                                    val previous = entry.setValue(value);
+                                    incrementGeneration();
+                                    return previous;
+                                }
+                            };
+                        }
+
+                        @Override
+                        public void remove() {
+                            iterator.remove();
+                            incrementGeneration();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return delegate.size();
+                }
+            };
+        }
+    }
 }
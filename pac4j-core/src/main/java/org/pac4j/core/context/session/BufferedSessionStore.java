@@ -0,0 +1,209 @@
+package org.pac4j.core.context.session;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Session store which buffers the reads and writes of a request (in a request attribute) in front of another session store.
+ *
+ * <p>Each key is read once from the underlying session store and the writes are kept until the {@link #flush(WebContext)}:
+ * only the keys whose value differs from the loaded one are then saved, in a single
+ * {@link SessionStore#setAll(WebContext, Map)} call. This avoids rewriting unchanged values and the related session
+ * replication in clustered environments. A value saved again as the same instance as the loaded one is always considered
+ * as changed, as it may have been modified in place.</p>
+ *
+ * <p>The default logics call {@link #flushAndWriteThrough(WebContext)} before adapting their result: the next writes
+ * of the request (like the ones of the protected application) go directly to the underlying session store.
+ * When it is used elsewhere, {@link #flush(WebContext)} must be called before the response is committed.</p>
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+@Slf4j
+@ToString
+public class BufferedSessionStore implements SessionStore {
+
+    private static final String BUFFER_ATTRIBUTE = "pac4jSessionBuffer";
+
+    @Getter
+    private final SessionStore sessionStore;
+
+    /**
+     * <p>Constructor for BufferedSessionStore.</p>
+     *
+     * @param sessionStore the underlying session store
+     */
+    public BufferedSessionStore(final SessionStore sessionStore) {
+        CommonHelper.assertNotNull("sessionStore", sessionStore);
+        this.sessionStore = sessionStore;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optional<String> getSessionId(final WebContext context, final boolean createSession) {
+        return sessionStore.getSessionId(context, createSession);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optional<Object> get(final WebContext context, final String key) {
+        val buffer = getBuffer(context);
+        if (buffer.writes.containsKey(key)) {
+            return Optional.ofNullable(buffer.writes.get(key));
+        }
+        if (buffer.loaded.containsKey(key)) {
+            return Optional.ofNullable(buffer.loaded.get(key));
+        }
+        val value = sessionStore.get(context, key).orElse(null);
+        buffer.loaded.put(key, value);
+        return Optional.ofNullable(value);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void set(final WebContext context, final String key, final Object value) {
+        val buffer = getBuffer(context);
+        if (buffer.writeThrough) {
+            sessionStore.set(context, key, value);
+            buffer.loaded.put(key, value);
+            return;
+        }
+        // the session is created at once so that it exists (and its cookie is sent) before the response is committed
+        if (value != null && !buffer.sessionCreated) {
+            buffer.sessionCreated = sessionStore.getSessionId(context, true).isPresent();
+        }
+        buffer.writes.put(key, value);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setAll(final WebContext context, final Map<String, Object> values) {
+        val buffer = getBuffer(context);
+        if (buffer.writeThrough) {
+            sessionStore.setAll(context, values);
+            buffer.loaded.putAll(values);
+        } else {
+            values.forEach((key, value) -> set(context, key, value));
+        }
+    }
+
+    /**
+     * Save the changed values of the current request into the underlying session store.
+     *
+     * @param context the web context
+     */
+    public void flush(final WebContext context) {
+        val buffer = context.getRequestAttribute(bufferAttribute(), Buffer.class).orElse(null);
+        if (buffer == null || buffer.writes.isEmpty()) {
+            return;
+        }
+        final Map<String, Object> dirty = new LinkedHashMap<>();
+        for (val entry : buffer.writes.entrySet()) {
+            val key = entry.getKey();
+            val value = entry.getValue();
+            if (!isUnchanged(buffer, key, value)) {
+                dirty.put(key, value);
+            }
+        }
+        LOGGER.debug("Flushing changed keys: {} out of written keys: {}", dirty.keySet(), buffer.writes.keySet());
+        if (!dirty.isEmpty()) {
+            sessionStore.setAll(context, dirty);
+        }
+        buffer.loaded.putAll(buffer.writes);
+        buffer.writes.clear();
+    }
+
+    /**
+     * Save the changed values of the current request into the underlying session store and stop buffering the next writes
+     * of the request: they are written through to the underlying session store, so that the writes performed after
+     * the flush (for example by the protected application) are not lost.
+     *
+     * @param context the web context
+     */
+    public void flushAndWriteThrough(final WebContext context) {
+        flush(context);
+        getBuffer(context).writeThrough = true;
+    }
+
+    private static boolean isUnchanged(final Buffer buffer, final String key, final Object value) {
+        if (!buffer.loaded.containsKey(key)) {
+            return false;
+        }
+        val loaded = buffer.loaded.get(key);
+        if (loaded == null) {
+            return value == null;
+        }
+        return loaded != value && loaded.equals(value);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean destroySession(final WebContext context) {
+        val buffer = new Buffer();
+        buffer.writeThrough = getBuffer(context).writeThrough;
+        context.setRequestAttribute(bufferAttribute(), buffer);
+        return sessionStore.destroySession(context);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optional<Object> getTrackableSession(final WebContext context) {
+        return sessionStore.getTrackableSession(context);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The rebuilt session store is not buffered as it is generally used outside of a request of the session owner.
+     */
+    @Override
+    public Optional<SessionStore> buildFromTrackableSession(final WebContext context, final Object trackableSession) {
+        return sessionStore.buildFromTrackableSession(context, trackableSession);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean renewSession(final WebContext context) {
+        flush(context);
+        return sessionStore.renewSession(context);
+    }
+
+    private Buffer getBuffer(final WebContext context) {
+        val attribute = bufferAttribute();
+        val existing = context.getRequestAttribute(attribute, Buffer.class);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        val buffer = new Buffer();
+        context.setRequestAttribute(attribute, buffer);
+        return buffer;
+    }
+
+    private String bufferAttribute() {
+        // one buffer per request and per key namespace
+        if (sessionStore instanceof PrefixedSessionStore prefixedSessionStore) {
+            return BUFFER_ATTRIBUTE + prefixedSessionStore.getPrefix();
+        }
+        return BUFFER_ATTRIBUTE;
+    }
+
+    private static final class Buffer {
+
+        private final Map<String, Object> loaded = new HashMap<>();
+
+        private final Map<String, Object> writes = new LinkedHashMap<>();
+
+        private boolean sessionCreated;
+
+        private boolean writeThrough;
+    }
+}
@@ -0,0 +1,407 @@
+package org.pac4j.core.context.session;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.context.Cookie;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.serializer.BinarySerializer;
+import org.pac4j.core.util.serializer.Serializer;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.*;
+
+/**
+ * Session store which keeps the whole session in cookies, so that no server-side session (nor sticky routing
+ * or session replication) is needed.
+ *
+ * <p>The session (identifier, creation time and attributes) is serialized with the {@link #serializer}
+ * (by default a compressing {@link BinarySerializer}), encrypted and authenticated with AES-GCM,
+ * Base64 URL encoded and split into chunks of {@link #chunkSize} characters, sent as the cookies
+ * <code>{cookieName}.0</code>, <code>{cookieName}.1</code>... A session requiring more than {@link #maxChunks}
+ * cookies is rejected with a {@link TechnicalException}.</p>
+ *
+ * <p>The cookies are encrypted with the key derived from the first secret and decrypted with the key derived from
+ * any of the secrets: a new secret can be added in first position and the previous ones removed once the sessions
+ * they have encrypted have expired. The secrets must be long random values shared by all the servers.
+ * A session older than {@link #ttlInSeconds} seconds is ignored.</p>
+ *
+ * <p>The cookies are written for each change: wrapping this store in a {@link BufferedSessionStore} writes them
+ * once per request. As the session cannot be destroyed on the server side, there is no trackable session.</p>
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+@Slf4j
+@ToString(exclude = {"secrets", "keys"})
+public class CookieSessionStore extends PrefixedSessionStore {
+
+    private static final String CIPHER_ALGORITHM = "AES/GCM/NoPadding";
+
+    private static final int VERSION = 1;
+
+    private static final int KEY_ID_LENGTH = 4;
+
+    private static final int IV_LENGTH = 12;
+
+    private static final int TAG_LENGTH = 128;
+
+    private static final int HEADER_LENGTH = 1 + KEY_ID_LENGTH + IV_LENGTH;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final String SESSION_ATTRIBUTE = "pac4jCookieSession";
+
+    private List<String> secrets = new ArrayList<>();
+
+    private List<EncryptionKey> keys = new ArrayList<>();
+
+    @Getter
+    @Setter
+    private String cookieName = "pac4jSession";
+
+    @Getter
+    @Setter
+    private String cookiePath = "/";
+
+    @Getter
+    @Setter
+    private String cookieDomain;
+
+    @Getter
+    @Setter
+    private boolean secure = true;
+
+    @Getter
+    @Setter
+    private String sameSitePolicy = "Lax";
+
+    @Getter
+    @Setter
+    private int chunkSize = 3800;
+
+    @Getter
+    @Setter
+    private int maxChunks = 5;
+
+    // 8 hours
+    @Getter
+    @Setter
+    private int ttlInSeconds = 8*60*60;
+
+    @Getter
+    @Setter
+    private Serializer serializer = new BinarySerializer();
+
+    @Getter
+    @Setter
+    private Clock clock = Clock.systemUTC();
+
+    /**
+     * <p>Constructor for CookieSessionStore.</p>
+     */
+    public CookieSessionStore() {}
+
+    /**
+     * <p>Constructor for CookieSessionStore.</p>
+     *
+     * @param secret the secret
+     */
+    public CookieSessionStore(final String secret) {
+        setSecrets(List.of(secret));
+    }
+
+    /**
+     * <p>Constructor for CookieSessionStore.</p>
+     *
+     * @param secrets the secrets (the first one encrypts)
+     */
+    public CookieSessionStore(final List<String> secrets) {
+        setSecrets(secrets);
+    }
+
+    /**
+     * Return the secrets.
+     *
+     * @return the secrets
+     */
+    public List<String> getSecrets() {
+        return Collections.unmodifiableList(secrets);
+    }
+
+    /**
+     * Define the secrets: the first one encrypts, all of them decrypt.
+     *
+     * @param secrets the secrets
+     */
+    public void setSecrets(final List<String> secrets) {
+        CommonHelper.assertNotNull("secrets", secrets);
+        final List<EncryptionKey> derivedKeys = new ArrayList<>();
+        for (val secret : secrets) {
+            CommonHelper.assertNotBlank("secret", secret);
+            derivedKeys.add(deriveKey(secret));
+        }
+        this.secrets = new ArrayList<>(secrets);
+        this.keys = derivedKeys;
+    }
+
+    private static EncryptionKey deriveKey(final String secret) {
+        try {
+            val digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            val keyId = Arrays.copyOf(MessageDigest.getInstance("SHA-256").digest(digest), KEY_ID_LENGTH);
+            return new EncryptionKey(keyId, new SecretKeySpec(digest, "AES"));
+        } catch (final GeneralSecurityException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optional<String> getSessionId(final WebContext context, final boolean createSession) {
+        val session = getSession(context);
+        if (session.id == null && createSession) {
+            session.id = newSessionId();
+            session.createdAt = clock.millis();
+            writeCookies(context, session);
+        }
+        return Optional.ofNullable(session.id);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optional<Object> get(final WebContext context, final String key) {
+        return Optional.ofNullable(getSession(context).attributes.get(computePrefixedKey(key)));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void set(final WebContext context, final String key, final Object value) {
+        setAll(context, Collections.singletonMap(key, value));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The cookies are written once for all the values.
+     */
+    @Override
+    public void setAll(final WebContext context, final Map<String, Object> values) {
+        val session = getSession(context);
+        var changed = false;
+        for (val entry : values.entrySet()) {
+            val prefixedKey = computePrefixedKey(entry.getKey());
+            if (entry.getValue() == null) {
+                changed |= session.attributes.remove(prefixedKey) != null;
+            } else {
+                session.attributes.put(prefixedKey, entry.getValue());
+                changed = true;
+            }
+        }
+        if (session.id == null) {
+            if (!changed) {
+                return;
+            }
+            session.id = newSessionId();
+            session.createdAt = clock.millis();
+        }
+        if (changed) {
+            writeCookies(context, session);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean destroySession(final WebContext context) {
+        val session = getSession(context);
+        session.id = null;
+        session.attributes.clear();
+        expireCookies(context, 0, session.chunks);
+        session.chunks = 0;
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optional<Object> getTrackableSession(final WebContext context) {
+        LOGGER.debug("The cookie session cannot be tracked");
+        return Optional.empty();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optional<SessionStore> buildFromTrackableSession(final WebContext context, final Object trackableSession) {
+        return Optional.empty();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean renewSession(final WebContext context) {
+        val session = getSession(context);
+        if (session.id != null) {
+            session.id = newSessionId();
+            writeCookies(context, session);
+        }
+        return true;
+    }
+
+    private static String newSessionId() {
+        val bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private String sessionAttribute() {
+        return SESSION_ATTRIBUTE + cookieName;
+    }
+
+    private CookieSession getSession(final WebContext context) {
+        val attribute = sessionAttribute();
+        val existing = context.getRequestAttribute(attribute, CookieSession.class);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        val session = readCookies(context);
+        context.setRequestAttribute(attribute, session);
+        return session;
+    }
+
+    private CookieSession readCookies(final WebContext context) {
+        val session = new CookieSession();
+        final SortedMap<Integer, String> chunks = new TreeMap<>();
+        val chunkPrefix = cookieName + '.';
+        for (val cookie : context.getRequestCookies()) {
+            val name = cookie.getName();
+            if (name != null && name.startsWith(chunkPrefix)) {
+                try {
+                    chunks.put(Integer.parseInt(name.substring(chunkPrefix.length())), cookie.getValue());
+                } catch (final NumberFormatException e) {
+                    LOGGER.debug("Ignoring cookie: {}", name);
+                }
+            }
+        }
+        if (chunks.isEmpty()) {
+            return session;
+        }
+        session.chunks = chunks.lastKey() + 1;
+        if (chunks.size() != session.chunks) {
+            LOGGER.debug("Missing session cookie chunks: {}", chunks.keySet());
+            return session;
+        }
+        val value = new StringBuilder();
+        chunks.values().forEach(value::append);
+        try {
+            val data = (List<Object>) serializer.deserializeFromBytes(decrypt(Base64.getUrlDecoder().decode(value.toString())));
+            val createdAt = (Long) data.get(1);
+            if (clock.millis() - createdAt > ttlInSeconds * 1000L) {
+                LOGGER.debug("Expired session cookie created at: {}", createdAt);
+                return session;
+            }
+            session.id = (String) data.get(0);
+            session.createdAt = createdAt;
+            session.attributes.putAll((Map<String, Object>) data.get(2));
+        } catch (final RuntimeException e) {
+            LOGGER.debug("Cannot read the session cookie", e);
+        }
+        return session;
+    }
+
+    private void writeCookies(final WebContext context, final CookieSession session) {
+        val data = serializer.serializeToBytes(List.of(session.id, session.createdAt, new LinkedHashMap<>(session.attributes)));
+        if (data == null) {
+            throw new TechnicalException("Cannot serialize the session");
+        }
+        val value = Base64.getUrlEncoder().withoutPadding().encodeToString(encrypt(data));
+        val nbChunks = (value.length() + chunkSize - 1) / chunkSize;
+        if (nbChunks > maxChunks) {
+            throw new TechnicalException("The session (" + value.length() + " characters) exceeds the cookie budget of "
+                + maxChunks + " cookies of " + chunkSize + " characters");
+        }
+        LOGGER.debug("Writing session: {} in {} cookie(s)", session.id, nbChunks);
+        for (var i = 0; i < nbChunks; i++) {
+            context.addResponseCookie(buildCookie(i, value.substring(i * chunkSize, Math.min(value.length(), (i + 1) * chunkSize)),
+                -1));
+        }
+        expireCookies(context, nbChunks, session.chunks);
+        session.chunks = nbChunks;
+    }
+
+    private void expireCookies(final WebContext context, final int from, final int to) {
+        for (var i = from; i < to; i++) {
+            context.addResponseCookie(buildCookie(i, "", 0));
+        }
+    }
+
+    private Cookie buildCookie(final int index, final String value, final int maxAge) {
+        val cookie = new Cookie(cookieName + '.' + index, value);
+        cookie.setPath(cookiePath);
+        cookie.setDomain(cookieDomain);
+        cookie.setSecure(secure);
+        cookie.setHttpOnly(true);
+        cookie.setSameSitePolicy(sameSitePolicy);
+        cookie.setMaxAge(maxAge);
+        return cookie;
+    }
+
+    private byte[] encrypt(final byte[] data) {
+        CommonHelper.assertTrue(!keys.isEmpty(), "secrets cannot be empty");
+        val key = keys.get(0);
+        try {
+            val iv = new byte[IV_LENGTH];
+            RANDOM.nextBytes(iv);
+            val cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+            cipher.init(Cipher.ENCRYPT_MODE, key.key(), new GCMParameterSpec(TAG_LENGTH, iv));
+            cipher.updateAAD(cookieName.getBytes(StandardCharsets.UTF_8));
+            val encrypted = cipher.doFinal(data);
+            return ByteBuffer.allocate(HEADER_LENGTH + encrypted.length)
+                .put((byte) VERSION).put(key.id()).put(iv).put(encrypted).array();
+        } catch (final GeneralSecurityException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    private byte[] decrypt(final byte[] data) {
+        if (data.length <= HEADER_LENGTH || data[0] != VERSION) {
+            throw new TechnicalException("Unsupported session cookie");
+        }
+        val keyId = Arrays.copyOfRange(data, 1, 1 + KEY_ID_LENGTH);
+        for (val key : keys) {
+            if (Arrays.equals(key.id(), keyId)) {
+                try {
+                    val cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+                    cipher.init(Cipher.DECRYPT_MODE, key.key(), new GCMParameterSpec(TAG_LENGTH, data, 1 + KEY_ID_LENGTH, IV_LENGTH));
+                    cipher.updateAAD(cookieName.getBytes(StandardCharsets.UTF_8));
+                    return cipher.doFinal(data, HEADER_LENGTH, data.length - HEADER_LENGTH);
+                } catch (final GeneralSecurityException e) {
+                    throw new TechnicalException(e);
+                }
+            }
+        }
+        throw new TechnicalException("No key to decrypt the session cookie");
+    }
+
+    private record EncryptionKey(byte[] id, SecretKey key) {}
+
+    private static final class CookieSession {
+
+        private String id;
+
+        private long createdAt;
+
+        private final Map<String, Object> attributes = new LinkedHashMap<>();
+
+        private int chunks;
+    }
+}
@@ -2,6 +2,7 @@ package org.pac4j.core.context.session;
 
 import org.pac4j.core.context.WebContext;
 
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -39,6 +40,16 @@ public interface SessionStore {
      */
     void set(WebContext context, String key, Object value);
 
+    /**
+     * Save several objects in the store by their keys (a <code>null</code> value removes the key).
+     *
+     * @param context the web context
+     * @param values the values to save in store by their keys
+     */
+    default void setAll(final WebContext context, final Map<String, Object> values) {
+        values.forEach((key, value) -> set(context, key, value));
+    }
+
     /**
      * Destroy the web session.
      *
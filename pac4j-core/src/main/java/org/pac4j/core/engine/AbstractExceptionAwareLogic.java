@@ -9,6 +9,7 @@ import org.pac4j.core.config.Config;
 import org.pac4j.core.context.CallContext;
 import org.pac4j.core.context.FrameworkParameters;
 import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.BufferedSessionStore;
 import org.pac4j.core.exception.http.HttpAction;
 import org.pac4j.core.http.adapter.HttpActionAdapter;
 import org.pac4j.core.util.HttpActionHelper;
@@ -58,6 +59,18 @@ public abstract class AbstractExceptionAwareLogic {
         }
     }
 
+    /**
+     * Flush the session store if it buffers the session data of the request: the next writes of the request
+     * are written through.
+     *
+     * @param ctx the context
+     */
+    protected void flushSessionStore(final CallContext ctx) {
+        if (ctx.sessionStore() instanceof BufferedSessionStore bufferedSessionStore) {
+            bufferedSessionStore.flushAndWriteThrough(ctx.webContext());
+        }
+    }
+
     /**
      * Wrap an Exception into a RuntimeException.
      *
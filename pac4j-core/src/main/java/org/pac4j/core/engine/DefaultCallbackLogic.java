@@ -105,9 +105,11 @@ public class DefaultCallbackLogic extends AbstractExceptionAwareLogic implements
             }
 
         } catch (final RuntimeException e) {
+            flushSessionStore(ctx);
             return handleException(e, httpActionAdapter, webContext);
         }
 
+        flushSessionStore(ctx);
         return httpActionAdapter.adapt(action, webContext);
     }
 
@@ -130,9 +130,11 @@ public class DefaultLogoutLogic extends AbstractExceptionAwareLogic implements L
             }
 
         } catch (final RuntimeException e) {
+            flushSessionStore(ctx);
             return handleException(e, httpActionAdapter, webContext);
         }
 
+        flushSessionStore(ctx);
         return httpActionAdapter.adapt(action, webContext);
     }
 
@@ -1,16 +1,20 @@
 package org.pac4j.core.engine;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.pac4j.core.authorization.authorizer.Authorizer;
 import org.pac4j.core.authorization.checker.AuthorizationChecker;
 import org.pac4j.core.authorization.checker.DefaultAuthorizationChecker;
 import org.pac4j.core.client.Client;
+import org.pac4j.core.client.Clients;
 import org.pac4j.core.client.DirectClient;
 import org.pac4j.core.client.IndirectClient;
+import org.pac4j.core.client.direct.AnonymousClient;
 import org.pac4j.core.client.finder.ClientFinder;
 import org.pac4j.core.client.finder.DefaultSecurityClientFinder;
 import org.pac4j.core.config.Config;
@@ -23,12 +27,15 @@ import org.pac4j.core.exception.http.HttpAction;
 import org.pac4j.core.http.ajax.AjaxRequestResolver;
 import org.pac4j.core.matching.checker.DefaultMatchingChecker;
 import org.pac4j.core.matching.checker.MatchingChecker;
+import org.pac4j.core.matching.matcher.Matcher;
 import org.pac4j.core.profile.ProfileManager;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.util.HttpActionHelper;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.pac4j.core.util.CommonHelper.*;
 
@@ -47,6 +54,12 @@ import static org.pac4j.core.util.CommonHelper.*;
  * <p>Finally, if the user is not authenticated (no profile), he is redirected to the appropriate identity provider
  * if the first defined client is an indirect one in the <code>clients</code> configuration. Otherwise, a 401 error page is displayed.</p>
  *
+ * <p>When the default client finder, authorization checker and matching checker are used, the <code>clients</code>,
+ * <code>authorizers</code> and <code>matchers</code> parameters are compiled once into a {@link SecurityPlan}
+ * (rebuilt when the configuration changes) to avoid parsing them on each request.
+ * This can be disabled via the <code>compileSecurityPlans</code> property. At most <code>maxSecurityPlans</code> plans
+ * are kept: beyond that, one plan is evicted for each new one.</p>
+ *
  * @author Jerome Leleu
  * @since 1.9.0
  */
@@ -70,6 +83,15 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
 
     private boolean loadProfilesFromSession = true;
 
+    private boolean compileSecurityPlans = true;
+
+    private int maxSecurityPlans = 1000;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final Map<SecurityPlan.Key, SecurityPlan> securityPlans = new ConcurrentHashMap<>();
+
     /** {@inheritDoc} */
     @Override
     public Object perform(final Config config, final SecurityGrantedAccessAdapter securityGrantedAccessAdapter,
@@ -96,10 +118,17 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
             // logic
             LOGGER.debug("url: {}", webContext.getFullRequestURL());
             LOGGER.debug("clients: {} | matchers: {}", clients, matchers);
-            val currentClients = clientFinder.find(configClients, webContext, clients);
+            val plan = retrieveSecurityPlan(config, configClients, clients, authorizers, matchers);
+            final List<Client> currentClients;
+            if (plan != null) {
+                currentClients = ((DefaultSecurityClientFinder) clientFinder)
+                    .find(configClients, webContext, plan.getClientNames(), plan.getCurrentClients());
+            } else {
+                currentClients = clientFinder.find(configClients, webContext, clients);
+            }
             LOGGER.debug("currentClients: {}", currentClients);
 
-            if (matchingChecker.matches(ctx, matchers, config.getMatchers(), currentClients)) {
+            if (matches(ctx, plan, config, matchers, currentClients)) {
 
                 val manager = ctx.profileManagerFactory().apply(webContext, sessionStore);
                 manager.setConfig(config);
@@ -145,9 +174,9 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
                 // we have profile(s) -> check authorizations; otherwise, redirect to identity provider or 401
                 if (isNotEmpty(profiles)) {
                     LOGGER.debug("authorizers: {}", authorizers);
-                    if (authorizationChecker.isAuthorized(webContext, sessionStore, profiles,
-                                                          authorizers, config.getAuthorizers(), currentClients)) {
+                    if (isAuthorized(ctx, plan, config, profiles, authorizers, currentClients)) {
                         LOGGER.debug("authenticated and authorized -> grant access");
+                        flushSessionStore(ctx);
                         return securityGrantedAccessAdapter.adapt(webContext, sessionStore, profiles);
                     } else {
                         LOGGER.debug("forbidden");
@@ -167,16 +196,208 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
             } else {
 
                 LOGGER.debug("no matching for this request -> grant access");
+                flushSessionStore(ctx);
                 return securityGrantedAccessAdapter.adapt(webContext, sessionStore, Collections.emptyList());
             }
 
         } catch (final Exception e) {
+            flushSessionStore(ctx);
             return handleException(e, httpActionAdapter, webContext);
         }
 
+        flushSessionStore(ctx);
         return httpActionAdapter.adapt(action, webContext);
     }
 
+    /**
+     * Retrieve the compiled security plan for these parameters, compiling it if necessary.
+     *
+     * @param config the configuration
+     * @param configClients the clients of the configuration
+     * @param clients the clients parameter
+     * @param authorizers the authorizers parameter
+     * @param matchers the matchers parameter
+     * @return the security plan or <code>null</code> if the security plans are disabled or not supported by the components
+     */
+    protected SecurityPlan retrieveSecurityPlan(final Config config, final Clients configClients, final String clients,
+                                                final String authorizers, final String matchers) {
+        // exact classes: the subclasses may override the behavior compiled in the plans
+        if (!compileSecurityPlans || clientFinder.getClass() != DefaultSecurityClientFinder.class
+            || authorizationChecker.getClass() != DefaultAuthorizationChecker.class
+            || matchingChecker.getClass() != DefaultMatchingChecker.class) {
+            return null;
+        }
+
+        configClients.init();
+        val generation = config.getGeneration();
+        val clientsIndex = configClients.getClientsMap();
+        val defaultSecurityClients = configClients.getDefaultSecurityClients();
+        val key = new SecurityPlan.Key(config, clients, authorizers, matchers);
+        var plan = securityPlans.get(key);
+        if (plan == null || !plan.isValid(generation, clientsIndex, defaultSecurityClients)) {
+            plan = compileSecurityPlan(key, generation, configClients);
+            LOGGER.debug("Compiled security plan: {}", plan);
+            if (securityPlans.size() >= maxSecurityPlans && !securityPlans.containsKey(key)) {
+                evictSecurityPlan();
+            }
+            securityPlans.put(key, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Evict one security plan to make room for a new one (the other plans are kept).
+     */
+    protected void evictSecurityPlan() {
+        val iterator = securityPlans.keySet().iterator();
+        if (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Compile the security plan for these parameters.
+     *
+     * @param key the key of the plan
+     * @param generation the configuration generation
+     * @param configClients the clients of the configuration
+     * @return the compiled security plan
+     */
+    protected SecurityPlan compileSecurityPlan(final SecurityPlan.Key key, final long generation, final Clients configClients) {
+        val config = key.config();
+        val finder = (DefaultSecurityClientFinder) clientFinder;
+        val clientNames = finder.computeClientNames(configClients, key.clients());
+        val currentClients = finder.findClients(configClients, clientNames);
+        val indirectClient = containsClientType(currentClients, IndirectClient.class);
+        val anonymousClient = containsClientType(currentClients, AnonymousClient.class);
+
+        val matching = (DefaultMatchingChecker) matchingChecker;
+        val defaultMatchers = matching.usesDefaultMatchers(key.matchers());
+        val compiledMatchers = new Matcher[2][];
+        compiledMatchers[0] = matching.compileMatchers(key.matchers(), config.getMatchers(), false);
+        compiledMatchers[1] = defaultMatchers ? matching.compileMatchers(key.matchers(), config.getMatchers(), true)
+            : compiledMatchers[0];
+
+        val authorization = (DefaultAuthorizationChecker) authorizationChecker;
+        Authorizer[][] compiledAuthorizers = new Authorizer[4][];
+        try {
+            for (var i = 0; i < compiledAuthorizers.length; i++) {
+                val indirect = (i & 1) != 0;
+                val anonymous = (i & 2) != 0;
+                compiledAuthorizers[SecurityPlan.authorizersIndex(indirect, anonymous)] =
+                    authorization.compileAuthorizers(key.authorizers(), config.getAuthorizers(), indirect, anonymous);
+            }
+        } catch (final RuntimeException e) {
+            // the authorizers will be resolved (and fail) only when they are checked
+            LOGGER.debug("Cannot compile the authorizers: {}", e.getMessage());
+            compiledAuthorizers = null;
+        }
+
+        return new SecurityPlan(key, generation, configClients.getClientsMap(), configClients.getDefaultSecurityClients(),
+            clientNames, currentClients, indirectClient, anonymousClient, defaultMatchers, compiledMatchers, compiledAuthorizers);
+    }
+
+    /**
+     * Check the matchers.
+     *
+     * @param ctx the context
+     * @param plan the security plan (may be <code>null</code>)
+     * @param config the configuration
+     * @param matchers the matchers parameter
+     * @param currentClients the current clients
+     * @return whether the matchers are satisfied
+     */
+    protected boolean matches(final CallContext ctx, final SecurityPlan plan, final Config config, final String matchers,
+                              final List<Client> currentClients) {
+        if (plan == null) {
+            return matchingChecker.matches(ctx, matchers, config.getMatchers(), currentClients);
+        }
+        val checker = (DefaultMatchingChecker) matchingChecker;
+        val csrfToken = plan.isDefaultMatchers() && checker.isCsrfTokenRequired(ctx, currentClients);
+        return checker.checkMatchers(ctx, plan.getMatchers(csrfToken));
+    }
+
+    /**
+     * Check the authorizers.
+     *
+     * @param ctx the context
+     * @param plan the security plan (may be <code>null</code>)
+     * @param config the configuration
+     * @param profiles the current profiles
+     * @param authorizers the authorizers parameter
+     * @param currentClients the current clients
+     * @return whether the authorizers are satisfied
+     */
+    protected boolean isAuthorized(final CallContext ctx, final SecurityPlan plan, final Config config,
+                                   final List<UserProfile> profiles, final String authorizers, final List<Client> currentClients) {
+        if (plan == null || !plan.hasCompiledAuthorizers()) {
+            return authorizationChecker.isAuthorized(ctx.webContext(), ctx.sessionStore(), profiles,
+                authorizers, config.getAuthorizers(), currentClients);
+        }
+        final Authorizer[] compiledAuthorizers;
+        if (currentClients == plan.getCurrentClients()) {
+            compiledAuthorizers = plan.getAuthorizers(plan.isIndirectClient(), plan.isAnonymousClient());
+        } else {
+            compiledAuthorizers = plan.getAuthorizers(containsClientType(currentClients, IndirectClient.class),
+                containsClientType(currentClients, AnonymousClient.class));
+        }
+        return ((DefaultAuthorizationChecker) authorizationChecker)
+            .checkAuthorizers(ctx.webContext(), ctx.sessionStore(), profiles, compiledAuthorizers);
+    }
+
+    private static boolean containsClientType(final List<Client> clients, final Class<? extends Client> clazz) {
+        for (val client : clients) {
+            if (clazz.isInstance(client)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Clear the compiled security plans.
+     */
+    public void clearSecurityPlans() {
+        securityPlans.clear();
+    }
+
+    /**
+     * <p>Setter for the field <code>clientFinder</code>.</p>
+     *
+     * @param clientFinder a {@link ClientFinder} object
+     * @return a {@link DefaultSecurityLogic} object
+     */
+    public DefaultSecurityLogic setClientFinder(final ClientFinder clientFinder) {
+        this.clientFinder = clientFinder;
+        clearSecurityPlans();
+        return this;
+    }
+
+    /**
+     * <p>Setter for the field <code>authorizationChecker</code>.</p>
+     *
+     * @param authorizationChecker a {@link AuthorizationChecker} object
+     * @return a {@link DefaultSecurityLogic} object
+     */
+    public DefaultSecurityLogic setAuthorizationChecker(final AuthorizationChecker authorizationChecker) {
+        this.authorizationChecker = authorizationChecker;
+        clearSecurityPlans();
+        return this;
+    }
+
+    /**
+     * <p>Setter for the field <code>matchingChecker</code>.</p>
+     *
+     * @param matchingChecker a {@link MatchingChecker} object
+     * @return a {@link DefaultSecurityLogic} object
+     */
+    public DefaultSecurityLogic setMatchingChecker(final MatchingChecker matchingChecker) {
+        this.matchingChecker = matchingChecker;
+        clearSecurityPlans();
+        return this;
+    }
+
     /**
      * Load the profiles.
      *
@@ -0,0 +1,232 @@
+package org.pac4j.core.engine;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.val;
+import org.pac4j.core.authorization.authorizer.Authorizer;
+import org.pac4j.core.client.Client;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.matching.matcher.Matcher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>An immutable compiled "security plan" for a <code>(clients, authorizers, matchers)</code> triple.</p>
+ *
+ * <p>The client, authorizer and matcher names are parsed and resolved once against the configuration,
+ * so that the {@link DefaultSecurityLogic} only runs the resolved objects on each request.</p>
+ *
+ * <p>The parts of the default behavior which depend on the request (the CSRF token matcher, the default authorizers)
+ * are precomputed for every possible variant.</p>
+ *
+ * <p>The plan is rebuilt when the configuration generation changes, but also when the entries of the authorizers
+ * or matchers maps are not the same anymore: the maps passed to the configuration may be modified directly.</p>
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+@Getter
+@ToString
+public class SecurityPlan {
+
+    private final String clients;
+
+    private final String authorizers;
+
+    private final String matchers;
+
+    @ToString.Exclude
+    private final Config config;
+
+    private final long generation;
+
+    @ToString.Exclude
+    private final Map<String, Client> clientsIndex;
+
+    @ToString.Exclude
+    private final String defaultSecurityClients;
+
+    private final String[] clientNames;
+
+    private final List<Client> currentClients;
+
+    private final boolean indirectClient;
+
+    private final boolean anonymousClient;
+
+    private final boolean defaultMatchers;
+
+    private final Matcher[][] compiledMatchers;
+
+    private final Authorizer[][] compiledAuthorizers;
+
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    private final Object[] authorizersEntries;
+
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    private final Object[] matchersEntries;
+
+    /**
+     * <p>Constructor for SecurityPlan.</p>
+     *
+     * @param key the key of the plan
+     * @param generation the configuration generation
+     * @param clientsIndex the clients index used for the compilation
+     * @param defaultSecurityClients the default security clients used for the compilation
+     * @param clientNames the resolved client names
+     * @param currentClients the resolved clients
+     * @param indirectClient whether the resolved clients contain an indirect client
+     * @param anonymousClient whether the resolved clients contain an anonymous client
+     * @param defaultMatchers whether the matchers rely on the default matchers
+     * @param compiledMatchers the resolved matchers, without and with the CSRF token matcher
+     * @param compiledAuthorizers the resolved authorizers, indexed by {@link #authorizersIndex(boolean, boolean)},
+     *                            or <code>null</code> if they could not be resolved
+     */
+    public SecurityPlan(final Key key, final long generation, final Map<String, Client> clientsIndex,
+                        final String defaultSecurityClients, final String[] clientNames, final List<Client> currentClients,
+                        final boolean indirectClient, final boolean anonymousClient, final boolean defaultMatchers,
+                        final Matcher[][] compiledMatchers, final Authorizer[][] compiledAuthorizers) {
+        this.clients = key.clients();
+        this.authorizers = key.authorizers();
+        this.matchers = key.matchers();
+        this.config = key.config();
+        this.generation = generation;
+        this.clientsIndex = clientsIndex;
+        this.defaultSecurityClients = defaultSecurityClients;
+        this.clientNames = clientNames;
+        this.currentClients = List.copyOf(currentClients);
+        this.indirectClient = indirectClient;
+        this.anonymousClient = anonymousClient;
+        this.defaultMatchers = defaultMatchers;
+        this.compiledMatchers = compiledMatchers;
+        this.compiledAuthorizers = compiledAuthorizers;
+        this.authorizersEntries = entries(config.getAuthorizers());
+        this.matchersEntries = entries(config.getMatchers());
+    }
+
+    /**
+     * Whether this plan is still valid for the current state of the configuration.
+     *
+     * @param generation the current configuration generation
+     * @param clientsIndex the current clients index
+     * @param defaultSecurityClients the current default security clients
+     * @return whether this plan is still valid
+     */
+    public boolean isValid(final long generation, final Map<String, Client> clientsIndex, final String defaultSecurityClients) {
+        return this.generation == generation && this.clientsIndex == clientsIndex
+            && Objects.equals(this.defaultSecurityClients, defaultSecurityClients)
+            && sameEntries(config.getAuthorizers(), authorizersEntries) && sameEntries(config.getMatchers(), matchersEntries);
+    }
+
+    private static Object[] entries(final Map<String, ?> map) {
+        if (map == null) {
+            return null;
+        }
+        val entries = new Object[2 * map.size()];
+        var i = 0;
+        for (val entry : map.entrySet()) {
+            entries[i++] = entry.getKey();
+            entries[i++] = entry.getValue();
+        }
+        return entries;
+    }
+
+    private static boolean sameEntries(final Map<String, ?> map, final Object[] entries) {
+        if (map == null || entries == null) {
+            return map == null && entries == null;
+        }
+        if (2 * map.size() != entries.length) {
+            return false;
+        }
+        var i = 0;
+        for (val entry : map.entrySet()) {
+            if (!Objects.equals(entry.getKey(), entries[i++]) || entry.getValue() != entries[i++]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return the matchers to run.
+     *
+     * @param csrfToken whether the CSRF token matcher is required by the default matchers
+     * @return the matchers
+     */
+    public Matcher[] getMatchers(final boolean csrfToken) {
+        return compiledMatchers[csrfToken ? 1 : 0];
+    }
+
+    /**
+     * Whether the authorizers have been resolved.
+     *
+     * @return whether the authorizers have been resolved
+     */
+    public boolean hasCompiledAuthorizers() {
+        return compiledAuthorizers != null;
+    }
+
+    /**
+     * Return the authorizers to check.
+     *
+     * @param indirectClient whether the current clients contain an indirect client
+     * @param anonymousClient whether the current clients contain an anonymous client
+     * @return the authorizers
+     */
+    public Authorizer[] getAuthorizers(final boolean indirectClient, final boolean anonymousClient) {
+        return compiledAuthorizers[authorizersIndex(indirectClient, anonymousClient)];
+    }
+
+    /**
+     * Compute the index of a variant of the compiled authorizers.
+     *
+     * @param indirectClient whether the current clients contain an indirect client
+     * @param anonymousClient whether the current clients contain an anonymous client
+     * @return the index
+     */
+    public static int authorizersIndex(final boolean indirectClient, final boolean anonymousClient) {
+        return (indirectClient ? 1 : 0) + (anonymousClient ? 2 : 0);
+    }
+
+    /**
+     * The key of a security plan: the configuration and the <code>clients</code>, <code>authorizers</code>
+     * and <code>matchers</code> parameters.
+     *
+     * @param config the configuration
+     * @param clients the clients parameter
+     * @param authorizers the authorizers parameter
+     * @param matchers the matchers parameter
+     */
+    public record Key(Config config, String clients, String authorizers, String matchers) {
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return config == key.config && Objects.equals(clients, key.clients)
+                && Objects.equals(authorizers, key.authorizers) && Objects.equals(matchers, key.matchers);
+        }
+
+        @Override
+        public int hashCode() {
+            var result = System.identityHashCode(config);
+            result = 31 * result + Objects.hashCode(clients);
+            result = 31 * result + Objects.hashCode(authorizers);
+            return 31 * result + Objects.hashCode(matchers);
+        }
+
+        @Override
+        public String toString() {
+            return "Key(clients=" + clients + ", authorizers=" + authorizers + ", matchers=" + matchers + ")";
+        }
+    }
+}
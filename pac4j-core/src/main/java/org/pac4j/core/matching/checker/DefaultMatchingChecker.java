@@ -94,6 +94,46 @@ public class DefaultMatchingChecker implements MatchingChecker {
         return computeMatchersFromNames(matcherNames, matchersMap);
     }
 
+    /**
+     * Compile the matchers once for all, for the {@link org.pac4j.core.engine.SecurityPlan}.
+     *
+     * @param matchersValue the matchers
+     * @param matchersMap the defined matchers
+     * @param csrfToken whether the default matchers must include the CSRF token matcher
+     * @return the resolved matchers
+     */
+    public Matcher[] compileMatchers(final String matchersValue, final Map<String, Matcher> matchersMap, final boolean csrfToken) {
+        return computeMatchersFromNames(computeMatcherNames(matchersValue, csrfToken), matchersMap).toArray(new Matcher[0]);
+    }
+
+    /**
+     * Whether the matchers rely on the default matchers.
+     *
+     * @param matchersValue the matchers
+     * @return whether the default matchers are used
+     */
+    public boolean usesDefaultMatchers(final String matchersValue) {
+        return StringUtils.isBlank(matchersValue) || matchersValue.trim().startsWith(Pac4jConstants.ADD_ELEMENT);
+    }
+
+    /**
+     * <p>computeMatcherNames.</p>
+     *
+     * @param matchersValue a {@link String} object
+     * @param csrfToken whether the default matchers must include the CSRF token matcher
+     * @return a {@link String} object
+     */
+    protected String computeMatcherNames(final String matchersValue, final boolean csrfToken) {
+        if (StringUtils.isBlank(matchersValue)) {
+            return computeDefaultMatcherNames(csrfToken);
+        } else if (matchersValue.trim().startsWith(Pac4jConstants.ADD_ELEMENT)) {
+            return computeDefaultMatcherNames(csrfToken) +
+                Pac4jConstants.ELEMENT_SEPARATOR + StringUtils.substringAfter(matchersValue, Pac4jConstants.ADD_ELEMENT);
+        } else {
+            return matchersValue;
+        }
+    }
+
     /**
      * <p>computeDefaultMatcherNames.</p>
      *
@@ -104,18 +144,39 @@ public class DefaultMatchingChecker implements MatchingChecker {
      */
     protected String computeDefaultMatcherNames(final CallContext ctx, final Iterable<Client> clients,
                                                 final Map<String, Matcher> matchersMap) {
-        String name = DefaultMatchers.SECURITYHEADERS;
+        return computeDefaultMatcherNames(isCsrfTokenRequired(ctx, clients));
+    }
+
+    /**
+     * <p>computeDefaultMatcherNames.</p>
+     *
+     * @param csrfToken whether the CSRF token matcher must be included
+     * @return a {@link String} object
+     */
+    protected String computeDefaultMatcherNames(final boolean csrfToken) {
+        if (csrfToken) {
+            return DefaultMatchers.SECURITYHEADERS + Pac4jConstants.ELEMENT_SEPARATOR + DefaultMatchers.CSRF_TOKEN;
+        }
+        return DefaultMatchers.SECURITYHEADERS;
+    }
+
+    /**
+     * Whether the default matchers must include the CSRF token matcher: if a session exists or one client is indirect.
+     *
+     * @param ctx a {@link CallContext} object
+     * @param clients a {@link List} object
+     * @return a boolean
+     */
+    public boolean isCsrfTokenRequired(final CallContext ctx, final Iterable<Client> clients) {
         if (ctx.sessionStore().getSessionId(ctx.webContext(), false).isPresent()) {
-            name += Pac4jConstants.ELEMENT_SEPARATOR + DefaultMatchers.CSRF_TOKEN;
-            return name;
+            return true;
         }
         for (val client : clients) {
             if (client instanceof IndirectClient) {
-                name += Pac4jConstants.ELEMENT_SEPARATOR + DefaultMatchers.CSRF_TOKEN;
-                return name;
+                return true;
             }
         }
-        return name;
+        return false;
     }
 
     /**
@@ -197,6 +258,24 @@ public class DefaultMatchingChecker implements MatchingChecker {
         return results;
     }
 
+    /**
+     * Check the matchers already resolved by {@link #compileMatchers(String, Map, boolean)}.
+     *
+     * @param ctx a {@link CallContext} object
+     * @param matchers the resolved matchers
+     * @return a boolean
+     */
+    public boolean checkMatchers(final CallContext ctx, final Matcher[] matchers) {
+        // check matching using matchers: all must be satisfied
+        for (val matcher : matchers) {
+            val matches = matcher.matches(ctx);
+            LOGGER.debug("Checking matcher: {} -> {}", matcher, matches);
+            if (!matches) {
+                return false;
+            }
+        }
+        return true;
+    }
 
     /**
      * <p>matches.</p>
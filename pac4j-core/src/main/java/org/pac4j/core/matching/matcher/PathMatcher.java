@@ -7,25 +7,46 @@ import lombok.val;
 import org.pac4j.core.context.CallContext;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.Pac4jConstants;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 /**
  * Matches all request paths except whitelisted (excluded) paths.
  *
+ * <p>The paths are compiled on first use into a trie of the exact paths, branches and included prefixes,
+ * in which the regular expressions are also indexed by their literal prefix (and combined by prefix into a single
+ * alternation), so that a request path is checked in one walk, whatever the number of exclusions.
+ * The trie is rebuilt whenever the paths change, including through the sets returned by the getters.</p>
+ *
  * @author Rob Ward
  * @since 2.0.0
  */
 @Slf4j
 @ToString
 public class PathMatcher implements Matcher {
-    private final Set<String> includedPaths = new HashSet<>();
+    private final Set<String> includedPaths = new TrackedSet<>();
+    @Getter
+    private final Set<String> excludedPaths = new TrackedSet<>();
     @Getter
-    private final Set<String> excludedPaths = new HashSet<>();
+    private final Set<String> excludedBranches = new TrackedSet<>();
     @Getter
-    private final Set<Pattern> excludedPatterns = new HashSet<>();
+    private final Set<Pattern> excludedPatterns = new TrackedSet<>();
+
+    @ToString.Exclude
+    private volatile PathTrie trie;
+
+    @ToString.Exclude
+    private final AtomicInteger version = new AtomicInteger();
+
+    private static final String REGEX_METACHARACTERS = "\\.[]{}()*+?^$|";
+
+    private static final String QUANTIFIERS = "*+?{";
+
+    private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\(\\d|k<)");
 
     private static boolean warnedRegexp;
     private static boolean warnedInclude;
@@ -97,9 +118,13 @@ public class PathMatcher implements Matcher {
      * @return this path matcher
      */
     public PathMatcher excludeBranch(final String path) {
-        warnRegexp();
         validatePath(path);
-        excludedPatterns.add(Pattern.compile("^" + path + "(/.*)?$"));
+        if (isLiteral(path)) {
+            excludedBranches.add(path);
+        } else {
+            warnRegexp();
+            excludedPatterns.add(Pattern.compile("^" + path + "(/.*)?$"));
+        }
         return this;
     }
 
@@ -155,29 +180,27 @@ public class PathMatcher implements Matcher {
 
         LOGGER.debug("request path to match: {}", requestPath);
 
+        val path = requestPath != null ? requestPath : Pac4jConstants.EMPTY_STRING;
         if (!includedPaths.isEmpty()) {
-            for (val path : includedPaths) {
-                // accepts any request path starting with the included path
-                if (requestPath != null && requestPath.startsWith(path)) {
-                    return true;
-                }
-            }
-
-            return false;
+            // accepts any request path starting with an included path
+            return getTrie().isIncluded(path);
         }
 
-        // just exclude the exact matching request path
-        if (excludedPaths.contains(requestPath)) {
-            return false;
-        }
+        return !getTrie().isExcluded(path);
+    }
 
-        for (val pattern : excludedPatterns) {
-            if (pattern.matcher(requestPath).matches()) {
-                return false;
+    private PathTrie getTrie() {
+        var current = trie;
+        if (current == null) {
+            val currentVersion = version.get();
+            current = new PathTrie(includedPaths, excludedPaths, excludedBranches, excludedPatterns);
+            trie = current;
+            // the paths have changed in the meantime: the trie will be rebuilt on the next check
+            if (version.get() != currentVersion) {
+                trie = null;
             }
         }
-
-        return true;
+        return current;
     }
 
     /**
@@ -220,10 +243,261 @@ public class PathMatcher implements Matcher {
         excludeRegex(regularExpression);
     }
 
+    private void invalidate() {
+        version.incrementAndGet();
+        trie = null;
+    }
+
     private static void validatePath(String path) {
         CommonHelper.assertNotBlank("path", path);
         if (!path.startsWith("/")) {
             throw new TechnicalException("Excluded path must begin with a /");
         }
     }
+
+    private static boolean isLiteral(final String path) {
+        for (var i = 0; i < path.length(); i++) {
+            if (REGEX_METACHARACTERS.indexOf(path.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return the literal prefix of a full path matching regular expression: all the matching paths start with it.
+     */
+    static String literalPrefix(final String regex) {
+        // a top level alternation may match paths with different prefixes
+        var depth = 0;
+        var inClass = false;
+        for (var i = 1; i < regex.length(); i++) {
+            val c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (inClass) {
+                inClass = c != ']';
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                return Pac4jConstants.EMPTY_STRING;
+            }
+        }
+        var end = 1;
+        while (end < regex.length() && REGEX_METACHARACTERS.indexOf(regex.charAt(end)) < 0) {
+            end++;
+        }
+        // a quantified last character is optional or repeated
+        if (end < regex.length() && QUANTIFIERS.indexOf(regex.charAt(end)) >= 0) {
+            end--;
+        }
+        return regex.substring(1, Math.max(1, end));
+    }
+
+    /**
+     * The compiled paths: a character trie where each node flags whether the path leading to it is an exact excluded path,
+     * an excluded branch or an included prefix, and holds the (combined) regular expressions with this literal prefix.
+     */
+    private static final class PathTrie {
+
+        private final Node root = new Node();
+
+        private PathTrie(final Set<String> includedPaths, final Set<String> excludedPaths, final Set<String> excludedBranches,
+                         final Set<Pattern> excludedPatterns) {
+            includedPaths.forEach(path -> node(path).included = true);
+            excludedPaths.forEach(path -> node(path).exact = true);
+            excludedBranches.forEach(path -> node(path).branch = true);
+            final Map<String, List<Pattern>> patternsByPrefix = new HashMap<>();
+            for (val pattern : excludedPatterns) {
+                patternsByPrefix.computeIfAbsent(indexPrefix(pattern), k -> new ArrayList<>()).add(pattern);
+            }
+            patternsByPrefix.forEach((prefix, patterns) -> node(prefix).patterns = combine(patterns));
+        }
+
+        /**
+         * Index the full path matching regular expressions by literal prefix: the ones with flags
+         * (which may change the meaning of the prefix) or without the leading ^ are checked at the root.
+         */
+        private static String indexPrefix(final Pattern pattern) {
+            val regex = pattern.pattern();
+            if (pattern.flags() != 0 || !regex.startsWith("^")) {
+                return Pac4jConstants.EMPTY_STRING;
+            }
+            return literalPrefix(regex);
+        }
+
+        private static Pattern[] combine(final List<Pattern> patterns) {
+            // the flags of a pattern are lost in the combined regular expression: such patterns are kept apart
+            final List<Pattern> combinable = new ArrayList<>();
+            final List<Pattern> result = new ArrayList<>();
+            for (val pattern : patterns) {
+                // the numbered back references would be shifted by the groups of the previous regular expressions
+                if (pattern.flags() == 0 && !BACK_REFERENCE.matcher(pattern.pattern()).find()) {
+                    combinable.add(pattern);
+                } else {
+                    result.add(pattern);
+                }
+            }
+            if (combinable.size() > 1) {
+                val alternation = new StringJoiner("|");
+                for (val pattern : combinable) {
+                    alternation.add("(?:" + pattern.pattern() + ")");
+                }
+                try {
+                    result.add(Pattern.compile(alternation.toString()));
+                    return result.toArray(new Pattern[0]);
+                } catch (final PatternSyntaxException e) {
+                    LOGGER.debug("Cannot combine the regular expressions: {}", combinable, e);
+                }
+            }
+            result.addAll(combinable);
+            return result.toArray(new Pattern[0]);
+        }
+
+        private Node node(final String path) {
+            var node = root;
+            for (var i = 0; i < path.length(); i++) {
+                node = node.getOrCreateChild(path.charAt(i));
+            }
+            return node;
+        }
+
+        private boolean isIncluded(final String path) {
+            var node = root;
+            for (var i = 0; node != null; i++) {
+                if (node.included) {
+                    return true;
+                }
+                if (i == path.length()) {
+                    return false;
+                }
+                node = node.getChild(path.charAt(i));
+            }
+            return false;
+        }
+
+        private boolean isExcluded(final String path) {
+            var node = root;
+            for (var i = 0; node != null; i++) {
+                val end = i == path.length();
+                if (node.branch && (end || path.charAt(i) == '/')) {
+                    return true;
+                }
+                if (node.patterns != null) {
+                    for (val pattern : node.patterns) {
+                        if (pattern.matcher(path).matches()) {
+                            return true;
+                        }
+                    }
+                }
+                if (end) {
+                    return node.exact;
+                }
+                node = node.getChild(path.charAt(i));
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A set which invalidates the compiled paths when it is modified.
+     *
+     * @param <E> the type of the elements
+     */
+    private final class TrackedSet<E> extends AbstractSet<E> {
+
+        private final Set<E> delegate = new HashSet<>();
+
+        @Override
+        public boolean contains(final Object o) {
+            return delegate.contains(o);
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public boolean add(final E e) {
+            val added = delegate.add(e);
+            invalidate();
+            return added;
+        }
+
+        @Override
+        public boolean remove(final Object o) {
+            val removed = delegate.remove(o);
+            invalidate();
+            return removed;
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+            invalidate();
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            val iterator = delegate.iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public E next() {
+                    return iterator.next();
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                    invalidate();
+                }
+            };
+        }
+    }
+
+    private static final class Node {
+
+        private char[] keys = new char[0];
+
+        private Node[] children = new Node[0];
+
+        private boolean exact;
+
+        private boolean branch;
+
+        private boolean included;
+
+        private Pattern[] patterns;
+
+        private Node getChild(final char c) {
+            for (var i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node getOrCreateChild(final char c) {
+            var child = getChild(c);
+            if (child == null) {
+                child = new Node();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                keys[keys.length - 1] = c;
+                children = Arrays.copyOf(children, children.length + 1);
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
 }
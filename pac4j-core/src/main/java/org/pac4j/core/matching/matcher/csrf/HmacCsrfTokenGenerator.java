@@ -0,0 +1,122 @@
+package org.pac4j.core.matching.matcher.csrf;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.util.Base64;
+
+/**
+ * Stateless CSRF token generator: the tokens are signed (HMAC-SHA256) with a server secret and bound to the session
+ * identifier and to a time window, so that they are checked by recomputation (see
+ * {@link org.pac4j.core.authorization.authorizer.CsrfAuthorizer#CsrfAuthorizer(HmacCsrfTokenGenerator)})
+ * and never read from nor saved into the session.
+ *
+ * <p>A token is generated for the current time window of {@link #ttlInSeconds} seconds and it is accepted
+ * during this window and the next one: it is valid at least {@link #ttlInSeconds} seconds and at most twice as long.
+ * All the servers must share the same secret.</p>
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+@Slf4j
+@Getter
+@Setter
+public class HmacCsrfTokenGenerator implements CsrfTokenGenerator {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final char SEPARATOR = '.';
+
+    private String secret;
+
+    // 4 hours
+    private int ttlInSeconds = 4*60*60;
+
+    private Clock clock = Clock.systemUTC();
+
+    /**
+     * <p>Constructor for HmacCsrfTokenGenerator.</p>
+     */
+    public HmacCsrfTokenGenerator() {}
+
+    /**
+     * <p>Constructor for HmacCsrfTokenGenerator.</p>
+     *
+     * @param secret the secret to sign the tokens
+     */
+    public HmacCsrfTokenGenerator(final String secret) {
+        this.secret = secret;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String get(final WebContext context, final SessionStore sessionStore) {
+        val sessionId = sessionStore.getSessionId(context, true)
+            .orElseThrow(() -> new TechnicalException("A session identifier is required to generate a stateless CSRF token"));
+        val window = currentWindow();
+        val token = Long.toString(window) + SEPARATOR + sign(sessionId, window);
+        LOGGER.debug("generated CSRF token: {} for current URL: {}", token, context.getFullRequestURL());
+        return token;
+    }
+
+    /**
+     * Check a CSRF token by recomputation.
+     *
+     * @param context the current web context
+     * @param sessionStore the session store
+     * @param token the token to check (may be <code>null</code>)
+     * @return whether the token is valid for the current session and time window
+     */
+    public boolean isValid(final WebContext context, final SessionStore sessionStore, final String token) {
+        if (token == null) {
+            return false;
+        }
+        val sessionId = sessionStore.getSessionId(context, false);
+        val separator = token.indexOf(SEPARATOR);
+        if (sessionId.isEmpty() || separator <= 0) {
+            return false;
+        }
+        final long window;
+        try {
+            window = Long.parseLong(token.substring(0, separator));
+        } catch (final NumberFormatException e) {
+            return false;
+        }
+        val age = currentWindow() - window;
+        if (age < 0 || age > 1) {
+            LOGGER.debug("expired CSRF token: {}", token);
+            return false;
+        }
+        val expected = sign(sessionId.get(), window).getBytes(StandardCharsets.US_ASCII);
+        val actual = token.substring(separator + 1).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    private long currentWindow() {
+        return clock.millis() / (ttlInSeconds * 1000L);
+    }
+
+    private String sign(final String sessionId, final long window) {
+        CommonHelper.assertNotBlank("secret", secret);
+        try {
+            val mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            val signature = mac.doFinal((sessionId + SEPARATOR + window).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (final GeneralSecurityException e) {
+            throw new TechnicalException(e);
+        }
+    }
+}
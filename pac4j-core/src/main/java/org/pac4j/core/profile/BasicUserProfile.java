@@ -58,6 +58,7 @@ public class BasicUserProfile implements UserProfile, Externalizable {
     @Setter
     private String linkedId;
 
+    @Getter
     private final boolean canAttributesBeMerged;
 
     /**
@@ -22,6 +22,11 @@ import java.util.*;
 /**
  * This class is a generic way to manage the current user profile(s), i.e. the one(s) of the current authenticated user.
  *
+ * The user profiles read from the request and the session are resolved once per request: the result is memoized
+ * in a request attribute, which is only reused by the profile managers with the same session store and configuration,
+ * and which is no longer used once the profiles are saved or removed (by any profile manager)
+ * as the request profiles are then replaced.
+ *
  * @author Jerome Leleu
  * @since 1.8.0
  */
@@ -59,8 +64,7 @@ public class ProfileManager {
      * @return the user profile
      */
     public Optional<UserProfile> getProfile() {
-        val allProfiles = retrieveAll(true);
-        return ProfileHelper.flatIntoOneProfile(allProfiles.values());
+        return resolveProfiles().profile;
     }
 
     /**
@@ -80,8 +84,29 @@ public class ProfileManager {
      * @return the user profiles
      */
     public List<UserProfile> getProfiles() {
+        return new ArrayList<>(resolveProfiles().profiles);
+    }
+
+    /**
+     * Resolve the user profiles from the request and the session, once per request.
+     *
+     * @return the resolved profiles
+     */
+    protected ResolvedProfiles resolveProfiles() {
+        val memoized = this.context.getRequestAttribute(Pac4jConstants.RESOLVED_USER_PROFILES);
+        if (memoized.isPresent() && memoized.get() instanceof ResolvedProfiles resolvedProfiles
+            && resolvedProfiles.isResolvedBy(this.sessionStore, this.config)
+            && resolvedProfiles.source == this.context.getRequestAttribute(Pac4jConstants.USER_PROFILES).orElse(null)) {
+            return resolvedProfiles;
+        }
+
         val profiles = retrieveAll(true);
-        return ProfileHelper.flatIntoAProfileList(profiles);
+        // the source is read after the retrieval as expired profiles may have been removed or renewed (and saved)
+        val source = this.context.getRequestAttribute(Pac4jConstants.USER_PROFILES).orElse(null);
+        val resolvedProfiles = new ResolvedProfiles(this.sessionStore, this.config, source,
+            ProfileHelper.flatIntoAProfileList(profiles));
+        this.context.setRequestAttribute(Pac4jConstants.RESOLVED_USER_PROFILES, resolvedProfiles);
+        return resolvedProfiles;
     }
 
     /**
@@ -221,10 +246,70 @@ public class ProfileManager {
      * @return whether the current user is authenticated
      */
     public boolean isAuthenticated() {
-        try {
-            return IS_AUTHENTICATED_AUTHORIZER.isAuthorized(context, sessionStore, getProfiles());
-        } catch (final HttpAction e) {
-            throw new TechnicalException(e);
+        val resolvedProfiles = resolveProfiles();
+        var authenticated = resolvedProfiles.authenticated;
+        if (authenticated == null) {
+            try {
+                authenticated = IS_AUTHENTICATED_AUTHORIZER.isAuthorized(context, sessionStore, resolvedProfiles.profiles);
+            } catch (final HttpAction e) {
+                throw new TechnicalException(e);
+            }
+            resolvedProfiles.authenticated = authenticated;
+        }
+        return authenticated;
+    }
+
+    /**
+     * The user profiles resolved for the current request.
+     */
+    protected static final class ResolvedProfiles {
+
+        private final SessionStore sessionStore;
+
+        private final Config config;
+
+        private final Object source;
+
+        private final List<UserProfile> profiles;
+
+        private final Optional<UserProfile> profile;
+
+        private Boolean authenticated;
+
+        private ResolvedProfiles(final SessionStore sessionStore, final Config config, final Object source,
+                                 final List<UserProfile> profiles) {
+            this.sessionStore = sessionStore;
+            this.config = config;
+            this.source = source;
+            this.profiles = Collections.unmodifiableList(profiles);
+            this.profile = ProfileHelper.flatIntoOneProfile(profiles);
+        }
+
+        boolean isResolvedBy(final SessionStore sessionStore, final Config config) {
+            return this.sessionStore == sessionStore && this.config == config;
+        }
+
+        /**
+         * <p>Getter for the field <code>profiles</code>.</p>
+         *
+         * @return the resolved profiles
+         */
+        public List<UserProfile> getProfiles() {
+            return profiles;
+        }
+
+        /**
+         * <p>Getter for the field <code>profile</code>.</p>
+         *
+         * @return the first resolved profile, ignoring any {@link AnonymousProfile} if possible
+         */
+        public Optional<UserProfile> getProfile() {
+            return profile;
+        }
+
+        @Override
+        public String toString() {
+            return "ResolvedProfiles(" + profiles + ")";
         }
     }
 }
@@ -30,12 +30,14 @@ public abstract class SpringResourceLoader<M> extends InitializableObject {
 
     protected final Resource resource;
 
-    protected M loaded;
+    protected volatile M loaded;
 
     /** {@inheritDoc} */
     protected final void internalInit(final boolean forceReinit) {
         internalLoad();
-        hasChanged();
+        if (!isRefreshedInBackground()) {
+            hasChanged();
+        }
     }
 
     /**
@@ -44,7 +46,7 @@ public abstract class SpringResourceLoader<M> extends InitializableObject {
      * @return a M object
      */
     public final M load() {
-        if (lock.tryLock()) {
+        if (!isRefreshedInBackground() && lock.tryLock()) {
             try {
                 if (hasChanged()) {
                     internalLoad();
@@ -81,6 +83,16 @@ public abstract class SpringResourceLoader<M> extends InitializableObject {
         return false;
     }
 
+    /**
+     * Whether the loaded object is refreshed in the background, in which case {@link #load()} returns it
+     * without checking the resource for changes.
+     *
+     * @return whether the loaded object is refreshed in the background
+     */
+    protected boolean isRefreshedInBackground() {
+        return false;
+    }
+
     /**
      * <p>internalLoad.</p>
      */
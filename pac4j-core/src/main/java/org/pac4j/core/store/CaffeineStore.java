@@ -0,0 +1,180 @@
+package org.pac4j.core.store;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.val;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * <p>Store data in a Caffeine cache (W-TinyLFU eviction).</p>
+ *
+ * <p>On top of the maximum size, the entries can expire after write ({@link #timeout}), after access ({@link #accessTimeout})
+ * or according to a variable per-entry {@link #expiry}. If a {@link #loader} is defined, the missing values are loaded
+ * and the entries can be refreshed ahead of their expiration ({@link #refreshTimeout}) in the background,
+ * using the {@link #executor}.</p>
+ *
+ * <p>The statistics can be recorded ({@link #recordStats}) and optionally reported to a metrics system
+ * via a {@link #statsCounterSupplier}.</p>
+ *
+ * Add the <code>caffeine</code> dependency to use this store.
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+@ToString
+public class CaffeineStore<K, O> extends AbstractStore<K, O> {
+
+    @Getter
+    private Cache<K, O> cache;
+
+    @Getter
+    @Setter
+    private int size = 0;
+
+    @Getter
+    @Setter
+    private int timeout = -1;
+
+    @Getter
+    @Setter
+    private int accessTimeout = -1;
+
+    @Getter
+    @Setter
+    private int refreshTimeout = -1;
+
+    @Getter
+    @Setter
+    private TimeUnit timeUnit;
+
+    @Getter
+    @Setter
+    private Expiry<K, O> expiry;
+
+    @Getter
+    @Setter
+    private CacheLoader<K, O> loader;
+
+    @Getter
+    @Setter
+    private Executor executor;
+
+    @Getter
+    @Setter
+    private boolean recordStats;
+
+    @Getter
+    @Setter
+    private Supplier<? extends StatsCounter> statsCounterSupplier;
+
+    /**
+     * <p>Constructor for CaffeineStore.</p>
+     */
+    public CaffeineStore() {}
+
+    /**
+     * <p>Constructor for CaffeineStore.</p>
+     *
+     * @param size a int
+     * @param timeout a int
+     * @param timeUnit a {@link TimeUnit} object
+     */
+    public CaffeineStore(final int size, final int timeout, final TimeUnit timeUnit) {
+        this.size = size;
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertTrue(this.size > 0, "size must be greater than zero");
+        if (this.timeout >= 0 || this.accessTimeout >= 0 || this.refreshTimeout >= 0) {
+            CommonHelper.assertNotNull("timeUnit", this.timeUnit);
+        }
+        if (this.expiry != null) {
+            CommonHelper.assertTrue(this.timeout < 0 && this.accessTimeout < 0,
+                "expiry cannot be combined with timeout or accessTimeout");
+        }
+        if (this.refreshTimeout >= 0) {
+            CommonHelper.assertNotNull("loader", this.loader);
+        }
+
+        val builder = Caffeine.newBuilder().maximumSize(this.size);
+        if (this.timeout >= 0) {
+            builder.expireAfterWrite(this.timeout, this.timeUnit);
+        }
+        if (this.accessTimeout >= 0) {
+            builder.expireAfterAccess(this.accessTimeout, this.timeUnit);
+        }
+        if (this.refreshTimeout >= 0) {
+            builder.refreshAfterWrite(this.refreshTimeout, this.timeUnit);
+        }
+        if (this.executor != null) {
+            builder.executor(this.executor);
+        }
+        if (this.statsCounterSupplier != null) {
+            builder.recordStats(this.statsCounterSupplier);
+        } else if (this.recordStats) {
+            builder.recordStats();
+        }
+
+        if (this.expiry != null) {
+            this.cache = build(builder.expireAfter(this.expiry));
+        } else {
+            this.cache = build(builder);
+        }
+    }
+
+    private Cache<K, O> build(final Caffeine<? super K, ? super O> builder) {
+        if (this.loader != null) {
+            return builder.build(this.loader);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Return a snapshot of the statistics of the cache (empty if they are not recorded).
+     *
+     * @return the statistics
+     */
+    public CacheStats getStats() {
+        init();
+
+        return cache.stats();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Optional<O> internalGet(final K key) {
+        if (cache instanceof LoadingCache<K, O> loadingCache) {
+            return Optional.ofNullable(loadingCache.get(key));
+        }
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void internalSet(final K key, final O value) {
+        cache.put(key, value);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void internalRemove(final K key) {
+        cache.invalidate(key);
+    }
+}
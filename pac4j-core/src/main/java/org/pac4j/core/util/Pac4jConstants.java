@@ -16,6 +16,10 @@ public interface Pac4jConstants {
     /** Constant <code>USER_PROFILES="pac4jUserProfiles"</code> */
     String USER_PROFILES = "pac4jUserProfiles";
 
+    /* User profiles resolved for the current request */
+    /** Constant <code>RESOLVED_USER_PROFILES="pac4jResolvedUserProfiles"</code> */
+    String RESOLVED_USER_PROFILES = "pac4jResolvedUserProfiles";
+
     /* CSRF token name saved in session */
     /** Constant <code>PREVIOUS_CSRF_TOKEN="pac4jPreviousCsrfToken"</code> */
     String PREVIOUS_CSRF_TOKEN = "pac4jPreviousCsrfToken";
@@ -0,0 +1,823 @@
+package org.pac4j.core.util.serializer;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.AnonymousProfile;
+import org.pac4j.core.profile.BasicUserProfile;
+import org.pac4j.core.profile.Color;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.Gender;
+import org.pac4j.core.util.CommonHelper;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * <p>A compact binary serializer, mainly designed for user profiles (and maps or lists of user profiles)
+ * saved in distributed sessions or cookies.</p>
+ *
+ * <p>The format is versioned: a magic byte, the format version and flags (compression) are followed
+ * by the tagged values. The common types (strings, numbers, booleans, dates, URIs, locales, colors, bytes arrays,
+ * lists, sets and maps) are natively encoded. The user profiles are encoded field by field, their types and the enums
+ * are encoded by their index in a type table, and the attribute names, roles and client names are dictionary-encoded
+ * (against a static dictionary of well-known names and the names already written in the payload).
+ * Any other value is delegated to the {@link #javaSerializer}.</p>
+ *
+ * <p>The additional types must be registered via {@link #registerType(Class)} in the same order
+ * by the serializing and deserializing sides. Unregistered user profile types are written by class name
+ * and only read back if they are trusted by the {@link #javaSerializer}. The user profiles whose state is not
+ * fully held by the {@link BasicUserProfile} fields (own fields, custom externalization, no public no-arg constructor)
+ * are delegated to the {@link #javaSerializer}.</p>
+ *
+ * <p>The nesting of the lists, sets, maps and user profiles is limited to {@link #maxDepth} levels,
+ * so that a crafted payload cannot exhaust the stack.</p>
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+@ToString
+@Slf4j
+public class BinarySerializer extends AbstractSerializer {
+
+    /** The current format version. */
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0xB7;
+
+    private static final int FLAG_COMPRESSED = 1;
+
+    private static final int HEADER_SIZE = 3;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_TRUE = 1;
+    private static final int TAG_FALSE = 2;
+    private static final int TAG_STRING = 3;
+    private static final int TAG_INTEGER = 4;
+    private static final int TAG_LONG = 5;
+    private static final int TAG_DOUBLE = 6;
+    private static final int TAG_DATE = 7;
+    private static final int TAG_URI = 8;
+    private static final int TAG_LOCALE = 9;
+    private static final int TAG_COLOR = 10;
+    private static final int TAG_BYTES = 11;
+    private static final int TAG_LIST = 12;
+    private static final int TAG_SET = 13;
+    private static final int TAG_MAP = 14;
+    private static final int TAG_PROFILE = 15;
+    private static final int TAG_ENUM = 16;
+    private static final int TAG_JAVA = 17;
+
+    private static final int PROFILE_REMEMBERED = 1;
+    private static final int PROFILE_NOT_MERGEABLE = 2;
+
+    private static final int NAME_NULL = 0;
+    private static final int NAME_LITERAL = 1;
+    private static final int NAME_REFERENCE = 2;
+
+    /** The well-known names of the format version 1: append only, never reorder. */
+    private static final List<String> DICTIONARY = List.of(
+        // common profile
+        "email", "first_name", "family_name", "display_name", "gender", "locale", "picture_url", "profile_url", "location",
+        "username", "password", "sid", "clientName",
+        // JWT / OpenID Connect
+        "sub", "iss", "aud", "exp", "iat", "nbf", "jti", "name", "given_name", "middle_name", "nickname",
+        "preferred_username", "profile", "picture", "website", "email_verified", "birthdate", "zoneinfo", "phone_number",
+        "phone_number_verified", "address", "updated_at", "access_token", "id_token", "refresh_token", "auth_time",
+        "nonce", "acr", "amr", "azp", "token_expiration_advance", "expiration", "$int_roles", "$int_linkid",
+        // CAS
+        "isFromNewLogin", "authenticationDate", "longTermAuthenticationRequestTokenUsed", "successfulAuthenticationHandlers",
+        "credentialType", "authenticationMethod", "$tgt_key",
+        // SAML
+        "notBefore", "notOnOrAfter", "sessionindex", "issuerId", "authnContext", "authnContextAuthorities",
+        "samlNameIdFormat", "samlNameIdNameQualifier", "samlNameIdSpNameQualifier", "samlNameIdSpProviderId",
+        "samlInResponseTo");
+
+    private static final Map<String, Integer> DICTIONARY_INDEX = new HashMap<>();
+
+    static {
+        for (var i = 0; i < DICTIONARY.size(); i++) {
+            DICTIONARY_INDEX.put(DICTIONARY.get(i), i);
+        }
+    }
+
+    private volatile TypeTable typeTable = new TypeTable(List.of(), Map.of());
+
+    @ToString.Exclude
+    private final Map<String, Class<?>> resolvedClasses = new ConcurrentHashMap<>();
+
+    @ToString.Exclude
+    private final Map<Class<?>, ProfileLayout> profileLayouts = new ConcurrentHashMap<>();
+
+    @Getter
+    @Setter
+    private JavaSerializer javaSerializer = new JavaSerializer();
+
+    @Getter
+    @Setter
+    private boolean compression = true;
+
+    @Getter
+    @Setter
+    private int compressionThreshold = 512;
+
+    @Getter
+    @Setter
+    private int maxSize = 1024 * 1024;
+
+    @Getter
+    @Setter
+    private int maxDepth = 64;
+
+    /**
+     * <p>Constructor for BinarySerializer.</p>
+     */
+    public BinarySerializer() {
+        registerType(BasicUserProfile.class);
+        registerType(CommonProfile.class);
+        registerType(AnonymousProfile.class);
+        registerType(Gender.class);
+    }
+
+    /**
+     * Register a user profile or an enum type in the type table. The type table is replaced as a whole,
+     * so a registration does not disturb the concurrent (de)serializations.
+     *
+     * @param type the type
+     */
+    public synchronized void registerType(final Class<?> type) {
+        CommonHelper.assertNotNull("type", type);
+        CommonHelper.assertTrue(BasicUserProfile.class.isAssignableFrom(type) || type.isEnum(),
+            "type must be a user profile or an enum");
+        val table = typeTable;
+        if (!table.index().containsKey(type)) {
+            final List<Class<?>> types = new ArrayList<>(table.types());
+            final Map<Class<?>, Integer> index = new HashMap<>(table.index());
+            index.put(type, types.size());
+            types.add(type);
+            typeTable = new TypeTable(List.copyOf(types), Map.copyOf(index));
+        }
+    }
+
+    /**
+     * Return the registered types, in their registration order.
+     *
+     * @return the registered types
+     */
+    public List<Class<?>> getTypes() {
+        return typeTable.types();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Serialize an object into a bytes array.
+     */
+    @Override
+    protected byte[] internalSerializeToBytes(final Object obj) {
+        try {
+            val out = new Output();
+            out.write(MAGIC);
+            out.write(VERSION);
+            out.write(0);
+            writeValue(out, obj);
+            var bytes = out.toByteArray();
+            if (compression && bytes.length - HEADER_SIZE >= compressionThreshold) {
+                bytes = compress(bytes);
+            }
+            return bytes;
+        } catch (final RuntimeException e) {
+            LOGGER.warn("cannot binary serialize object", e);
+            return null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Deserialize a bytes array into an object.
+     */
+    @Override
+    protected Object internalDeserializeFromBytes(final byte[] bytes) {
+        try {
+            if (bytes.length < HEADER_SIZE || (bytes[0] & 0xFF) != MAGIC) {
+                throw new TechnicalException("Not a binary serialized object");
+            }
+            val version = bytes[1] & 0xFF;
+            if (version != VERSION) {
+                throw new TechnicalException("Unsupported format version: " + version);
+            }
+            var body = bytes;
+            var offset = HEADER_SIZE;
+            if ((bytes[2] & FLAG_COMPRESSED) != 0) {
+                body = decompress(bytes);
+                offset = 0;
+            }
+            val in = new Input(body, offset);
+            val value = readValue(in);
+            if (in.position != body.length) {
+                throw new TechnicalException("Unexpected trailing data");
+            }
+            return value;
+        } catch (final RuntimeException e) {
+            LOGGER.warn("cannot binary deserialize object", e);
+            return null;
+        }
+    }
+
+    private byte[] compress(final byte[] bytes) {
+        val deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+            deflater.finish();
+            val out = new ByteArrayOutputStream(bytes.length);
+            out.write(MAGIC);
+            out.write(VERSION);
+            out.write(FLAG_COMPRESSED);
+            val buffer = new byte[1024];
+            while (!deflater.finished()) {
+                val n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            // only keep the compressed form if it is actually smaller
+            return out.size() < bytes.length ? out.toByteArray() : bytes;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] decompress(final byte[] bytes) {
+        val inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+            val out = new ByteArrayOutputStream(bytes.length * 2);
+            val buffer = new byte[1024];
+            while (!inflater.finished()) {
+                val n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new TechnicalException("Truncated compressed data");
+                }
+                out.write(buffer, 0, n);
+                if (out.size() > maxSize) {
+                    throw new TechnicalException("Decompressed data exceeds the maximum size: " + maxSize);
+                }
+            }
+            return out.toByteArray();
+        } catch (final DataFormatException e) {
+            throw new TechnicalException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeValue(final Output out, final Object value) {
+        if (value == null) {
+            out.write(TAG_NULL);
+        } else if (value instanceof String s) {
+            out.write(TAG_STRING);
+            out.writeString(s);
+        } else if (value instanceof Boolean b) {
+            out.write(b ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Integer i) {
+            out.write(TAG_INTEGER);
+            out.writeVarLong(i);
+        } else if (value instanceof Long l) {
+            out.write(TAG_LONG);
+            out.writeVarLong(l);
+        } else if (value instanceof Double d) {
+            out.write(TAG_DOUBLE);
+            out.writeFixedLong(Double.doubleToLongBits(d));
+        } else if (value.getClass() == Date.class) {
+            out.write(TAG_DATE);
+            out.writeVarLong(((Date) value).getTime());
+        } else if (value instanceof URI uri) {
+            out.write(TAG_URI);
+            out.writeString(uri.toString());
+        } else if (value instanceof Locale locale) {
+            out.write(TAG_LOCALE);
+            out.writeName(locale.toLanguageTag());
+        } else if (value instanceof Color color) {
+            out.write(TAG_COLOR);
+            out.write(color.getRed());
+            out.write(color.getGreen());
+            out.write(color.getBlue());
+        } else if (value instanceof byte[] bytes) {
+            out.write(TAG_BYTES);
+            out.writeByteArray(bytes);
+        } else if (value instanceof BasicUserProfile profile && isWritableProfile(profile)) {
+            out.write(TAG_PROFILE);
+            out.enter(maxDepth);
+            writeProfile(out, profile);
+            out.leave();
+        } else if (value instanceof Enum<?> e && typeTable.index().containsKey(e.getDeclaringClass())) {
+            out.write(TAG_ENUM);
+            out.writeVarInt(typeTable.index().get(e.getDeclaringClass()));
+            out.writeName(e.name());
+        } else if (value instanceof List<?> list && isStandardCollection(list)) {
+            out.write(TAG_LIST);
+            out.enter(maxDepth);
+            out.writeVarInt(list.size());
+            for (val element : list) {
+                writeValue(out, element);
+            }
+            out.leave();
+        } else if (value instanceof Set<?> set && isStandardCollection(set)) {
+            out.write(TAG_SET);
+            out.enter(maxDepth);
+            out.writeVarInt(set.size());
+            for (val element : set) {
+                writeValue(out, element);
+            }
+            out.leave();
+        } else if (value instanceof Map<?, ?> map && isStandardCollection(map) && hasStringKeys(map)) {
+            out.write(TAG_MAP);
+            out.enter(maxDepth);
+            writeMap(out, (Map<String, ?>) map);
+            out.leave();
+        } else {
+            val bytes = javaSerializer.serializeToBytes(value);
+            if (bytes == null) {
+                throw new TechnicalException("Cannot serialize value of type: " + value.getClass().getName());
+            }
+            out.write(TAG_JAVA);
+            out.writeByteArray(bytes);
+        }
+    }
+
+    private void writeProfile(final Output out, final BasicUserProfile profile) {
+        val index = typeTable.index().get(profile.getClass());
+        if (index != null) {
+            out.writeVarInt(index + 1);
+        } else {
+            out.writeVarInt(0);
+            out.writeName(profile.getClass().getName());
+        }
+        out.writeName(profile.getId());
+        out.writeName(profile.getClientName());
+        out.writeName(profile.getLinkedId());
+        out.write((profile.isRemembered() ? PROFILE_REMEMBERED : 0)
+            | (profile.isCanAttributesBeMerged() ? 0 : PROFILE_NOT_MERGEABLE));
+        val roles = profile.getRoles();
+        out.writeVarInt(roles.size());
+        for (val role : roles) {
+            out.writeName(role);
+        }
+        writeMap(out, profile.getAttributes());
+        writeMap(out, profile.getAuthenticationAttributes());
+    }
+
+    private void writeMap(final Output out, final Map<String, ?> map) {
+        out.writeVarInt(map.size());
+        for (val entry : map.entrySet()) {
+            out.writeName(entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    private boolean isWritableProfile(final BasicUserProfile profile) {
+        val layout = profileLayouts.computeIfAbsent(profile.getClass(), BinarySerializer::computeProfileLayout);
+        // the merge behavior must be restorable: by the public boolean constructor or by default
+        return layout.writable() && (layout.mergeableConstructor() != null
+            || profile.isCanAttributesBeMerged() == layout.mergeableByDefault());
+    }
+
+    private static ProfileLayout computeProfileLayout(final Class<?> type) {
+        // the profile must be rebuilt on the other side: it needs a public no-arg constructor
+        final BasicUserProfile defaultProfile;
+        try {
+            val constructor = type.getConstructor();
+            if (!Modifier.isPublic(constructor.getModifiers()) || Modifier.isAbstract(type.getModifiers())) {
+                return ProfileLayout.NOT_WRITABLE;
+            }
+            defaultProfile = (BasicUserProfile) constructor.newInstance();
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            return ProfileLayout.NOT_WRITABLE;
+        }
+        // its whole state must be held by the BasicUserProfile fields
+        for (Class<?> clazz = type; clazz != BasicUserProfile.class; clazz = clazz.getSuperclass()) {
+            for (val field : clazz.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
+                    LOGGER.debug("Profile type: {} has its own field: {}, it will be Java serialized", type.getName(), field.getName());
+                    return ProfileLayout.NOT_WRITABLE;
+                }
+            }
+            for (val method : clazz.getDeclaredMethods()) {
+                if (method.getName().equals("writeExternal") || method.getName().equals("readExternal")) {
+                    LOGGER.debug("Profile type: {} is custom externalized, it will be Java serialized", type.getName());
+                    return ProfileLayout.NOT_WRITABLE;
+                }
+            }
+        }
+        Constructor<?> mergeableConstructor;
+        try {
+            mergeableConstructor = type.getConstructor(boolean.class);
+        } catch (final NoSuchMethodException e) {
+            mergeableConstructor = null;
+        }
+        return new ProfileLayout(true, defaultProfile.isCanAttributesBeMerged(), mergeableConstructor);
+    }
+
+    private static boolean isStandardCollection(final Object collection) {
+        // the other collections (sorted, immutable with specific semantics...) are delegated to Java serialization
+        val clazz = collection.getClass();
+        return clazz == ArrayList.class || clazz == LinkedList.class || clazz == HashSet.class || clazz == LinkedHashSet.class
+            || clazz == HashMap.class || clazz == LinkedHashMap.class || clazz.getName().startsWith("java.util.ImmutableCollections$")
+            || clazz.getName().startsWith("java.util.Collections$Unmodifiable");
+    }
+
+    private static boolean hasStringKeys(final Map<?, ?> map) {
+        for (val key : map.keySet()) {
+            if (!(key instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Object readValue(final Input in) {
+        val tag = in.read();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_STRING:
+                return in.readString();
+            case TAG_INTEGER:
+                return (int) in.readVarLong();
+            case TAG_LONG:
+                return in.readVarLong();
+            case TAG_DOUBLE:
+                return Double.longBitsToDouble(in.readFixedLong());
+            case TAG_DATE:
+                return new Date(in.readVarLong());
+            case TAG_URI:
+                return URI.create(in.readString());
+            case TAG_LOCALE:
+                return Locale.forLanguageTag(in.readName());
+            case TAG_COLOR:
+                return new Color(in.read(), in.read(), in.read());
+            case TAG_BYTES:
+                return in.readByteArray();
+            case TAG_LIST: {
+                in.enter(maxDepth);
+                val size = in.readSize();
+                final List<Object> list = new ArrayList<>(size);
+                for (var i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                in.leave();
+                return list;
+            }
+            case TAG_SET: {
+                in.enter(maxDepth);
+                val size = in.readSize();
+                final Set<Object> set = new LinkedHashSet<>();
+                for (var i = 0; i < size; i++) {
+                    set.add(readValue(in));
+                }
+                in.leave();
+                return set;
+            }
+            case TAG_MAP: {
+                in.enter(maxDepth);
+                val size = in.readSize();
+                final Map<String, Object> map = new LinkedHashMap<>();
+                for (var i = 0; i < size; i++) {
+                    map.put(in.readName(), readValue(in));
+                }
+                in.leave();
+                return map;
+            }
+            case TAG_PROFILE: {
+                in.enter(maxDepth);
+                val profile = readProfile(in);
+                in.leave();
+                return profile;
+            }
+            case TAG_ENUM:
+                return readEnum(in);
+            case TAG_JAVA: {
+                val value = javaSerializer.deserializeFromBytes(in.readByteArray());
+                if (value == null) {
+                    throw new TechnicalException("Cannot deserialize Java value");
+                }
+                return value;
+            }
+            default:
+                throw new TechnicalException("Unknown tag: " + tag);
+        }
+    }
+
+    private BasicUserProfile readProfile(final Input in) {
+        val typeCode = in.readVarInt();
+        final Class<?> type;
+        if (typeCode == 0) {
+            type = resolveProfileClass(in.readName());
+        } else {
+            type = getType(typeCode - 1);
+        }
+        val id = in.readName();
+        val clientName = in.readName();
+        val linkedId = in.readName();
+        val flags = in.read();
+        val mergeable = (flags & PROFILE_NOT_MERGEABLE) == 0;
+        final BasicUserProfile profile;
+        try {
+            val layout = profileLayouts.computeIfAbsent(type, BinarySerializer::computeProfileLayout);
+            if (layout.mergeableConstructor() != null && mergeable != layout.mergeableByDefault()) {
+                profile = (BasicUserProfile) layout.mergeableConstructor().newInstance(mergeable);
+            } else {
+                profile = (BasicUserProfile) type.getConstructor().newInstance();
+            }
+        } catch (final ReflectiveOperationException | ClassCastException e) {
+            throw new TechnicalException(e);
+        }
+        if (id != null) {
+            profile.setId(id);
+        }
+        profile.setClientName(clientName);
+        profile.setLinkedId(linkedId);
+        profile.setRemembered((flags & PROFILE_REMEMBERED) != 0);
+        val nbRoles = in.readSize();
+        for (var i = 0; i < nbRoles; i++) {
+            profile.addRole(in.readName());
+        }
+        val nbAttributes = in.readSize();
+        for (var i = 0; i < nbAttributes; i++) {
+            profile.addAttribute(in.readName(), readValue(in));
+        }
+        val nbAuthenticationAttributes = in.readSize();
+        for (var i = 0; i < nbAuthenticationAttributes; i++) {
+            profile.addAuthenticationAttribute(in.readName(), readValue(in));
+        }
+        return profile;
+    }
+
+    private Object readEnum(final Input in) {
+        val type = getType(in.readVarInt());
+        val name = in.readName();
+        for (val constant : type.getEnumConstants()) {
+            if (((Enum<?>) constant).name().equals(name)) {
+                return constant;
+            }
+        }
+        throw new TechnicalException("Unknown constant: " + name + " for enum: " + type.getName());
+    }
+
+    private Class<?> getType(final int index) {
+        val types = typeTable.types();
+        if (index < 0 || index >= types.size()) {
+            throw new TechnicalException("Unknown type index: " + index);
+        }
+        return types.get(index);
+    }
+
+    private Class<?> resolveProfileClass(final String className) {
+        CommonHelper.assertNotBlank("className", className);
+        var clazz = resolvedClasses.get(className);
+        if (clazz == null) {
+            val trusted = javaSerializer.getTrustedClasses().stream().anyMatch(c -> c.getName().equals(className))
+                || javaSerializer.getTrustedPackages().stream().anyMatch(className::startsWith);
+            if (!trusted) {
+                throw new TechnicalException("Wont resolve untrusted class: " + className);
+            }
+            try {
+                var classLoader = Thread.currentThread().getContextClassLoader();
+                if (classLoader == null) {
+                    classLoader = BinarySerializer.class.getClassLoader();
+                }
+                clazz = Class.forName(className, false, classLoader);
+            } catch (final ClassNotFoundException e) {
+                throw new TechnicalException(e);
+            }
+            if (!BasicUserProfile.class.isAssignableFrom(clazz)) {
+                throw new TechnicalException("Not a user profile class: " + className);
+            }
+            resolvedClasses.put(className, clazz);
+        }
+        return clazz;
+    }
+
+    /**
+     * The registered types, by index and by type.
+     *
+     * @param types the types, in their registration order
+     * @param index the index of each type
+     */
+    private record TypeTable(List<Class<?>> types, Map<Class<?>, Integer> index) {}
+
+    /**
+     * How a user profile type can be natively written.
+     *
+     * @param writable whether the profile type can be natively written
+     * @param mergeableByDefault whether the attributes of a profile created by the no-arg constructor can be merged
+     * @param mergeableConstructor the public boolean constructor setting whether the attributes can be merged, if any
+     */
+    private record ProfileLayout(boolean writable, boolean mergeableByDefault, Constructor<?> mergeableConstructor) {
+
+        private static final ProfileLayout NOT_WRITABLE = new ProfileLayout(false, true, null);
+    }
+
+    /**
+     * The output buffer, with its table of the already written names.
+     */
+    private static final class Output extends ByteArrayOutputStream {
+
+        private final Map<String, Integer> names = new HashMap<>();
+
+        private int depth;
+
+        private Output() {
+            super(256);
+        }
+
+        private void enter(final int maxDepth) {
+            if (++depth > maxDepth) {
+                throw new TechnicalException("Maximum nesting depth exceeded: " + maxDepth);
+            }
+        }
+
+        private void leave() {
+            depth--;
+        }
+
+        private void writeVarInt(final int value) {
+            var v = value;
+            while ((v & ~0x7F) != 0) {
+                write((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            write(v);
+        }
+
+        private void writeVarLong(final long value) {
+            // zigzag encoding so that small negative values stay small
+            var v = (value << 1) ^ (value >> 63);
+            while ((v & ~0x7FL) != 0) {
+                write((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            write((int) v);
+        }
+
+        private void writeFixedLong(final long value) {
+            for (var shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+        }
+
+        private void writeByteArray(final byte[] bytes) {
+            writeVarInt(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+
+        private void writeString(final String s) {
+            writeByteArray(s.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void writeName(final String name) {
+            if (name == null) {
+                writeVarInt(NAME_NULL);
+                return;
+            }
+            var index = DICTIONARY_INDEX.get(name);
+            if (index == null) {
+                index = names.get(name);
+                if (index != null) {
+                    index += DICTIONARY.size();
+                }
+            }
+            if (index != null) {
+                writeVarInt(NAME_REFERENCE + index);
+            } else {
+                names.put(name, names.size());
+                writeVarInt(NAME_LITERAL);
+                writeString(name);
+            }
+        }
+    }
+
+    /**
+     * The input buffer, with its table of the already read names.
+     */
+    private static final class Input {
+
+        private final byte[] bytes;
+
+        private final List<String> names = new ArrayList<>();
+
+        private int position;
+
+        private int depth;
+
+        private Input(final byte[] bytes, final int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        private void enter(final int maxDepth) {
+            if (++depth > maxDepth) {
+                throw new TechnicalException("Maximum nesting depth exceeded: " + maxDepth);
+            }
+        }
+
+        private void leave() {
+            depth--;
+        }
+
+        private int read() {
+            if (position >= bytes.length) {
+                throw new TechnicalException("Unexpected end of data");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        private int readVarInt() {
+            var result = 0;
+            for (var shift = 0; shift < 32; shift += 7) {
+                val b = read();
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new TechnicalException("Malformed variable length integer");
+        }
+
+        private long readVarLong() {
+            var result = 0L;
+            for (var shift = 0; shift < 64; shift += 7) {
+                val b = read();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return (result >>> 1) ^ -(result & 1);
+                }
+            }
+            throw new TechnicalException("Malformed variable length long");
+        }
+
+        private long readFixedLong() {
+            var result = 0L;
+            for (var i = 0; i < 8; i++) {
+                result = (result << 8) | read();
+            }
+            return result;
+        }
+
+        private int readSize() {
+            val size = readVarInt();
+            // each element takes at least one byte
+            if (size < 0 || size > bytes.length - position) {
+                throw new TechnicalException("Invalid size: " + size);
+            }
+            return size;
+        }
+
+        private byte[] readByteArray() {
+            val length = readSize();
+            val result = Arrays.copyOfRange(bytes, position, position + length);
+            position += length;
+            return result;
+        }
+
+        private String readString() {
+            val length = readSize();
+            val result = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return result;
+        }
+
+        private String readName() {
+            val code = readVarInt();
+            if (code == NAME_NULL) {
+                return null;
+            } else if (code == NAME_LITERAL) {
+                val name = readString();
+                names.add(name);
+                return name;
+            }
+            val index = code - NAME_REFERENCE;
+            if (index < DICTIONARY.size()) {
+                return DICTIONARY.get(index);
+            } else if (index - DICTIONARY.size() < names.size()) {
+                return names.get(index - DICTIONARY.size());
+            }
+            throw new TechnicalException("Unknown name reference: " + index);
+        }
+    }
+}
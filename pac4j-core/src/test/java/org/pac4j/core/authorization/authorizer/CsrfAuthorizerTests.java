@@ -10,10 +10,12 @@ import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.MockSessionStore;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.matching.matcher.csrf.DefaultCsrfTokenGenerator;
+import org.pac4j.core.matching.matcher.csrf.HmacCsrfTokenGenerator;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.util.TestsConstants;
 
 import java.util.Date;
+import java.util.HashMap;
 
 /**
  * Tests {@link CsrfAuthorizer}.
@@ -137,6 +139,24 @@ public final class CsrfAuthorizerTests implements TestsConstants {
         Assert.assertFalse(authorizer.isAuthorized(context, sessionStore, null));
     }
 
+    @Test
+    public void testHmacToken() {
+        val generator = new HmacCsrfTokenGenerator(SECRET);
+        val store = new HashMap<String, Object>();
+        final SessionStore sessionStore = new MockSessionStore(store);
+        val token = generator.get(MockWebContext.create(), sessionStore);
+        authorizer = new CsrfAuthorizer(generator);
+        authorizer.setCheckAllRequests(true);
+
+        Assert.assertTrue(authorizer.isAuthorized(MockWebContext.create().addRequestHeader(Pac4jConstants.CSRF_TOKEN, token),
+            sessionStore, null));
+        Assert.assertTrue(authorizer.isAuthorized(MockWebContext.create().addRequestParameter(Pac4jConstants.CSRF_TOKEN, token),
+            sessionStore, null));
+        Assert.assertFalse(authorizer.isAuthorized(MockWebContext.create().addRequestParameter(Pac4jConstants.CSRF_TOKEN, VALUE),
+            sessionStore, null));
+        Assert.assertTrue(store.isEmpty());
+    }
+
     @Test
     public void testHeaderOkButNoTokenInSession() {
         final WebContext context = MockWebContext.create().addRequestHeader(Pac4jConstants.CSRF_TOKEN, VALUE);
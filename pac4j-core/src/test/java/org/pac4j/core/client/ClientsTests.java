@@ -193,6 +193,39 @@ public final class ClientsTests implements TestsConstants {
         assertTrue(fclient.getCallbackUrlResolver() instanceof NoParameterCallbackUrlResolver);
     }
 
+    @Test
+    public void testFindAfterClientsChange() {
+        val facebookClient = newFacebookClient();
+        val yahooClient = newYahooClient();
+        val clients = new Clients(CALLBACK_URL, facebookClient);
+        assertTrue(clients.findClient("FacebookClient").isPresent());
+        assertFalse(clients.findClient("YahooClient").isPresent());
+        clients.addClient(yahooClient);
+        assertEquals(yahooClient, clients.findClient("YahooClient").get());
+        clients.getClients().remove(facebookClient);
+        assertFalse(clients.findClient("FacebookClient").isPresent());
+        clients.getClients().set(0, facebookClient);
+        assertEquals(facebookClient, clients.findClient("FacebookClient").get());
+        assertFalse(clients.findClient("YahooClient").isPresent());
+    }
+
+    @Test
+    public void testFindWhileClientsChange() throws Exception {
+        val facebookClient = newFacebookClient();
+        val clients = new Clients(CALLBACK_URL, facebookClient);
+        val writer = new Thread(() -> {
+            for (var i = 0; i < 2000; i++) {
+                clients.addClient(new MockIndirectClient(NAME + i, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile()));
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            assertEquals(facebookClient, clients.findClient("FacebookClient").get());
+        }
+        writer.join();
+        assertTrue(clients.findClient(NAME + 1999).isPresent());
+    }
+
     @Test
     @Ignore
     public void testPerfFind() {
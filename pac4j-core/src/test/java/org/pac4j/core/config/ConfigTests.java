@@ -13,10 +13,12 @@ import org.pac4j.core.matching.matcher.Matcher;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.util.TestsConstants;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests the {@link Config}.
@@ -68,4 +70,21 @@ public final class ConfigTests implements TestsConstants {
         assertEquals(1, config.getMatchers().size());
         assertEquals(matcher, config.getMatchers().get(NAME));
     }
+
+    @Test
+    public void testGenerationOfTheWrappedMaps() {
+        final Map<String, Authorizer> authorizers = new HashMap<>();
+        val config = new Config().setAuthorizers(authorizers);
+        var generation = config.getGeneration();
+        config.getAuthorizers().put(NAME, new RequireAnyRoleAuthorizer());
+        assertEquals(generation + 1, config.getGeneration());
+        assertEquals(1, authorizers.size());
+
+        val other = config.withMatchers(new HashMap<>());
+        generation = other.getGeneration();
+        other.getAuthorizers().remove(NAME);
+        other.getMatchers().put(NAME, new CacheControlMatcher());
+        assertEquals(generation + 2, other.getGeneration());
+        assertTrue(authorizers.isEmpty());
+    }
 }
@@ -0,0 +1,130 @@
+package org.pac4j.core.context.session;
+
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link BufferedSessionStore}.
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+public final class BufferedSessionStoreTests implements TestsConstants {
+
+    private Map<String, Object> store;
+
+    private List<Map<String, Object>> batches;
+
+    private BufferedSessionStore sessionStore;
+
+    @Before
+    public void setUp() {
+        store = new HashMap<>();
+        batches = new ArrayList<>();
+        val underlyingStore = new MockSessionStore(store) {
+            @Override
+            public void setAll(final WebContext context, final Map<String, Object> values) {
+                batches.add(new HashMap<>(values));
+                super.setAll(context, values);
+            }
+        };
+        underlyingStore.setPrefix("app.");
+        sessionStore = new BufferedSessionStore(underlyingStore);
+    }
+
+    @Test
+    public void testWritesAreBufferedUntilFlush() {
+        val context = MockWebContext.create();
+        sessionStore.set(context, KEY, VALUE);
+        assertEquals(VALUE, sessionStore.get(context, KEY).get());
+        assertTrue(sessionStore.getSessionId(context, false).isPresent());
+        assertTrue(store.isEmpty());
+
+        sessionStore.flush(context);
+        assertEquals(VALUE, store.get("app." + KEY));
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    public void testOnlyChangedKeysAreFlushedInOneBatch() {
+        store.put("app." + KEY, VALUE);
+        store.put("app." + NAME, VALUE);
+        val context = MockWebContext.create();
+        assertEquals(VALUE, sessionStore.get(context, KEY).get());
+        assertEquals(VALUE, sessionStore.get(context, NAME).get());
+
+        sessionStore.set(context, KEY, String.valueOf(VALUE.toCharArray()));
+        sessionStore.set(context, NAME, null);
+        sessionStore.set(context, MY_CLIENT_NAME, ID);
+        sessionStore.flush(context);
+
+        assertEquals(1, batches.size());
+        val batch = batches.get(0);
+        assertEquals(2, batch.size());
+        assertNull(batch.get(NAME));
+        assertEquals(ID, batch.get(MY_CLIENT_NAME));
+        assertNull(store.get("app." + NAME));
+        assertEquals(ID, store.get("app." + MY_CLIENT_NAME));
+
+        sessionStore.flush(context);
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    public void testSameInstanceIsFlushed() {
+        val profiles = new HashMap<String, Object>();
+        store.put("app." + KEY, profiles);
+        val context = MockWebContext.create();
+        val loaded = (Map<String, Object>) sessionStore.get(context, KEY).get();
+        loaded.put(NAME, VALUE);
+        sessionStore.set(context, KEY, loaded);
+        sessionStore.flush(context);
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    public void testNothingToFlush() {
+        store.put("app." + KEY, VALUE);
+        val context = MockWebContext.create();
+        sessionStore.get(context, KEY);
+        sessionStore.set(context, KEY, String.valueOf(VALUE.toCharArray()));
+        sessionStore.flush(context);
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    public void testWritesAfterFlushAndWriteThrough() {
+        val context = MockWebContext.create();
+        sessionStore.set(context, KEY, VALUE);
+        sessionStore.flushAndWriteThrough(context);
+        assertEquals(VALUE, store.get("app." + KEY));
+
+        sessionStore.set(context, NAME, VALUE);
+        assertEquals(VALUE, store.get("app." + NAME));
+        assertEquals(VALUE, sessionStore.get(context, NAME).get());
+        sessionStore.destroySession(context);
+        sessionStore.set(context, KEY, ID);
+        assertEquals(ID, store.get("app." + KEY));
+    }
+
+    @Test
+    public void testDestroySessionDropsTheWrites() {
+        val context = MockWebContext.create();
+        sessionStore.set(context, KEY, VALUE);
+        sessionStore.destroySession(context);
+        assertFalse(sessionStore.get(context, KEY).isPresent());
+        sessionStore.flush(context);
+        assertTrue(batches.isEmpty());
+    }
+}
@@ -0,0 +1,172 @@
+package org.pac4j.core.context.session;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.context.Cookie;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link CookieSessionStore}.
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+public final class CookieSessionStoreTests implements TestsConstants {
+
+    private static final String OTHER_SECRET = "otherSecret";
+
+    private static MockWebContext nextRequest(final MockWebContext context) {
+        val next = MockWebContext.create();
+        next.getRequestCookies().addAll(context.getRequestCookies());
+        for (val cookie : context.getResponseCookies()) {
+            next.getRequestCookies().removeIf(c -> c.getName().equals(cookie.getName()));
+            if (cookie.getMaxAge() != 0) {
+                next.getRequestCookies().add(cookie);
+            }
+        }
+        return next;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        val store = new CookieSessionStore(SECRET);
+        val context = MockWebContext.create();
+        assertFalse(store.getSessionId(context, false).isPresent());
+
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        profile.addAttribute(NAME, VALUE);
+        val profiles = new LinkedHashMap<String, Object>();
+        profiles.put(MY_CLIENT_NAME, profile);
+        store.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        store.set(context, KEY, VALUE);
+        val sessionId = store.getSessionId(context, false).get();
+
+        val next = nextRequest(context);
+        val otherStore = new CookieSessionStore(SECRET);
+        assertEquals(sessionId, otherStore.getSessionId(next, false).get());
+        assertEquals(VALUE, otherStore.get(next, KEY).get());
+        assertEquals(profiles, otherStore.get(next, Pac4jConstants.USER_PROFILES).get());
+        for (val cookie : next.getRequestCookies()) {
+            assertFalse(cookie.getValue().contains(VALUE));
+        }
+    }
+
+    @Test
+    public void testChunks() {
+        val store = new CookieSessionStore(SECRET);
+        store.setChunkSize(150);
+        val context = MockWebContext.create();
+        store.set(context, KEY, randomString(300));
+        val next = nextRequest(context);
+        assertTrue(next.getRequestCookies().size() > 2);
+
+        store.set(next, KEY, VALUE);
+        val last = nextRequest(next);
+        assertEquals(1, last.getRequestCookies().size());
+        assertEquals(VALUE, new CookieSessionStore(SECRET).get(last, KEY).get());
+    }
+
+    @Test
+    public void testBudget() {
+        val store = new CookieSessionStore(SECRET);
+        store.setChunkSize(100);
+        store.setMaxChunks(2);
+        try {
+            store.set(MockWebContext.create(), KEY, randomString(1000));
+            fail("should fail");
+        } catch (final TechnicalException e) {
+            assertTrue(e.getMessage().contains("exceeds the cookie budget of 2 cookies of 100 characters"));
+        }
+    }
+
+    @Test
+    public void testKeyRotation() {
+        val context = MockWebContext.create();
+        new CookieSessionStore(SECRET).set(context, KEY, VALUE);
+
+        val rotatedStore = new CookieSessionStore(List.of(OTHER_SECRET, SECRET));
+        val next = nextRequest(context);
+        assertEquals(VALUE, rotatedStore.get(next, KEY).get());
+        rotatedStore.set(next, NAME, VALUE);
+
+        val last = nextRequest(next);
+        assertEquals(VALUE, new CookieSessionStore(OTHER_SECRET).get(last, NAME).get());
+        assertFalse(new CookieSessionStore(SECRET).get(nextRequest(next), NAME).isPresent());
+    }
+
+    @Test
+    public void testTamperedCookie() {
+        val store = new CookieSessionStore(SECRET);
+        val context = MockWebContext.create();
+        store.set(context, KEY, VALUE);
+        val next = MockWebContext.create();
+        for (val cookie : context.getResponseCookies()) {
+            val value = cookie.getValue();
+            val tampered = value.substring(0, value.length() - 2) + (value.endsWith("AA") ? "BB" : "AA");
+            next.getRequestCookies().add(new Cookie(cookie.getName(), tampered));
+        }
+        assertFalse(store.get(next, KEY).isPresent());
+        assertFalse(store.getSessionId(next, false).isPresent());
+    }
+
+    @Test
+    public void testExpiredSession() {
+        val store = new CookieSessionStore(SECRET);
+        val now = Instant.parse("2024-01-01T00:00:00Z");
+        store.setClock(Clock.fixed(now, ZoneOffset.UTC));
+        val context = MockWebContext.create();
+        store.set(context, KEY, VALUE);
+
+        store.setClock(Clock.fixed(now.plusSeconds(store.getTtlInSeconds() - 1), ZoneOffset.UTC));
+        assertTrue(store.get(nextRequest(context), KEY).isPresent());
+        store.setClock(Clock.fixed(now.plusSeconds(store.getTtlInSeconds() + 1), ZoneOffset.UTC));
+        assertFalse(store.get(nextRequest(context), KEY).isPresent());
+    }
+
+    @Test
+    public void testDestroyAndRenewSession() {
+        val store = new CookieSessionStore(SECRET);
+        val context = MockWebContext.create();
+        store.set(context, KEY, VALUE);
+        val sessionId = store.getSessionId(context, false).get();
+
+        val next = nextRequest(context);
+        store.renewSession(next);
+        val renewed = nextRequest(next);
+        assertNotEquals(sessionId, store.getSessionId(renewed, false).get());
+        assertEquals(VALUE, store.get(renewed, KEY).get());
+
+        store.destroySession(renewed);
+        assertTrue(renewed.getResponseCookies().stream().allMatch(c -> c.getMaxAge() == 0));
+        assertTrue(nextRequest(renewed).getRequestCookies().isEmpty());
+    }
+
+    @Test
+    public void testMissingSecret() {
+        TestsHelper.expectException(() -> new CookieSessionStore(List.of("")), TechnicalException.class, "secret cannot be blank");
+    }
+
+    private static String randomString(final int length) {
+        val random = new Random(0);
+        val builder = new StringBuilder();
+        for (var i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(26)));
+        }
+        return builder.toString();
+    }
+}
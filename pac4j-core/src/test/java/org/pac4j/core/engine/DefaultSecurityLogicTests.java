@@ -4,10 +4,14 @@ import lombok.val;
 import org.junit.Before;
 import org.junit.Test;
 import org.pac4j.core.adapter.FrameworkAdapter;
+import org.pac4j.core.authorization.authorizer.Authorizer;
+import org.pac4j.core.authorization.authorizer.DefaultAuthorizers;
+import org.pac4j.core.matching.checker.DefaultMatchingChecker;
 import org.pac4j.core.client.*;
 import org.pac4j.core.config.Config;
 import org.pac4j.core.context.FrameworkParameters;
 import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.BufferedSessionStore;
 import org.pac4j.core.context.session.MockSessionStore;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.credentials.MockCredentials;
@@ -15,14 +19,17 @@ import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.exception.http.FoundAction;
 import org.pac4j.core.exception.http.HttpAction;
 import org.pac4j.core.exception.http.StatusAction;
+import org.pac4j.core.matching.matcher.DefaultMatchers;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
 
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
@@ -173,6 +180,27 @@ public final class DefaultSecurityLogicTests implements TestsConstants {
         assertEquals(1, nbCall);
     }
 
+    @Test
+    public void testBufferedSessionWritesOfTheGrantedRequest() {
+        val underlyingSessionStore = new MockSessionStore();
+        sessionStore = new BufferedSessionStore(underlyingSessionStore);
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        Map<String, CommonProfile> profiles = new LinkedHashMap<>();
+        profiles.put(NAME, profile);
+        underlyingSessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        securityGrantedAccessAdapter = (context, sessionStore, profs) -> {
+            sessionStore.set(context, KEY, VALUE);
+            nbCall++;
+            return null;
+        };
+        call();
+        assertEquals(1, nbCall);
+        assertEquals(VALUE, underlyingSessionStore.get(context, KEY).get());
+    }
+
     @Test
     public void testAlreadyAuthenticatedNotAuthorized() {
         val profile = new CommonProfile();
@@ -328,4 +356,143 @@ public final class DefaultSecurityLogicTests implements TestsConstants {
         call();
         assertEquals(401, action.getCode());
     }
+
+    @Test
+    public void testSecurityPlanReused() {
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        Map<String, CommonProfile> profiles = new LinkedHashMap<>();
+        profiles.put(NAME, profile);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), new CommonProfile());
+        authorizers = NAME;
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        config.addAuthorizer(NAME, (context, store, prof) -> ID.equals(prof.get(0).getId()));
+        FrameworkAdapter.INSTANCE.applyDefaultSettingsIfUndefined(config);
+        val plan = logic.retrieveSecurityPlan(config, config.getClients(), clients, authorizers, matchers);
+        assertSame(plan, logic.retrieveSecurityPlan(config, config.getClients(), clients, authorizers, matchers));
+        assertEquals(1, plan.getCurrentClients().size());
+        call();
+        call();
+        assertNull(action);
+        assertEquals(2, nbCall);
+    }
+
+    @Test
+    public void testSecurityPlanRecompiledOnConfigChange() {
+        val profile = new CommonProfile();
+        Map<String, CommonProfile> profiles = new LinkedHashMap<>();
+        profiles.put(NAME, profile);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), new CommonProfile());
+        authorizers = NAME;
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        config.addAuthorizer(NAME, (context, store, prof) -> true);
+        call();
+        assertNull(action);
+        assertEquals(1, nbCall);
+        config.addAuthorizer(NAME, (context, store, prof) -> false);
+        call();
+        assertEquals(403, action.getCode());
+        assertEquals(1, nbCall);
+    }
+
+    @Test
+    public void testSecurityPlanRecompiledOnAuthorizersMapChange() {
+        val profile = new CommonProfile();
+        Map<String, CommonProfile> profiles = new LinkedHashMap<>();
+        profiles.put(NAME, profile);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), new CommonProfile());
+        authorizers = NAME;
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        config.addAuthorizer(NAME, (context, store, prof) -> true);
+        call();
+        assertNull(action);
+        assertEquals(1, nbCall);
+        config.getAuthorizers().put(NAME, (context, store, prof) -> false);
+        call();
+        assertEquals(403, action.getCode());
+        assertEquals(1, nbCall);
+    }
+
+    @Test
+    public void testSecurityPlanRecompiledOnDirectMapChange() {
+        val profile = new CommonProfile();
+        Map<String, CommonProfile> profiles = new LinkedHashMap<>();
+        profiles.put(NAME, profile);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), new CommonProfile());
+        authorizers = NAME;
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        final Map<String, Authorizer> authorizersMap = new HashMap<>();
+        authorizersMap.put(NAME, (context, store, prof) -> true);
+        config.setAuthorizers(authorizersMap);
+        call();
+        assertNull(action);
+        assertEquals(1, nbCall);
+        authorizersMap.put(NAME, (context, store, prof) -> false);
+        call();
+        assertEquals(403, action.getCode());
+        assertEquals(1, nbCall);
+    }
+
+    @Test
+    public void testSecurityPlanNotUsedWithSubclassedCheckers() {
+        logic.setMatchingChecker(new DefaultMatchingChecker() {});
+        assertNull(logic.retrieveSecurityPlan(config, config.getClients(), clients, authorizers, matchers));
+    }
+
+    @Test
+    public void testSecurityPlanEviction() {
+        config.setClients(new Clients(CALLBACK_URL, new MockIndirectClient(NAME, new FoundAction(PAC4J_URL),
+            Optional.of(new MockCredentials()), new CommonProfile())));
+        val evictions = new AtomicInteger();
+        val logic = new DefaultSecurityLogic() {
+            @Override
+            protected void evictSecurityPlan() {
+                evictions.incrementAndGet();
+                super.evictSecurityPlan();
+            }
+        };
+        logic.setMaxSecurityPlans(2);
+        val plan1 = logic.retrieveSecurityPlan(config, config.getClients(), NAME, null, null);
+        val plan2 = logic.retrieveSecurityPlan(config, config.getClients(), NAME, DefaultAuthorizers.NONE, null);
+        assertSame(plan1, logic.retrieveSecurityPlan(config, config.getClients(), NAME, null, null));
+        assertSame(plan2, logic.retrieveSecurityPlan(config, config.getClients(), NAME, DefaultAuthorizers.NONE, null));
+        assertEquals(0, evictions.get());
+        val plan3 = logic.retrieveSecurityPlan(config, config.getClients(), NAME, null, DefaultMatchers.NONE);
+        assertEquals(1, evictions.get());
+        assertSame(plan3, logic.retrieveSecurityPlan(config, config.getClients(), NAME, null, DefaultMatchers.NONE));
+    }
+
+    @Test
+    public void testSecurityPlanRecompiledOnClientsChange() {
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, new FoundAction(PAC4J_URL),
+            Optional.of(new MockCredentials()), new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        clients = NAME + "," + VALUE;
+        call();
+        assertEquals(302, action.getCode());
+        val profile = new CommonProfile();
+        profile.setId(VALUE);
+        config.getClients().getClients().add(0, new MockDirectClient(VALUE, Optional.of(new MockCredentials()), profile));
+        action = null;
+        clients = VALUE + "," + NAME;
+        call();
+        assertNull(action);
+        assertEquals(1, nbCall);
+    }
+
+    @Test
+    public void testSecurityPlanDisabled() {
+        logic.setCompileSecurityPlans(false);
+        assertNull(logic.retrieveSecurityPlan(config, config.getClients(), clients, authorizers, matchers));
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, new FoundAction(PAC4J_URL),
+            Optional.of(new MockCredentials()), new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        clients = NAME;
+        call();
+        assertEquals(302, action.getCode());
+    }
 }
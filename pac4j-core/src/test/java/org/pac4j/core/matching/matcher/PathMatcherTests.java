@@ -10,8 +10,10 @@ import org.pac4j.core.util.TestsHelper;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -45,6 +47,57 @@ public class PathMatcherTests {
         assertFalse(pathMatcher.matches(new CallContext(MockWebContext.create().setPath("/foo/bar"), new MockSessionStore())));
     }
 
+    @Test
+    public void testBranchIsNotAPrefix() {
+        val pathMatcher = new PathMatcher().excludeBranch("/foo");
+        assertTrue(pathMatcher.matches("/foobar"));
+        assertTrue(pathMatcher.matches("/fo"));
+        assertTrue(pathMatcher.getExcludedPatterns().isEmpty());
+    }
+
+    @Test
+    public void testRegexBranch() {
+        val pathMatcher = new PathMatcher().excludeBranch("/v[12]");
+        assertFalse(pathMatcher.matches("/v1/api"));
+        assertFalse(pathMatcher.matches("/v2"));
+        assertTrue(pathMatcher.matches("/v3/api"));
+    }
+
+    @Test
+    public void testManyExclusions() {
+        val pathMatcher = new PathMatcher();
+        for (var i = 0; i < 200; i++) {
+            pathMatcher.excludePath("/health" + i);
+            pathMatcher.excludeBranch("/static" + i);
+            pathMatcher.excludeRegex("^/api" + i + "/[a-z]+\\.json$");
+        }
+        pathMatcher.excludeRegex("^/api1/(?<name>[0-9]+)$");
+        pathMatcher.excludeRegex("^(/x|/y)$");
+
+        assertFalse(pathMatcher.matches("/health7"));
+        assertTrue(pathMatcher.matches("/health7/"));
+        assertFalse(pathMatcher.matches("/static199/app.js"));
+        assertTrue(pathMatcher.matches("/static200/app.js"));
+        assertFalse(pathMatcher.matches("/api12/users.json"));
+        assertTrue(pathMatcher.matches("/api12/users.xml"));
+        assertFalse(pathMatcher.matches("/api1/123"));
+        assertFalse(pathMatcher.matches("/y"));
+        assertTrue(pathMatcher.matches("/z"));
+
+        pathMatcher.excludePath("/health7/");
+        assertFalse(pathMatcher.matches("/health7/"));
+    }
+
+    @Test
+    public void testLiteralPrefix() {
+        assertEquals("/api/", PathMatcher.literalPrefix("^/api/.*$"));
+        assertEquals("/ap", PathMatcher.literalPrefix("^/api?$"));
+        assertEquals("/", PathMatcher.literalPrefix("^/(img/.*|css/.*|page\\.html)$"));
+        assertEquals("/page", PathMatcher.literalPrefix("^/page\\.html$"));
+        assertEquals("", PathMatcher.literalPrefix("^/a|/b$"));
+        assertEquals("", PathMatcher.literalPrefix("^(?i)/admin$"));
+    }
+
     @Test
     public void testMissingStartCharacterInRegexp() {
         TestsHelper.expectException(() -> new PathMatcher().excludeRegex("/img/.*$"), TechnicalException.class,
@@ -127,4 +180,35 @@ public class PathMatcherTests {
         assertFalse(matcher.matches(new CallContext(MockWebContext.create().setPath("/callback"), new MockSessionStore())));
         assertFalse(matcher.matches(new CallContext(MockWebContext.create().setPath("/notprotected"), new MockSessionStore())));
     }
+
+    @Test
+    public void testChangesThroughGetters() {
+        val matcher = new PathMatcher().excludePath("/public");
+        assertFalse(matcher.matches("/public"));
+        assertTrue(matcher.matches("/private"));
+
+        matcher.getExcludedPaths().add("/private");
+        assertFalse(matcher.matches("/private"));
+        matcher.getExcludedPaths().remove("/public");
+        assertTrue(matcher.matches("/public"));
+        matcher.getExcludedBranches().add("/css");
+        assertFalse(matcher.matches("/css/main.css"));
+        matcher.getExcludedPatterns().add(Pattern.compile("^/img/.*$"));
+        assertFalse(matcher.matches("/img/logo.gif"));
+        matcher.getExcludedPatterns().clear();
+        assertTrue(matcher.matches("/img/logo.gif"));
+    }
+
+    @Test
+    public void testPatternsWithFlags() {
+        val matcher = new PathMatcher().excludeRegex("^/img/.*\\.png$").excludeRegex("^/img/.*\\.gif$");
+        matcher.getExcludedPatterns().add(Pattern.compile("^/img/.*\\.jpg$", Pattern.CASE_INSENSITIVE));
+        matcher.getExcludedPatterns().add(Pattern.compile("^/css/.*$", Pattern.CASE_INSENSITIVE));
+
+        assertFalse(matcher.matches("/img/logo.png"));
+        assertFalse(matcher.matches("/img/logo.gif"));
+        assertFalse(matcher.matches("/img/logo.JPG"));
+        assertFalse(matcher.matches("/CSS/main.css"));
+        assertTrue(matcher.matches("/img/logo.PNG"));
+    }
 }
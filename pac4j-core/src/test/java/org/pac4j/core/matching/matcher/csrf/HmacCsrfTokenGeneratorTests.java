@@ -0,0 +1,95 @@
+package org.pac4j.core.matching.matcher.csrf;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link HmacCsrfTokenGenerator}.
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+public final class HmacCsrfTokenGeneratorTests implements TestsConstants {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private static HmacCsrfTokenGenerator buildGenerator(final Instant now) {
+        val generator = new HmacCsrfTokenGenerator(SECRET);
+        generator.setClock(Clock.fixed(now, ZoneOffset.UTC));
+        return generator;
+    }
+
+    @Test
+    public void testStateless() {
+        val context = MockWebContext.create();
+        val store = new HashMap<String, Object>();
+        val sessionStore = new MockSessionStore(store);
+        val generator = buildGenerator(NOW);
+
+        val token = generator.get(context, sessionStore);
+        assertNotNull(token);
+        assertEquals(token, generator.get(context, sessionStore));
+        assertTrue(generator.isValid(context, sessionStore, token));
+        assertTrue(store.isEmpty());
+    }
+
+    @Test
+    public void testBoundToSession() {
+        val context = MockWebContext.create();
+        val generator = buildGenerator(NOW);
+        val token = generator.get(context, new MockSessionStore());
+
+        assertFalse(generator.isValid(context, new MockSessionStore(), token));
+        val otherSessionStore = new MockSessionStore() {
+            {
+                id = "otherSessionId";
+            }
+        };
+        assertFalse(generator.isValid(context, otherSessionStore, token));
+    }
+
+    @Test
+    public void testBoundToTimeWindow() {
+        val context = MockWebContext.create();
+        val sessionStore = new MockSessionStore();
+        val token = buildGenerator(NOW).get(context, sessionStore);
+
+        val ttl = Duration.ofSeconds(new HmacCsrfTokenGenerator().getTtlInSeconds());
+        assertTrue(buildGenerator(NOW.plus(ttl)).isValid(context, sessionStore, token));
+        assertFalse(buildGenerator(NOW.plus(ttl.multipliedBy(2))).isValid(context, sessionStore, token));
+        assertFalse(buildGenerator(NOW.minus(ttl)).isValid(context, sessionStore, token));
+    }
+
+    @Test
+    public void testBadTokens() {
+        val context = MockWebContext.create();
+        val sessionStore = new MockSessionStore();
+        val generator = buildGenerator(NOW);
+        val token = generator.get(context, sessionStore);
+
+        assertFalse(generator.isValid(context, sessionStore, null));
+        assertFalse(generator.isValid(context, sessionStore, VALUE));
+        assertFalse(generator.isValid(context, sessionStore, "abc." + VALUE));
+        assertFalse(generator.isValid(context, sessionStore, token + "A"));
+        assertFalse(new HmacCsrfTokenGenerator(SECRET + SECRET).isValid(context, sessionStore, token));
+    }
+
+    @Test
+    public void testMissingSecret() {
+        TestsHelper.expectException(() -> new HmacCsrfTokenGenerator().get(MockWebContext.create(), new MockSessionStore()),
+            TechnicalException.class, "secret cannot be blank");
+    }
+}
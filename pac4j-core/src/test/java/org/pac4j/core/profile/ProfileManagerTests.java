@@ -323,4 +323,51 @@ public final class ProfileManagerTests {
         assertEquals(AnonymousProfile.INSTANCE, profileManager.getProfiles().get(0));
         assertFalse(profileManager.isAuthenticated());
     }
+
+    @Test
+    public void testProfilesResolvedOncePerRequest() {
+        profiles.put(CLIENT1, profile1);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        val retrievedProfiles = profileManager.getProfiles();
+        assertEquals(retrievedProfiles, profileManager.getProfiles());
+        assertEquals(retrievedProfiles, new ProfileManager(context, sessionStore).getProfiles());
+        assertEquals(profile1, profileManager.getProfile().get());
+        assertTrue(profileManager.isAuthenticated());
+        retrievedProfiles.add(profile2);
+        assertEquals(List.of(profile1), profileManager.getProfiles());
+    }
+
+    @Test
+    public void testResolvedProfilesNotSharedWithOtherSessionStores() {
+        profiles.put(CLIENT1, profile1);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        assertEquals(List.of(profile1), profileManager.getProfiles());
+        val otherSessionStore = new MockSessionStore();
+        Map<String, CommonProfile> otherProfiles = new LinkedHashMap<>();
+        otherProfiles.put(CLIENT2, profile2);
+        otherSessionStore.set(context, Pac4jConstants.USER_PROFILES, otherProfiles);
+        assertEquals(List.of(profile2), new ProfileManager(context, otherSessionStore).getProfiles());
+        assertEquals(List.of(profile1), profileManager.getProfiles());
+    }
+
+    @Test
+    public void testResolvedProfilesInvalidatedBySave() {
+        profiles.put(CLIENT1, profile1);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        assertEquals(1, profileManager.getProfiles().size());
+        new ProfileManager(context, sessionStore).save(true, profile2, true);
+        val retrievedProfiles = profileManager.getProfiles();
+        assertEquals(2, retrievedProfiles.size());
+        assertEquals(profile2, retrievedProfiles.get(1));
+    }
+
+    @Test
+    public void testResolvedProfilesInvalidatedByRemove() {
+        profiles.put(CLIENT1, profile1);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        assertTrue(profileManager.isAuthenticated());
+        profileManager.removeProfiles();
+        assertFalse(profileManager.isAuthenticated());
+        assertTrue(profileManager.getProfiles().isEmpty());
+    }
 }
@@ -0,0 +1,123 @@
+package org.pac4j.core.store;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsHelper;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test {@link CaffeineStore}.
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+public final class CaffeineStoreTests extends AbstractStoreTests<CaffeineStore> {
+
+    @Override
+    protected CaffeineStore buildStore() {
+        return new CaffeineStore(10, 1000, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testBadSize() {
+        val store = new CaffeineStore();
+        store.setTimeout(15);
+        store.setTimeUnit(TimeUnit.SECONDS);
+        TestsHelper.expectException(store::init, TechnicalException.class, "size must be greater than zero");
+    }
+
+    @Test
+    public void testBadTimeUnit() {
+        val store = new CaffeineStore();
+        store.setSize(15);
+        store.setAccessTimeout(20);
+        TestsHelper.expectException(store::init, TechnicalException.class, "timeUnit cannot be null");
+    }
+
+    @Test
+    public void testExpiryAndTimeout() {
+        val store = new CaffeineStore<String, String>(10, 1000, TimeUnit.MILLISECONDS);
+        store.setExpiry(Expiry.creating((k, v) -> Duration.ofSeconds(1)));
+        TestsHelper.expectException(store::init, TechnicalException.class,
+            "expiry cannot be combined with timeout or accessTimeout");
+    }
+
+    @Test
+    public void testRefreshWithoutLoader() {
+        val store = new CaffeineStore<String, String>(10, 1000, TimeUnit.MILLISECONDS);
+        store.setRefreshTimeout(500);
+        TestsHelper.expectException(store::init, TechnicalException.class, "loader cannot be null");
+    }
+
+    @Test
+    public void testNoTimeout() {
+        val store = new CaffeineStore<String, String>();
+        store.setSize(10);
+        store.set(KEY, VALUE);
+        assertEquals(VALUE, store.get(KEY).get());
+    }
+
+    @Test
+    public void testVariableExpiry() {
+        val store = new CaffeineStore<String, String>();
+        store.setSize(10);
+        store.setExpiry(Expiry.writing((k, v) -> KEY.equals(k) ? Duration.ZERO : Duration.ofMinutes(1)));
+        store.set(KEY, VALUE);
+        store.set(NAME, VALUE);
+        assertFalse(store.get(KEY).isPresent());
+        assertEquals(VALUE, store.get(NAME).get());
+    }
+
+    @Test
+    public void testLoader() {
+        val store = new CaffeineStore<String, String>();
+        store.setSize(10);
+        store.setLoader(k -> KEY.equals(k) ? VALUE : null);
+        assertEquals(VALUE, store.get(KEY).get());
+        assertFalse(store.get(NAME).isPresent());
+    }
+
+    @Test
+    public void testRefreshAhead() throws InterruptedException {
+        val counter = new AtomicInteger();
+        val store = new CaffeineStore<String, Integer>();
+        store.setSize(10);
+        store.setTimeUnit(TimeUnit.MILLISECONDS);
+        store.setRefreshTimeout(100);
+        store.setExecutor(Runnable::run);
+        store.setLoader(k -> counter.incrementAndGet());
+        assertEquals(1, store.get(KEY).get().intValue());
+        assertEquals(1, store.get(KEY).get().intValue());
+        Thread.sleep(200);
+        // the read after the refresh delay reloads the value (synchronously here, given the executor)
+        assertEquals(2, store.get(KEY).get().intValue());
+        assertEquals(2, store.get(KEY).get().intValue());
+    }
+
+    @Test
+    public void testStats() {
+        val store = new CaffeineStore<String, String>(10, 1000, TimeUnit.MILLISECONDS);
+        store.setRecordStats(true);
+        store.set(KEY, VALUE);
+        store.get(KEY);
+        store.get(NAME);
+        val stats = store.getStats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+    }
+
+    @Test
+    public void testNoStats() {
+        val store = buildStore();
+        store.set(KEY, VALUE);
+        store.get(KEY);
+        assertEquals(0, store.getStats().hitCount());
+    }
+}
@@ -0,0 +1,270 @@
+package org.pac4j.core.util.serializer;
+
+import lombok.EqualsAndHashCode;
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.exception.http.FoundAction;
+import org.pac4j.core.profile.AnonymousProfile;
+import org.pac4j.core.profile.BasicUserProfile;
+import org.pac4j.core.profile.Color;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.Gender;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.profile.definition.CommonProfileDefinition;
+import org.pac4j.core.util.TestsConstants;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link BinarySerializer}.
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+public final class BinarySerializerTests implements TestsConstants {
+
+    private final BinarySerializer serializer = new BinarySerializer();
+
+    private CommonProfile getUserProfile() {
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        profile.setClientName(MY_CLIENT_NAME);
+        profile.setLinkedId("linked");
+        profile.setRemembered(true);
+        profile.addRole("admin");
+        profile.addRole("user");
+        profile.addAttribute(CommonProfileDefinition.EMAIL, "jle@example.com");
+        profile.addAttribute(CommonProfileDefinition.GENDER, Gender.MALE);
+        profile.addAttribute(CommonProfileDefinition.LOCALE, Locale.FRANCE);
+        profile.addAttribute(CommonProfileDefinition.PICTURE_URL, java.net.URI.create(PAC4J_BASE_URL));
+        profile.addAttribute("age", 42);
+        profile.addAttribute("negative", -3L);
+        profile.addAttribute("ratio", 0.5d);
+        profile.addAttribute("date", new Date(1700000000000L));
+        profile.addAttribute("color", new Color(1, 2, 3));
+        profile.addAttribute("groups", new ArrayList<>(List.of("a", "b")));
+        profile.addAttribute("address", new HashMap<>(Map.of("city", "Paris")));
+        profile.addAttribute("data", new byte[] {1, 2});
+        profile.addAttribute("treeSet", new TreeSet<>(Set.of("x", "y")));
+        profile.addAuthenticationAttribute("isFromNewLogin", true);
+        return profile;
+    }
+
+    private static void assertProfile(final CommonProfile expected, final UserProfile actual) {
+        assertEquals(CommonProfile.class, actual.getClass());
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getClientName(), actual.getClientName());
+        assertEquals(expected.getLinkedId(), actual.getLinkedId());
+        assertEquals(expected.isRemembered(), actual.isRemembered());
+        assertEquals(expected.getRoles(), actual.getRoles());
+        assertEquals(expected.getAuthenticationAttributes(), ((BasicUserProfile) actual).getAuthenticationAttributes());
+        val attributes = actual.getAttributes();
+        assertEquals(expected.getAttributes().keySet(), attributes.keySet());
+        for (val entry : expected.getAttributes().entrySet()) {
+            if (entry.getValue() instanceof byte[] bytes) {
+                assertArrayEquals(bytes, (byte[]) attributes.get(entry.getKey()));
+            } else if (entry.getValue() instanceof Color color) {
+                assertEquals(color.toString(), attributes.get(entry.getKey()).toString());
+            } else {
+                assertEquals(entry.getValue(), attributes.get(entry.getKey()));
+            }
+        }
+    }
+
+    @Test
+    public void testBytesSerialization() {
+        val profile = getUserProfile();
+        val serialized = serializer.serializeToBytes(profile);
+        assertProfile(profile, (UserProfile) serializer.deserializeFromBytes(serialized));
+    }
+
+    @Test
+    public void testStringSerialization() {
+        val profile = getUserProfile();
+        val serialized = serializer.serializeToString(profile);
+        assertProfile(profile, (UserProfile) serializer.deserializeFromString(serialized));
+    }
+
+    @Test
+    public void testMultipleProfiles() {
+        val profile = getUserProfile();
+        val profiles = new LinkedHashMap<String, UserProfile>();
+        profiles.put(MY_CLIENT_NAME, profile);
+        profiles.put("anonymous", new AnonymousProfile());
+        val decoded = (Map<String, UserProfile>) serializer.deserializeFromBytes(serializer.serializeToBytes(profiles));
+        assertEquals(List.of(MY_CLIENT_NAME, "anonymous"), new ArrayList<>(decoded.keySet()));
+        assertProfile(profile, decoded.get(MY_CLIENT_NAME));
+        assertEquals(AnonymousProfile.class, decoded.get("anonymous").getClass());
+        assertEquals("anonymous", decoded.get("anonymous").getId());
+    }
+
+    @Test
+    public void testSmallerThanJavaSerialization() {
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        profile.setClientName(MY_CLIENT_NAME);
+        profile.addAttribute(CommonProfileDefinition.EMAIL, "jle@example.com");
+        profile.addAttribute(CommonProfileDefinition.FIRST_NAME, "Jerome");
+        profile.addAttribute(CommonProfileDefinition.FAMILY_NAME, "Leleu");
+        val binary = serializer.serializeToBytes(profile);
+        val java = new JavaSerializer().serializeToBytes(profile);
+        assertTrue(binary.length * 4 < java.length);
+    }
+
+    @Test
+    public void testCompression() {
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        for (var i = 0; i < 100; i++) {
+            profile.addAttribute("attribute" + i, VALUE);
+        }
+        val compressed = serializer.serializeToBytes(profile);
+        val uncompressedSerializer = new BinarySerializer();
+        uncompressedSerializer.setCompression(false);
+        val uncompressed = uncompressedSerializer.serializeToBytes(profile);
+        assertTrue(compressed.length < uncompressed.length);
+        assertEquals(profile.getAttributes(), ((UserProfile) serializer.deserializeFromBytes(compressed)).getAttributes());
+        assertEquals(profile.getAttributes(), ((UserProfile) serializer.deserializeFromBytes(uncompressed)).getAttributes());
+    }
+
+    @Test
+    public void testMaxSize() {
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        profile.addAttribute(KEY, "a".repeat(10000));
+        val compressed = serializer.serializeToBytes(profile);
+        val limitedSerializer = new BinarySerializer();
+        limitedSerializer.setMaxSize(1000);
+        assertNull(limitedSerializer.deserializeFromBytes(compressed));
+    }
+
+    @Test
+    public void testUnregisteredProfileType() {
+        val profile = new CustomProfile();
+        profile.setId(ID);
+        profile.addAttribute(KEY, VALUE);
+        val decoded = (UserProfile) serializer.deserializeFromBytes(serializer.serializeToBytes(profile));
+        assertEquals(CustomProfile.class, decoded.getClass());
+        assertEquals(VALUE, decoded.getAttribute(KEY));
+    }
+
+    @Test
+    public void testUntrustedProfileType() {
+        val profile = new CustomProfile();
+        profile.setId(ID);
+        val serialized = serializer.serializeToBytes(profile);
+        val untrustedSerializer = new BinarySerializer();
+        untrustedSerializer.getJavaSerializer().clearTrustedPackages();
+        assertNull(untrustedSerializer.deserializeFromBytes(serialized));
+    }
+
+    @Test
+    public void testRegisteredProfileType() {
+        val profile = new CustomProfile();
+        profile.setId(ID);
+        val unregistered = serializer.serializeToBytes(profile);
+        val registeredSerializer = new BinarySerializer();
+        registeredSerializer.registerType(CustomProfile.class);
+        val registered = registeredSerializer.serializeToBytes(profile);
+        assertTrue(registered.length < unregistered.length);
+        assertEquals(CustomProfile.class, registeredSerializer.deserializeFromBytes(registered).getClass());
+    }
+
+    @Test
+    public void testJavaFallback() {
+        val action = new FoundAction(PAC4J_BASE_URL);
+        val decoded = (FoundAction) serializer.deserializeFromBytes(serializer.serializeToBytes(action));
+        assertEquals(action.getLocation(), decoded.getLocation());
+    }
+
+    @Test
+    public void testBadInput() {
+        assertNull(serializer.deserializeFromBytes(new byte[] {1, 2, 3}));
+        val serialized = serializer.serializeToBytes(getUserProfile());
+        assertNull(serializer.deserializeFromBytes(Arrays.copyOf(serialized, serialized.length / 2)));
+        serialized[1] = 99;
+        assertNull(serializer.deserializeFromBytes(serialized));
+    }
+
+    @Test
+    public void testNestingDepth() {
+        // a crafted payload of deeply nested lists
+        val depth = 100_000;
+        val crafted = new byte[3 + 2 * depth];
+        crafted[0] = (byte) 0xB7;
+        crafted[1] = BinarySerializer.VERSION;
+        for (var i = 0; i < depth; i++) {
+            crafted[3 + 2 * i] = 12;
+            crafted[4 + 2 * i] = 1;
+        }
+        assertNull(serializer.deserializeFromBytes(crafted));
+
+        List<Object> nested = new ArrayList<>();
+        for (var i = 0; i < serializer.getMaxDepth() - 1; i++) {
+            nested = new ArrayList<>(List.of(nested));
+        }
+        assertEquals(nested, serializer.deserializeFromBytes(serializer.serializeToBytes(nested)));
+        assertNull(serializer.serializeToBytes(new ArrayList<>(List.of(nested))));
+    }
+
+    @Test
+    public void testNotMergeableProfile() {
+        val profile = new CommonProfile(false);
+        profile.setId(ID);
+        val decoded = (CommonProfile) serializer.deserializeFromBytes(serializer.serializeToBytes(profile));
+        assertFalse(decoded.isCanAttributesBeMerged());
+        assertEquals(ID, decoded.getId());
+        assertTrue(((CommonProfile) serializer.deserializeFromBytes(serializer.serializeToBytes(getUserProfile())))
+            .isCanAttributesBeMerged());
+    }
+
+    @Test
+    public void testProfileWithOwnFields() {
+        val profile = new StatefulProfile();
+        profile.setId(ID);
+        profile.state = VALUE;
+        val decoded = (StatefulProfile) serializer.deserializeFromBytes(serializer.serializeToBytes(profile));
+        assertEquals(ID, decoded.getId());
+        assertEquals(VALUE, decoded.state);
+    }
+
+    @Test
+    public void testConcurrentRegistrations() throws Exception {
+        val threads = new ArrayList<Thread>();
+        for (var i = 0; i < 4; i++) {
+            threads.add(new Thread(() -> serializer.registerType(CustomProfile.class)));
+        }
+        threads.forEach(Thread::start);
+        for (val thread : threads) {
+            thread.join();
+        }
+        assertEquals(5, serializer.getTypes().size());
+        assertEquals(CustomProfile.class, serializer.getTypes().get(4));
+    }
+
+    public static class CustomProfile extends BasicUserProfile {
+    }
+
+    @EqualsAndHashCode(callSuper = true)
+    public static class StatefulProfile extends CommonProfile {
+
+        private String state;
+
+        @Override
+        public void writeExternal(final ObjectOutput out) throws IOException {
+            super.writeExternal(out);
+            out.writeObject(state);
+        }
+
+        @Override
+        public void readExternal(final ObjectInput in) throws IOException, ClassNotFoundException {
+            super.readExternal(in);
+            state = (String) in.readObject();
+        }
+    }
+}
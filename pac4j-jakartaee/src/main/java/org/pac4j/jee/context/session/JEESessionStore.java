@@ -12,6 +12,7 @@ import org.pac4j.jee.context.JEEContext;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -110,6 +111,32 @@ public class JEESessionStore extends PrefixedSessionStore {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The native session is retrieved once for all the values.
+     */
+    @Override
+    public void setAll(final WebContext context, final Map<String, Object> values) {
+        val createSession = values.values().stream().anyMatch(Objects::nonNull);
+        val httpSession = getNativeSession(context, createSession);
+        if (httpSession.isEmpty()) {
+            return;
+        }
+        val session = httpSession.get();
+        for (val entry : values.entrySet()) {
+            val prefixedKey = computePrefixedKey(entry.getKey());
+            val value = entry.getValue();
+            if (value == null) {
+                LOGGER.debug("Remove value for key: {}", prefixedKey);
+                session.removeAttribute(prefixedKey);
+            } else {
+                LOGGER.debug("Set key: {} for value: {}", prefixedKey, value instanceof Exception ? value.toString() : value);
+                session.setAttribute(prefixedKey, value);
+            }
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean destroySession(final WebContext context) {
@@ -61,8 +61,8 @@ public class Saml2MetadataFilter extends AbstractConfigFilter {
             throw new TechnicalException("No SAML2 client: " + this.clientName);
         }
         client.init();
-        response.getWriter().write(client.getServiceProviderMetadataResolver().getMetadata());
-        response.getWriter().flush();
+        client.getServiceProviderMetadataResolver().writeMetadata(response.getOutputStream());
+        response.getOutputStream().flush();
     }
 
     /** {@inheritDoc} */
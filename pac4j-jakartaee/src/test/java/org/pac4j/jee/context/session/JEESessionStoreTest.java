@@ -0,0 +1,78 @@
+package org.pac4j.jee.context.session;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.jee.context.JEEContext;
+
+import java.util.HashMap;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests {@link JEESessionStore}.
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+public final class JEESessionStoreTest implements TestsConstants {
+
+    private HttpServletRequest request;
+
+    private HttpSession session;
+
+    private JEEContext context;
+
+    private JEESessionStore sessionStore;
+
+    @Before
+    public void setUp() {
+        request = mock(HttpServletRequest.class);
+        session = mock(HttpSession.class);
+        context = new JEEContext(request, mock(HttpServletResponse.class));
+        sessionStore = new JEESessionStore();
+        sessionStore.setPrefix("prefix.");
+    }
+
+    @Test
+    public void testSetAll() {
+        when(request.getSession(true)).thenReturn(session);
+        val values = new HashMap<String, Object>();
+        values.put(KEY, VALUE);
+        values.put(NAME, null);
+
+        sessionStore.setAll(context, values);
+
+        verify(request, times(1)).getSession(true);
+        verify(session).setAttribute("prefix." + KEY, VALUE);
+        verify(session).removeAttribute("prefix." + NAME);
+    }
+
+    @Test
+    public void testRemoveAllWithoutSession() {
+        val values = new HashMap<String, Object>();
+        values.put(KEY, null);
+
+        sessionStore.setAll(context, values);
+
+        verify(request).getSession(false);
+        verify(request, never()).getSession(true);
+        verifyNoInteractions(session);
+    }
+
+    @Test
+    public void testRemoveAllWithSession() {
+        when(request.getSession(false)).thenReturn(session);
+        val values = new HashMap<String, Object>();
+        values.put(KEY, null);
+
+        sessionStore.setAll(context, values);
+
+        verify(session).removeAttribute("prefix." + KEY);
+        verify(session, never()).setAttribute(anyString(), any());
+    }
+}
@@ -4,14 +4,18 @@ import com.nimbusds.jose.*;
 import com.nimbusds.jwt.EncryptedJWT;
 import com.nimbusds.jwt.JWT;
 import com.nimbusds.jwt.SignedJWT;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.val;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.InitializableObject;
+import org.pac4j.jwt.util.KeyBoundInstance;
 
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collection;
 
 /**
  * Abstract encryption configuration.
@@ -28,6 +32,21 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
 
     protected EncryptionMethod method;
 
+    /** The key identifier, set as the <code>kid</code> header of the encrypted JWTs. */
+    protected String keyId;
+
+    /** The encrypter, reused as long as the encryption key does not change. */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    protected final KeyBoundInstance<JWEEncrypter> encrypter = new KeyBoundInstance<>();
+
+    /** The decrypter, reused as long as the decryption key does not change. */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    protected final KeyBoundInstance<JWEDecrypter> decrypter = new KeyBoundInstance<>();
+
     /** {@inheritDoc} */
     @Override
     public String encrypt(final JWT jwt) {
@@ -36,7 +55,7 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
         if (jwt instanceof SignedJWT signedJWT) {
             // Create JWE object with signed JWT as payload
             val jweObject = new JWEObject(
-                    new JWEHeader.Builder(this.algorithm, this.method).contentType("JWT").build(),
+                    new JWEHeader.Builder(this.algorithm, this.method).contentType("JWT").keyID(this.keyId).build(),
                     new Payload(signedJWT));
 
             try {
@@ -50,7 +69,7 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
             return jweObject.serialize();
         } else {
             // create header
-            val header = new JWEHeader(this.algorithm, this.method);
+            val header = new JWEHeader.Builder(this.algorithm, this.method).keyID(this.keyId).build();
 
             try {
                 // encrypted jwt
@@ -68,7 +87,7 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
     }
 
     /**
-     * Build the appropriate encrypter.
+     * Build (or reuse) the appropriate encrypter.
      *
      * @return the appropriate encrypter
      */
@@ -84,9 +103,32 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
     }
 
     /**
-     * Build the appropriate decrypter.
+     * Build (or reuse) the appropriate decrypter.
      *
      * @return the appropriate decrypter
      */
     protected abstract JWEDecrypter buildDecrypter();
+
+    /**
+     * Compute the JWK thumbprint of the encryption key, if any.
+     *
+     * @return the JWK thumbprint or <code>null</code>
+     */
+    protected String computeKeyThumbprint() {
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Collection<String> getKeyIdentifiers() {
+        val identifiers = new ArrayList<String>(2);
+        if (keyId != null) {
+            identifiers.add(keyId);
+        }
+        val thumbprint = computeKeyThumbprint();
+        if (thumbprint != null) {
+            identifiers.add(thumbprint);
+        }
+        return identifiers;
+    }
 }
@@ -3,6 +3,8 @@ package org.pac4j.jwt.config.encryption;
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.ECDHDecrypter;
 import com.nimbusds.jose.crypto.ECDHEncrypter;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.val;
@@ -80,10 +82,11 @@ public class ECEncryptionConfiguration extends AbstractEncryptionConfiguration {
     /** {@inheritDoc} */
     @Override
     protected JWEEncrypter buildEncrypter() {
-        CommonHelper.assertNotNull("publicKey", publicKey);
+        val key = this.publicKey;
+        CommonHelper.assertNotNull("publicKey", key);
 
         try {
-            return new ECDHEncrypter(this.publicKey);
+            return encrypter.get(key, null, () -> new ECDHEncrypter(key));
         } catch (final JOSEException e) {
             throw new TechnicalException(e);
         }
@@ -92,16 +95,31 @@ public class ECEncryptionConfiguration extends AbstractEncryptionConfiguration {
     /** {@inheritDoc} */
     @Override
     protected JWEDecrypter buildDecrypter() {
-        CommonHelper.assertNotNull("privateKey", privateKey);
+        val key = this.privateKey;
+        CommonHelper.assertNotNull("privateKey", key);
 
         try {
-            return new ECDHDecrypter(this.privateKey);
+            return decrypter.get(key, null, () -> new ECDHDecrypter(key));
         } catch (final JOSEException e) {
             throw new TechnicalException(e);
         }
     }
 
 
+    /** {@inheritDoc} */
+    @Override
+    protected String computeKeyThumbprint() {
+        val key = this.publicKey;
+        if (key == null) {
+            return null;
+        }
+        try {
+            return new ECKey.Builder(Curve.forECParameterSpec(key.getParams()), key).build().computeThumbprint().toString();
+        } catch (final JOSEException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
     /**
      * <p>setKeyPair.</p>
      *
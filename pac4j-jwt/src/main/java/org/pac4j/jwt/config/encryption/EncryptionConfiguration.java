@@ -6,6 +6,9 @@ import com.nimbusds.jose.JWEAlgorithm;
 import com.nimbusds.jwt.EncryptedJWT;
 import com.nimbusds.jwt.JWT;
 
+import java.util.Collection;
+import java.util.Collections;
+
 /**
  * Encryption configuration.
  *
@@ -38,4 +41,14 @@ public interface EncryptionConfiguration {
      * @throws JOSEException exception when decrypting the JWT
      */
     void decrypt(EncryptedJWT encryptedJWT) throws JOSEException;
+
+    /**
+     * The identifiers of the key of this encryption configuration (its key identifier and/or the JWK thumbprint of its key),
+     * used to select this configuration directly from the <code>kid</code> header of a JWT.
+     *
+     * @return the key identifiers
+     */
+    default Collection<String> getKeyIdentifiers() {
+        return Collections.emptyList();
+    }
 }
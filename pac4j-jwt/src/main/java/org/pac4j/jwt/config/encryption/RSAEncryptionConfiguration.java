@@ -1,11 +1,13 @@
 package org.pac4j.jwt.config.encryption;
 
 import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWEAlgorithm;
 import com.nimbusds.jose.JWEDecrypter;
 import com.nimbusds.jose.JWEEncrypter;
 import com.nimbusds.jose.crypto.RSADecrypter;
 import com.nimbusds.jose.crypto.RSAEncrypter;
+import com.nimbusds.jose.jwk.RSAKey;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.val;
@@ -81,17 +83,41 @@ public class RSAEncryptionConfiguration extends AbstractEncryptionConfiguration
     /** {@inheritDoc} */
     @Override
     protected JWEEncrypter buildEncrypter() {
-        CommonHelper.assertNotNull("publicKey", publicKey);
+        val key = this.publicKey;
+        CommonHelper.assertNotNull("publicKey", key);
 
-        return new RSAEncrypter(this.publicKey);
+        try {
+            return encrypter.get(key, null, () -> new RSAEncrypter(key));
+        } catch (final JOSEException e) {
+            throw new TechnicalException(e);
+        }
     }
 
     /** {@inheritDoc} */
     @Override
     protected JWEDecrypter buildDecrypter() {
-        CommonHelper.assertNotNull("privateKey", privateKey);
+        val key = this.privateKey;
+        CommonHelper.assertNotNull("privateKey", key);
+
+        try {
+            return decrypter.get(key, null, () -> new RSADecrypter(key));
+        } catch (final JOSEException e) {
+            throw new TechnicalException(e);
+        }
+    }
 
-        return new RSADecrypter(this.privateKey);
+    /** {@inheritDoc} */
+    @Override
+    protected String computeKeyThumbprint() {
+        val key = this.publicKey;
+        if (key == null) {
+            return null;
+        }
+        try {
+            return new RSAKey.Builder(key).build().computeThumbprint().toString();
+        } catch (final JOSEException e) {
+            throw new TechnicalException(e);
+        }
     }
 
     /**
@@ -103,13 +103,11 @@ public class SecretEncryptionConfiguration extends AbstractEncryptionConfigurati
     /** {@inheritDoc} */
     @Override
     protected JWEEncrypter buildEncrypter() {
+        val key = this.secret;
+        val direct = DirectDecrypter.SUPPORTED_ALGORITHMS.contains(algorithm);
         try {
-            if (DirectDecrypter.SUPPORTED_ALGORITHMS.contains(algorithm)) {
-                return new DirectEncrypter(this.secret);
-            } else {
-                return new AESEncrypter(this.secret);
-            }
-        } catch (final KeyLengthException e) {
+            return encrypter.get(key, direct, () -> direct ? new DirectEncrypter(key) : new AESEncrypter(key));
+        } catch (final JOSEException e) {
             throw new TechnicalException(e);
         }
     }
@@ -117,13 +115,11 @@ public class SecretEncryptionConfiguration extends AbstractEncryptionConfigurati
     /** {@inheritDoc} */
     @Override
     protected JWEDecrypter buildDecrypter() {
+        val key = this.secret;
+        val direct = DirectDecrypter.SUPPORTED_ALGORITHMS.contains(algorithm);
         try {
-            if (DirectDecrypter.SUPPORTED_ALGORITHMS.contains(algorithm)) {
-                return new DirectDecrypter(this.secret);
-            } else {
-                return new AESDecrypter(this.secret);
-            }
-        } catch (final KeyLengthException e) {
+            return decrypter.get(key, direct, () -> direct ? new DirectDecrypter(key) : new AESDecrypter(key));
+        } catch (final JOSEException e) {
             throw new TechnicalException(e);
         }
     }
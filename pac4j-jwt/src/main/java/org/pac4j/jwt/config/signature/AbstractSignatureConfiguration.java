@@ -1,9 +1,16 @@
 package org.pac4j.jwt.config.signature;
 
 import com.nimbusds.jose.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import lombok.val;
 import org.pac4j.core.util.InitializableObject;
+import org.pac4j.jwt.util.KeyBoundInstance;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Objects;
 
 /**
  * Abstract signature configuration.
@@ -16,4 +23,59 @@ import org.pac4j.core.util.InitializableObject;
 public abstract class AbstractSignatureConfiguration extends InitializableObject implements SignatureConfiguration {
 
     protected JWSAlgorithm algorithm = JWSAlgorithm.HS256;
+
+    /** The key identifier, set as the <code>kid</code> header of the signed JWTs. */
+    protected String keyId;
+
+    /** The signer, reused as long as the signing key does not change. */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    protected final KeyBoundInstance<JWSSigner> signer = new KeyBoundInstance<>();
+
+    /** The header of the signed JWTs, reused as long as the algorithm and the key identifier do not change. */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile JWSHeader header;
+
+    /** The verifier, reused as long as the verification key does not change. */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    protected final KeyBoundInstance<JWSVerifier> verifier = new KeyBoundInstance<>();
+
+    /**
+     * Build (or reuse) the header of the JWTs to sign.
+     *
+     * @return the JWS header
+     */
+    protected JWSHeader buildHeader() {
+        var current = header;
+        if (current == null || current.getAlgorithm() != algorithm || !Objects.equals(current.getKeyID(), keyId)) {
+            current = new JWSHeader.Builder(algorithm).keyID(keyId).build();
+            header = current;
+        }
+        return current;
+    }
+
+    /**
+     * Compute the JWK thumbprint of the verification key, if any.
+     *
+     * @return the JWK thumbprint or <code>null</code>
+     */
+    protected String computeKeyThumbprint() {
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Collection<String> getKeyIdentifiers() {
+        val identifiers = new ArrayList<String>(2);
+        if (keyId != null) {
+            identifiers.add(keyId);
+        }
+        val thumbprint = computeKeyThumbprint();
+        if (thumbprint != null) {
+            identifiers.add(thumbprint);
+        }
+        return identifiers;
+    }
 }
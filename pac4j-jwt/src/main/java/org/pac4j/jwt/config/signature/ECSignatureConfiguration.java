@@ -2,11 +2,10 @@ package org.pac4j.jwt.config.signature;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.JWSSigner;
-import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.crypto.ECDSASigner;
 import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import lombok.Getter;
@@ -83,12 +82,12 @@ public class ECSignatureConfiguration extends AbstractSignatureConfiguration {
     @Override
     public SignedJWT sign(JWTClaimsSet claims) {
         init();
-        CommonHelper.assertNotNull("privateKey", privateKey);
+        val key = this.privateKey;
+        CommonHelper.assertNotNull("privateKey", key);
 
         try {
-            JWSSigner signer = new ECDSASigner(this.privateKey);
-            val signedJWT = new SignedJWT(new JWSHeader(algorithm), claims);
-            signedJWT.sign(signer);
+            val signedJWT = new SignedJWT(buildHeader(), claims);
+            signedJWT.sign(signer.get(key, null, () -> new ECDSASigner(key)));
             return signedJWT;
         } catch (final JOSEException e) {
             throw new TechnicalException(e);
@@ -99,10 +98,24 @@ public class ECSignatureConfiguration extends AbstractSignatureConfiguration {
     @Override
     public boolean verify(final SignedJWT jwt) throws JOSEException {
         init();
-        CommonHelper.assertNotNull("publicKey", publicKey);
+        val key = this.publicKey;
+        CommonHelper.assertNotNull("publicKey", key);
 
-        JWSVerifier verifier = new ECDSAVerifier(this.publicKey);
-        return jwt.verify(verifier);
+        return jwt.verify(verifier.get(key, null, () -> new ECDSAVerifier(key)));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String computeKeyThumbprint() {
+        val key = this.publicKey;
+        if (key == null) {
+            return null;
+        }
+        try {
+            return new ECKey.Builder(Curve.forECParameterSpec(key.getParams()), key).build().computeThumbprint().toString();
+        } catch (final JOSEException e) {
+            throw new TechnicalException(e);
+        }
     }
 
     /**
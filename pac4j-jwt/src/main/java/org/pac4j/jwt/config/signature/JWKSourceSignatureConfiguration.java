@@ -0,0 +1,139 @@
+package org.pac4j.jwt.config.signature;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory;
+import com.nimbusds.jose.jwk.AsymmetricJWK;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.val;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.jwt.util.JWKSourceCache;
+import org.pac4j.jwt.util.KeyBoundInstance;
+
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Signature configuration verifying the JWTs with the public keys of a JWK source (for example, a JWKS URL),
+ * selected by the <code>kid</code> and <code>alg</code> headers of the JWTs. It cannot sign JWTs.
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+@Getter
+@Setter
+public class JWKSourceSignatureConfiguration extends AbstractSignatureConfiguration {
+
+    private static final DefaultJWSVerifierFactory VERIFIER_FACTORY = new DefaultJWSVerifierFactory();
+
+    private static final int MAX_VERIFIERS = 64;
+
+    private JWKSource<SecurityContext> jwkSource;
+
+    /** The verifiers by key identifier (or by JWK if it has none), reused as long as the JWK does not change. */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<Object, KeyBoundInstance<JWSVerifier>> verifiers = new ConcurrentHashMap<>();
+
+    /**
+     * <p>Constructor for JWKSourceSignatureConfiguration.</p>
+     */
+    public JWKSourceSignatureConfiguration() {
+        algorithm = JWSAlgorithm.RS256;
+    }
+
+    /**
+     * <p>Constructor for JWKSourceSignatureConfiguration.</p>
+     *
+     * @param jwkSource the JWK source
+     */
+    public JWKSourceSignatureConfiguration(final JWKSource<SecurityContext> jwkSource) {
+        this();
+        this.jwkSource = jwkSource;
+    }
+
+    /**
+     * <p>Constructor for JWKSourceSignatureConfiguration.</p>
+     *
+     * @param jwksUrl the JWKS URL, whose JWK set is shared (see {@link JWKSourceCache})
+     */
+    public JWKSourceSignatureConfiguration(final URL jwksUrl) {
+        this(JWKSourceCache.get(jwksUrl, null));
+    }
+
+    /**
+     * <p>Setter for the field <code>jwkSource</code>.</p>
+     *
+     * @param jwkSource the JWK source
+     */
+    public void setJwkSource(final JWKSource<SecurityContext> jwkSource) {
+        this.jwkSource = jwkSource;
+        verifiers.clear();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotNull("jwkSource", jwkSource);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean supports(final JWSAlgorithm algorithm) {
+        return algorithm != null
+            && (RSASSAVerifier.SUPPORTED_ALGORITHMS.contains(algorithm) || ECDSAVerifier.SUPPORTED_ALGORITHMS.contains(algorithm));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public SignedJWT sign(final JWTClaimsSet claims) {
+        throw new TechnicalException("A JWK source signature configuration cannot sign JWTs");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean verify(final SignedJWT jwt) throws JOSEException {
+        init();
+
+        val header = jwt.getHeader();
+        val matcher = JWKMatcher.forJWSHeader(header);
+        if (matcher == null) {
+            return false;
+        }
+        for (val jwk : jwkSource.get(new JWKSelector(matcher), null)) {
+            if (jwk instanceof AsymmetricJWK asymmetricJwk && jwt.verify(findVerifier(header, jwk, asymmetricJwk))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private JWSVerifier findVerifier(final JWSHeader header, final JWK jwk, final AsymmetricJWK asymmetricJwk)
+        throws JOSEException {
+        final Object id = jwk.getKeyID() != null ? jwk.getKeyID() : jwk;
+        var instance = verifiers.get(id);
+        if (instance == null) {
+            if (verifiers.size() >= MAX_VERIFIERS) {
+                verifiers.clear();
+            }
+            instance = verifiers.computeIfAbsent(id, k -> new KeyBoundInstance<>());
+        }
+        // the JWKs are the same objects as long as the cached JWK set is not refreshed
+        return instance.get(jwk, null, () -> VERIFIER_FACTORY.createJWSVerifier(header, asymmetricJwk.toPublicKey()));
+    }
+}
@@ -2,11 +2,9 @@ package org.pac4j.jwt.config.signature;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.JWSSigner;
-import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import lombok.Getter;
@@ -82,12 +80,12 @@ public class RSASignatureConfiguration extends AbstractSignatureConfiguration {
     @Override
     public SignedJWT sign(JWTClaimsSet claims) {
         init();
-        CommonHelper.assertNotNull("privateKey", privateKey);
+        val key = this.privateKey;
+        CommonHelper.assertNotNull("privateKey", key);
 
         try {
-            JWSSigner signer = new RSASSASigner(this.privateKey);
-            val signedJWT = new SignedJWT(new JWSHeader(algorithm), claims);
-            signedJWT.sign(signer);
+            val signedJWT = new SignedJWT(buildHeader(), claims);
+            signedJWT.sign(signer.get(key, null, () -> new RSASSASigner(key)));
             return signedJWT;
         } catch (final JOSEException e) {
             throw new TechnicalException(e);
@@ -98,10 +96,24 @@ public class RSASignatureConfiguration extends AbstractSignatureConfiguration {
     @Override
     public boolean verify(final SignedJWT jwt) throws JOSEException {
         init();
-        CommonHelper.assertNotNull("publicKey", publicKey);
+        val key = this.publicKey;
+        CommonHelper.assertNotNull("publicKey", key);
 
-        JWSVerifier verifier = new RSASSAVerifier(this.publicKey);
-        return jwt.verify(verifier);
+        return jwt.verify(verifier.get(key, null, () -> new RSASSAVerifier(key)));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String computeKeyThumbprint() {
+        val key = this.publicKey;
+        if (key == null) {
+            return null;
+        }
+        try {
+            return new RSAKey.Builder(key).build().computeThumbprint().toString();
+        } catch (final JOSEException e) {
+            throw new TechnicalException(e);
+        }
     }
 
     /**
@@ -2,9 +2,6 @@ package org.pac4j.jwt.config.signature;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.JWSSigner;
-import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.crypto.MACSigner;
 import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jose.util.Base64;
@@ -96,11 +93,11 @@ public class SecretSignatureConfiguration extends AbstractSignatureConfiguration
     @Override
     public SignedJWT sign(final JWTClaimsSet claims) {
         init();
+        val key = this.secret;
 
         try {
-            JWSSigner signer = new MACSigner(this.secret);
-            val signedJWT = new SignedJWT(new JWSHeader(algorithm), claims);
-            signedJWT.sign(signer);
+            val signedJWT = new SignedJWT(buildHeader(), claims);
+            signedJWT.sign(signer.get(key, null, () -> new MACSigner(key)));
             return signedJWT;
         } catch (final JOSEException e) {
             throw new TechnicalException(e);
@@ -111,9 +108,9 @@ public class SecretSignatureConfiguration extends AbstractSignatureConfiguration
     @Override
     public boolean verify(final SignedJWT jwt) throws JOSEException {
         init();
+        val key = this.secret;
 
-        JWSVerifier verifier = new MACVerifier(this.secret);
-        return jwt.verify(verifier);
+        return jwt.verify(verifier.get(key, null, () -> new MACVerifier(key)));
     }
 
     /**
@@ -5,6 +5,9 @@ import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 
+import java.util.Collection;
+import java.util.Collections;
+
 /**
  * Signature configuration.
  *
@@ -37,4 +40,14 @@ public interface SignatureConfiguration {
      * @throws JOSEException exception when verifying the JWT
      */
     boolean verify(SignedJWT jwt) throws JOSEException;
+
+    /**
+     * The identifiers of the key of this signature configuration (its key identifier and/or the JWK thumbprint of its key),
+     * used to select this configuration directly from the <code>kid</code> header of a JWT.
+     *
+     * @return the key identifiers
+     */
+    default Collection<String> getKeyIdentifiers() {
+        return Collections.emptyList();
+    }
 }
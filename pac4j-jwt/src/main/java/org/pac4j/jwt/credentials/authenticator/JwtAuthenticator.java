@@ -2,6 +2,7 @@ package org.pac4j.jwt.credentials.authenticator;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jwt.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -18,17 +19,25 @@ import org.pac4j.core.profile.ProfileHelper;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.profile.definition.ProfileDefinitionAware;
 import org.pac4j.core.profile.jwt.JwtClaims;
+import org.pac4j.core.store.GuavaStore;
+import org.pac4j.core.store.Store;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.util.generator.ValueGenerator;
 import org.pac4j.jwt.config.encryption.EncryptionConfiguration;
 import org.pac4j.jwt.config.signature.SignatureConfiguration;
 import org.pac4j.jwt.profile.JwtGenerator;
 import org.pac4j.jwt.profile.JwtProfileDefinition;
+import org.pac4j.jwt.util.KeyIdIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.ParseException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import static org.pac4j.core.util.CommonHelper.assertNotBlank;
 import static org.pac4j.core.util.CommonHelper.assertNotNull;
@@ -37,6 +46,16 @@ import static org.pac4j.core.util.CommonHelper.assertNotNull;
  * Authenticator for JWT. It creates the user profile and stores it in the credentials
  * for the {@link org.pac4j.core.profile.creator.AuthenticatorProfileCreator}.
  *
+ * Optionally (if a {@link #verifiedTokensCacheSize} or a {@link #verifiedTokensStore} is defined), the successfully
+ * decrypted and verified tokens are cached by token digest, so that a token sent again is not parsed, decrypted
+ * and verified again: only the user profile is rebuilt (until the token expires), via the same
+ * {@link #createJwtProfile(CallContext, TokenCredentials, JWT)} method. The cached tokens are ignored as soon as
+ * the signature or encryption configurations are replaced, added or removed. The default store built from
+ * the {@link #verifiedTokensCacheSize} requires the (optional) Guava library: without it, define a {@link #verifiedTokensStore}.
+ *
+ * When the JWT header carries a key identifier (<code>kid</code>), the configurations having this key identifier
+ * (or JWK thumbprint) are tried first, the other configurations being only tried as a fallback.
+ *
  * @author Jerome Leleu
  * @since 1.8.0
  */
@@ -57,6 +76,41 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
 
     private ValueGenerator identifierGenerator;
 
+    private int verifiedTokensCacheSize = 0;
+
+    private int verifiedTokensCacheTimeout = 5;
+
+    private TimeUnit verifiedTokensCacheTimeUnit = TimeUnit.MINUTES;
+
+    private Store<String, JWT> verifiedTokensStore;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private volatile ConfigurationsSnapshot configurationsSnapshot;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final LongAdder verifiedTokensCacheHits = new LongAdder();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final LongAdder verifiedTokensCacheMisses = new LongAdder();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final KeyIdIndex<EncryptionConfiguration> encryptionConfigurationsIndex =
+        new KeyIdIndex<>(EncryptionConfiguration::getKeyIdentifiers);
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final KeyIdIndex<SignatureConfiguration> signatureConfigurationsIndex =
+        new KeyIdIndex<>(SignatureConfiguration::getKeyIdentifiers);
+
     /**
      * <p>Constructor for JwtAuthenticator.</p>
      */
@@ -112,6 +166,10 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
         if (signatureConfigurations.isEmpty()) {
             logger.warn("No signature configurations have been defined: non-signed JWT will be accepted!");
         }
+
+        if (verifiedTokensStore == null && verifiedTokensCacheSize > 0) {
+            verifiedTokensStore = new GuavaStore<>(verifiedTokensCacheSize, verifiedTokensCacheTimeout, verifiedTokensCacheTimeUnit);
+        }
     }
 
     /**
@@ -165,6 +223,26 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
             }
         }
 
+        String tokenDigest = null;
+        if (verifiedTokensStore != null) {
+            tokenDigest = computeVerifiedTokenKey(token);
+            val cachedJwt = verifiedTokensStore.get(tokenDigest);
+            if (cachedJwt.isPresent()) {
+                logger.debug("JWT already verified");
+                verifiedTokensCacheHits.increment();
+                try {
+                    createJwtProfile(ctx, credentials, cachedJwt.get());
+                } catch (final ParseException e) {
+                    throw new CredentialsException("Cannot read the claims of the verified JWT", e);
+                }
+                if (credentials.getUserProfile() == null) {
+                    verifiedTokensStore.remove(tokenDigest);
+                }
+                return Optional.of(credentials);
+            }
+            verifiedTokensCacheMisses.increment();
+        }
+
         try {
             // Parse the token
             var jwt = JWTParser.parse(token);
@@ -190,7 +268,7 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
                     val header = encryptedJWT.getHeader();
                     val algorithm = header.getAlgorithm();
                     val method = header.getEncryptionMethod();
-                    for (val config : encryptionConfigurations) {
+                    for (val config : encryptionConfigurationsIndex.order(encryptionConfigurations, header.getKeyID())) {
                         if (config.supports(algorithm, method)) {
                             logger.debug("Using encryption configuration: {}", config);
                             try {
@@ -217,8 +295,9 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
 
                     var verified = false;
                     var found = false;
-                    val algorithm = signedJWT.getHeader().getAlgorithm();
-                    for (val config : signatureConfigurations) {
+                    val header = signedJWT.getHeader();
+                    val algorithm = header.getAlgorithm();
+                    for (val config : signatureConfigurationsIndex.order(signatureConfigurations, header.getKeyID())) {
                         if (config.supports(algorithm)) {
                             logger.debug("Using signature configuration: {}", config);
                             try {
@@ -243,6 +322,10 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
 
             createJwtProfile(ctx, credentials, jwt);
 
+            if (tokenDigest != null && credentials.getUserProfile() != null) {
+                verifiedTokensStore.set(tokenDigest, jwt);
+            }
+
         } catch (final ParseException e) {
             throw new CredentialsException("Cannot decrypt / verify JWT", e);
         }
@@ -258,9 +341,19 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
      * @param jwt a {@link JWT} object
      * @throws ParseException if any.
      */
-    @SuppressWarnings("unchecked")
     protected void createJwtProfile(final CallContext ctx, final TokenCredentials credentials, final JWT jwt) throws ParseException {
-        val claimSet = jwt.getJWTClaimsSet();
+        createJwtProfile(ctx, credentials, jwt.getJWTClaimsSet());
+    }
+
+    /**
+     * Create the user profile from the claims of a verified JWT.
+     *
+     * @param ctx a {@link CallContext} object
+     * @param credentials a {@link TokenCredentials} object
+     * @param claimSet the claims of the JWT
+     */
+    @SuppressWarnings("unchecked")
+    protected void createJwtProfile(final CallContext ctx, final TokenCredentials credentials, final JWTClaimsSet claimSet) {
         var subject = claimSet.getSubject();
         if (subject == null) {
             if (identifierGenerator != null) {
@@ -305,6 +398,70 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
         credentials.setUserProfile(profile);
     }
 
+    /**
+     * Compute the digest of a token, used as the key of the verified tokens cache.
+     *
+     * @param token the token
+     * @return the digest
+     */
+    protected String digest(final String token) {
+        try {
+            val digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    /**
+     * Compute the key of a token in the verified tokens cache: the digest of the token, prefixed by the version
+     * of the signature and encryption configurations, so that the tokens verified with previous configurations are ignored.
+     *
+     * @param token the token
+     * @return the key
+     */
+    protected String computeVerifiedTokenKey(final String token) {
+        var snapshot = configurationsSnapshot;
+        if (snapshot == null || !snapshot.matches(signatureConfigurations, encryptionConfigurations)) {
+            snapshot = new ConfigurationsSnapshot(signatureConfigurations.toArray(), encryptionConfigurations.toArray(),
+                snapshot != null ? snapshot.version() + 1 : 0);
+            configurationsSnapshot = snapshot;
+        }
+        return snapshot.version() + ":" + digest(token);
+    }
+
+    /**
+     * Remove a token from the verified tokens cache: it will be verified again on its next use.
+     *
+     * @param token the token
+     */
+    public void invalidateToken(final String token) {
+        assertNotBlank("token", token);
+        init();
+
+        if (verifiedTokensStore != null) {
+            verifiedTokensStore.remove(computeVerifiedTokenKey(token));
+        }
+    }
+
+    /**
+     * Return the number of tokens found in the verified tokens cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getVerifiedTokensCacheHits() {
+        return verifiedTokensCacheHits.sum();
+    }
+
+    /**
+     * Return the number of tokens not found in the verified tokens cache.
+     *
+     * @return the number of cache misses
+     */
+    public long getVerifiedTokensCacheMisses() {
+        return verifiedTokensCacheMisses.sum();
+    }
+
     /**
      * <p>setSignatureConfiguration.</p>
      *
@@ -380,4 +537,25 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
     public Date getExpirationTime() {
         return new Date(expirationTime.getTime());
     }
+
+    private record ConfigurationsSnapshot(Object[] signatureConfigurations, Object[] encryptionConfigurations, long version) {
+
+        private boolean matches(final List<SignatureConfiguration> currentSignatureConfigurations,
+                                final List<EncryptionConfiguration> currentEncryptionConfigurations) {
+            return sameElements(signatureConfigurations, currentSignatureConfigurations)
+                && sameElements(encryptionConfigurations, currentEncryptionConfigurations);
+        }
+
+        private static boolean sameElements(final Object[] elements, final List<?> currentElements) {
+            if (elements.length != currentElements.size()) {
+                return false;
+            }
+            for (var i = 0; i < elements.length; i++) {
+                if (elements[i] != currentElements.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
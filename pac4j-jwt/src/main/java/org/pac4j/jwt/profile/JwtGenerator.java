@@ -12,12 +12,23 @@ import org.pac4j.core.util.CommonHelper;
 import org.pac4j.jwt.config.encryption.EncryptionConfiguration;
 import org.pac4j.jwt.config.signature.SignatureConfiguration;
 
+import java.util.ArrayDeque;
 import java.util.Date;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Generates a JWT token from a user profile.
  *
+ * Tokens can also be generated in bulk from a stream or an iterable of profiles (or claims): the signer and encrypter
+ * of the configurations are reused for all the tokens and, if a {@link #batchExecutor} is defined, the tokens are
+ * signed in parallel, at most {@link #batchWindowSize} at a time, and handed over in order to the consumer.
+ *
  * @author Jerome Leleu
  * @since 1.8.0
  */
@@ -37,6 +48,10 @@ public class JwtGenerator {
 
     private Date expirationTime;
 
+    private Executor batchExecutor;
+
+    private int batchWindowSize = 256;
+
     /**
      * <p>Constructor for JwtGenerator.</p>
      */
@@ -94,6 +109,103 @@ public class JwtGenerator {
         return internalGenerate(buildJwtClaimsSet(profile));
     }
 
+    /**
+     * Generate lazily the JWTs of a stream of user profiles (which can be parallel).
+     *
+     * @param profiles the user profiles
+     * @return the stream of JWTs
+     */
+    public Stream<String> generateAll(final Stream<? extends UserProfile> profiles) {
+        CommonHelper.assertNotNull("profiles", profiles);
+
+        return profiles.map(this::generate);
+    }
+
+    /**
+     * Generate lazily the JWTs of a stream of claims maps (which can be parallel).
+     *
+     * @param claims the claims maps
+     * @return the stream of JWTs
+     */
+    public Stream<String> generateAllFromClaims(final Stream<? extends Map<String, Object>> claims) {
+        CommonHelper.assertNotNull("claims", claims);
+
+        return claims.map(this::generate);
+    }
+
+    /**
+     * Generate the JWTs of user profiles and pass them in order to the consumer, using the {@link #batchExecutor} if defined.
+     *
+     * @param profiles the user profiles
+     * @param consumer the consumer of the JWTs
+     */
+    public void generateAll(final Iterable<? extends UserProfile> profiles, final Consumer<String> consumer) {
+        CommonHelper.assertNotNull("profiles", profiles);
+
+        internalGenerateAll(profiles, this::generate, consumer);
+    }
+
+    /**
+     * Generate the JWTs of claims maps and pass them in order to the consumer, using the {@link #batchExecutor} if defined.
+     *
+     * @param claims the claims maps
+     * @param consumer the consumer of the JWTs
+     */
+    public void generateAllFromClaims(final Iterable<? extends Map<String, Object>> claims, final Consumer<String> consumer) {
+        CommonHelper.assertNotNull("claims", claims);
+
+        internalGenerateAll(claims, this::generate, consumer);
+    }
+
+    /**
+     * Generate the JWTs of the sources, keeping at most {@link #batchWindowSize} pending JWTs in memory.
+     *
+     * @param sources the sources (profiles or claims)
+     * @param generator the generator of a JWT from a source
+     * @param consumer the consumer of the JWTs
+     * @param <T> the type of the sources
+     */
+    protected <T> void internalGenerateAll(final Iterable<? extends T> sources, final Function<T, String> generator,
+                                           final Consumer<String> consumer) {
+        CommonHelper.assertNotNull("consumer", consumer);
+        CommonHelper.assertTrue(batchWindowSize > 0, "batchWindowSize must be greater than zero");
+
+        if (batchExecutor == null) {
+            for (val source : sources) {
+                consumer.accept(generator.apply(source));
+            }
+            return;
+        }
+
+        val window = new ArrayDeque<CompletableFuture<String>>();
+        try {
+            for (val source : sources) {
+                if (window.size() >= batchWindowSize) {
+                    consumer.accept(join(window.poll()));
+                }
+                window.add(CompletableFuture.supplyAsync(() -> generator.apply(source), batchExecutor));
+            }
+            while (!window.isEmpty()) {
+                consumer.accept(join(window.poll()));
+            }
+        } finally {
+            for (val future : window) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private static String join(final CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
     /**
      * Generate a JWT from a claims set.
      *
@@ -0,0 +1,222 @@
+package org.pac4j.jwt.util;
+
+import com.nimbusds.jose.jwk.source.JWKSetBasedJWKSource;
+import com.nimbusds.jose.jwk.source.JWKSetSource;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.jwk.source.OutageTolerantJWKSetSource;
+import com.nimbusds.jose.jwk.source.RateLimitedJWKSetSource;
+import com.nimbusds.jose.jwk.source.RefreshAheadCachingJWKSetSource;
+import com.nimbusds.jose.jwk.source.RetryingJWKSetSource;
+import com.nimbusds.jose.jwk.source.URLBasedJWKSetSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.ResourceRetriever;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.util.CommonHelper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A process-wide cache of JWK sets, shared by all the JWT verifications (the token validators of the OIDC clients,
+ * the {@link org.pac4j.jwt.config.signature.JWKSourceSignatureConfiguration}...).
+ *
+ * <p>Each JWK set is cached for {@link Settings#timeToLive()} milliseconds and refreshed ahead of its expiration
+ * ({@link Settings#refreshAheadTime()}) by a single background thread shared by all the JWK sources. A token signed
+ * by an unknown key (<code>kid</code>) triggers a refetch, rate-limited by {@link Settings#rateLimitMinInterval()},
+ * to handle key rotations. If the JWKS endpoint is down, the last good JWK set is served for up to
+ * {@link Settings#outageTolerance()} milliseconds.</p>
+ *
+ * <p>The JWK sources are shared by JWKS URL, resource retriever settings and cache settings. At most
+ * {@link #getMaxSize()} JWK sources are kept: the least recently used ones are removed (and closed) first.</p>
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+@Slf4j
+public final class JWKSourceCache {
+
+    /** The default maximum number of shared JWK sources. */
+    public static final int DEFAULT_MAX_SIZE = 100;
+
+    private static final ExecutorService REFRESH_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        val thread = new Thread(runnable, "pac4j-jwks-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Map<SourceKey, JWKSource<SecurityContext>> SOURCES = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<SourceKey, JWKSource<SecurityContext>> eldest) {
+            if (size() > maxSize) {
+                LOGGER.debug("Removing least recently used JWK source for: {}", eldest.getKey().url());
+                close(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private static volatile int maxSize = DEFAULT_MAX_SIZE;
+
+    private JWKSourceCache() {}
+
+    /**
+     * Get the shared JWK source of a JWKS URL with the default settings, building it if necessary.
+     *
+     * @param url the JWKS URL
+     * @param retriever the resource retriever (the default one if <code>null</code>)
+     * @return the shared JWK source
+     */
+    public static JWKSource<SecurityContext> get(final URL url, final ResourceRetriever retriever) {
+        return get(url, retriever, Settings.DEFAULT);
+    }
+
+    /**
+     * Get the shared JWK source of a JWKS URL, building it if necessary.
+     *
+     * @param url the JWKS URL
+     * @param retriever the resource retriever (the default one if <code>null</code>)
+     * @param settings the cache settings
+     * @return the shared JWK source
+     */
+    public static JWKSource<SecurityContext> get(final URL url, final ResourceRetriever retriever, final Settings settings) {
+        CommonHelper.assertNotNull("url", url);
+        CommonHelper.assertNotNull("settings", settings);
+
+        val actualRetriever = retriever != null ? retriever : new DefaultResourceRetriever(
+            JWKSourceBuilder.DEFAULT_HTTP_CONNECT_TIMEOUT, JWKSourceBuilder.DEFAULT_HTTP_READ_TIMEOUT,
+            JWKSourceBuilder.DEFAULT_HTTP_SIZE_LIMIT);
+        val key = new SourceKey(url.toString(), retrieverKey(actualRetriever), settings);
+        synchronized (SOURCES) {
+            return SOURCES.computeIfAbsent(key, k -> build(url, actualRetriever, settings));
+        }
+    }
+
+    /**
+     * Compute the part of the key identifying the resource retriever: its settings for a {@link DefaultResourceRetriever},
+     * the retriever itself (compared with its <code>equals</code> method) for the other implementations.
+     */
+    private static Object retrieverKey(final ResourceRetriever retriever) {
+        if (retriever.getClass() == DefaultResourceRetriever.class) {
+            val defaultRetriever = (DefaultResourceRetriever) retriever;
+            val headers = defaultRetriever.getHeaders() != null ? new LinkedHashMap<>(defaultRetriever.getHeaders()) : null;
+            return Arrays.asList(defaultRetriever.getConnectTimeout(), defaultRetriever.getReadTimeout(),
+                defaultRetriever.getSizeLimit(), headers, defaultRetriever.getProxy(), defaultRetriever.disconnectsAfterUse());
+        }
+        return retriever;
+    }
+
+    private static JWKSource<SecurityContext> build(final URL url, final ResourceRetriever retriever, final Settings settings) {
+        LOGGER.debug("Building shared JWK source for: {} with: {}", url, settings);
+        // the same chain as the JWKSourceBuilder, but refreshing ahead on the shared executor
+        // (the builder would start one scheduler thread per JWK source)
+        JWKSetSource<SecurityContext> source = new URLBasedJWKSetSource<>(url, retriever);
+        source = new RetryingJWKSetSource<>(source, null);
+        source = new OutageTolerantJWKSetSource<>(source, settings.outageTolerance(), null);
+        source = new RateLimitedJWKSetSource<>(source, settings.rateLimitMinInterval(), null);
+        source = new RefreshAheadCachingJWKSetSource<>(source, settings.timeToLive(), settings.refreshTimeout(),
+            settings.refreshAheadTime(), false, REFRESH_EXECUTOR, false, null);
+        return new JWKSetBasedJWKSource<>(source);
+    }
+
+    /**
+     * Remove (and close) the shared JWK sources of a JWKS URL: they will be built again on next use.
+     *
+     * @param url the JWKS URL
+     */
+    public static void remove(final URL url) {
+        CommonHelper.assertNotNull("url", url);
+
+        val key = url.toString();
+        synchronized (SOURCES) {
+            val iterator = SOURCES.entrySet().iterator();
+            while (iterator.hasNext()) {
+                val entry = iterator.next();
+                if (entry.getKey().url().equals(key)) {
+                    close(entry.getValue());
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove (and close) all the shared JWK sources.
+     */
+    public static void clear() {
+        synchronized (SOURCES) {
+            new ArrayList<>(SOURCES.values()).forEach(JWKSourceCache::close);
+            SOURCES.clear();
+        }
+    }
+
+    /**
+     * Return the number of shared JWK sources.
+     *
+     * @return the number of shared JWK sources
+     */
+    public static int size() {
+        synchronized (SOURCES) {
+            return SOURCES.size();
+        }
+    }
+
+    /**
+     * Return the maximum number of shared JWK sources.
+     *
+     * @return the maximum number of shared JWK sources
+     */
+    public static int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Define the maximum number of shared JWK sources (the exceeding ones are removed on the next build).
+     *
+     * @param maxSize the maximum number of shared JWK sources
+     */
+    public static void setMaxSize(final int maxSize) {
+        CommonHelper.assertTrue(maxSize > 0, "maxSize must be greater than 0");
+        JWKSourceCache.maxSize = maxSize;
+    }
+
+    private static void close(final JWKSource<SecurityContext> source) {
+        if (source instanceof Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (final IOException e) {
+                LOGGER.warn("Cannot close JWK source: {}", source, e);
+            }
+        }
+    }
+
+    /**
+     * The settings of a shared JWK source (all in milliseconds).
+     *
+     * @param timeToLive the time to live of the cached JWK set
+     * @param refreshTimeout the timeout of a JWK set refresh
+     * @param refreshAheadTime the time before the expiration of the cached JWK set when it is refreshed in the background
+     * @param rateLimitMinInterval the minimum interval between two JWK set refetches
+     * @param outageTolerance the time during which the last good JWK set is served when the JWKS endpoint is down
+     */
+    public record Settings(long timeToLive, long refreshTimeout, long refreshAheadTime, long rateLimitMinInterval,
+                           long outageTolerance) {
+
+        /** The default settings. */
+        public static final Settings DEFAULT = new Settings(JWKSourceBuilder.DEFAULT_CACHE_TIME_TO_LIVE,
+            JWKSourceBuilder.DEFAULT_CACHE_REFRESH_TIMEOUT, JWKSourceBuilder.DEFAULT_REFRESH_AHEAD_TIME,
+            JWKSourceBuilder.DEFAULT_RATE_LIMIT_MIN_INTERVAL, JWKSourceBuilder.DEFAULT_CACHE_TIME_TO_LIVE * 10);
+    }
+
+    private record SourceKey(String url, Object retriever, Settings settings) {}
+}
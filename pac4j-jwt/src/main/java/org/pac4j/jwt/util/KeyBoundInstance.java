@@ -0,0 +1,65 @@
+package org.pac4j.jwt.util;
+
+import com.nimbusds.jose.JOSEException;
+
+import java.util.Objects;
+
+/**
+ * A lazily built crypto object (signer, verifier, encrypter, decrypter) bound to the key it has been built from.
+ *
+ * The crypto objects of the Nimbus library are thread-safe, so the instance is shared by all the threads and it is only
+ * rebuilt (and atomically replaced) when the key (compared by identity) or the parameter (compared by equality) changes,
+ * for example after a key rotation.
+ *
+ * @param <T> the type of the crypto object
+ * @author agent
+ * @since 6.1.3
+ */
+public final class KeyBoundInstance<T> {
+
+    private volatile Holder<T> holder;
+
+    /**
+     * Get the instance built from the given key and parameter, building it if necessary.
+     *
+     * @param key the key
+     * @param parameter an additional parameter (may be <code>null</code>)
+     * @param builder the builder of the instance from the key and parameter
+     * @return the instance
+     * @throws JOSEException if the instance cannot be built
+     */
+    public T get(final Object key, final Object parameter, final Builder<T> builder) throws JOSEException {
+        var current = holder;
+        if (current == null || current.key != key || !Objects.equals(current.parameter, parameter)) {
+            current = new Holder<>(key, parameter, builder.build());
+            holder = current;
+        }
+        return current.instance;
+    }
+
+    /**
+     * Discard the current instance.
+     */
+    public void reset() {
+        holder = null;
+    }
+
+    /**
+     * The builder of an instance.
+     *
+     * @param <T> the type of the crypto object
+     */
+    @FunctionalInterface
+    public interface Builder<T> {
+
+        /**
+         * Build the instance.
+         *
+         * @return the instance
+         * @throws JOSEException if the instance cannot be built
+         */
+        T build() throws JOSEException;
+    }
+
+    private record Holder<T>(Object key, Object parameter, T instance) {}
+}
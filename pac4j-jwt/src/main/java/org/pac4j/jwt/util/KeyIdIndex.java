@@ -0,0 +1,109 @@
+package org.pac4j.jwt.util;
+
+import lombok.val;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * An index of (signature or encryption) configurations by key identifier (the <code>kid</code> header of a JWT).
+ *
+ * The index is lazily built from the list of configurations and rebuilt when the elements of this list change.
+ * For each key identifier, the configurations matching it are precomputed first, followed by all the other ones,
+ * so that a stale or missing index entry only costs the sequential scan.
+ *
+ * @param <C> the type of the configurations
+ * @author agent
+ * @since 6.1.3
+ */
+public final class KeyIdIndex<C> {
+
+    private final Function<C, Collection<String>> keyIdentifiers;
+
+    private volatile Snapshot<C> snapshot;
+
+    /**
+     * Build an index.
+     *
+     * @param keyIdentifiers the function returning the key identifiers of a configuration
+     */
+    public KeyIdIndex(final Function<C, Collection<String>> keyIdentifiers) {
+        this.keyIdentifiers = keyIdentifiers;
+    }
+
+    /**
+     * Order the configurations to try for the given key identifier.
+     *
+     * @param configurations the configurations
+     * @param keyId the key identifier (may be <code>null</code>)
+     * @return the configurations matching the key identifier first, then the other ones
+     */
+    public List<C> order(final List<C> configurations, final String keyId) {
+        if (keyId == null || configurations.size() <= 1) {
+            return configurations;
+        }
+
+        var current = snapshot;
+        if (current == null || !current.isBuiltFrom(configurations)) {
+            current = build(configurations);
+            snapshot = current;
+        }
+
+        val ordered = current.orders().get(keyId);
+        return ordered != null ? ordered : configurations;
+    }
+
+    private Snapshot<C> build(final List<C> configurations) {
+        val elements = new ArrayList<C>(configurations);
+        final Map<String, List<C>> matches = new HashMap<>();
+        for (val configuration : elements) {
+            val identifiers = keyIdentifiers.apply(configuration);
+            if (identifiers != null) {
+                for (val identifier : identifiers) {
+                    val candidates = matches.computeIfAbsent(identifier, k -> new ArrayList<>(1));
+                    if (!candidates.contains(configuration)) {
+                        candidates.add(configuration);
+                    }
+                }
+            }
+        }
+
+        final Map<String, List<C>> orders = new HashMap<>(matches.size() * 2);
+        for (val entry : matches.entrySet()) {
+            val candidates = entry.getValue();
+            val ordered = new ArrayList<C>(elements.size());
+            ordered.addAll(candidates);
+            for (val configuration : elements) {
+                if (!candidates.contains(configuration)) {
+                    ordered.add(configuration);
+                }
+            }
+            orders.put(entry.getKey(), Collections.unmodifiableList(ordered));
+        }
+        return new Snapshot<>(elements, orders);
+    }
+
+    /**
+     * Discard the current index: it will be rebuilt on next use (for example, after a key identifier has changed).
+     */
+    public void reset() {
+        snapshot = null;
+    }
+
+    private record Snapshot<C>(List<C> configurations, Map<String, List<C>> orders) {
+
+        boolean isBuiltFrom(final List<C> list) {
+            if (configurations.size() != list.size()) {
+                return false;
+            }
+            // the same configurations (by identity) in the same order
+            var i = 0;
+            for (val configuration : list) {
+                if (configurations.get(i++) != configuration) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package org.pac4j.jwt;
 
 import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jwt.EncryptedJWT;
+import com.nimbusds.jwt.JWT;
+import com.nimbusds.jwt.JWTParser;
+import com.nimbusds.jwt.SignedJWT;
 import lombok.val;
 import org.junit.Test;
+import org.pac4j.core.context.CallContext;
 import org.pac4j.core.credentials.TokenCredentials;
 import org.pac4j.core.credentials.authenticator.Authenticator;
 import org.pac4j.core.exception.CredentialsException;
@@ -30,7 +36,12 @@ import org.pac4j.oauth.profile.twitter.TwitterProfileDefinition;
 
 import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.Assert.*;
 
@@ -370,6 +381,238 @@ public final class JwtTests implements TestsConstants {
         return profile;
     }
 
+    @Test
+    public void testVerifiedTokensCache() {
+        val generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET),
+            new SecretEncryptionConfiguration(MAC_SECRET));
+        val profile = createProfile();
+        val token = generator.generate(profile);
+        val authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET),
+            new SecretEncryptionConfiguration(MAC_SECRET));
+        authenticator.setVerifiedTokensCacheSize(10);
+        val profile1 = assertToken(profile, token, authenticator);
+        val profile2 = assertToken(profile, token, authenticator);
+        assertNotSame(profile1, profile2);
+        assertEquals(1, authenticator.getVerifiedTokensCacheMisses());
+        assertEquals(1, authenticator.getVerifiedTokensCacheHits());
+        authenticator.invalidateToken(token);
+        assertToken(profile, token, authenticator);
+        assertEquals(2, authenticator.getVerifiedTokensCacheMisses());
+        assertEquals(1, authenticator.getVerifiedTokensCacheHits());
+    }
+
+    @Test
+    public void testVerifiedTokensCacheUsesProfileCreation() {
+        val token = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET)).generate(createProfile());
+        val authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET)) {
+            @Override
+            protected void createJwtProfile(final CallContext ctx, final TokenCredentials credentials, final JWT jwt)
+                throws ParseException {
+                super.createJwtProfile(ctx, credentials, jwt);
+                credentials.getUserProfile().addAttribute(KEY, VALUE);
+            }
+        };
+        authenticator.setVerifiedTokensCacheSize(10);
+        assertEquals(VALUE, authenticator.validateToken(token).getAttribute(KEY));
+        assertEquals(VALUE, authenticator.validateToken(token).getAttribute(KEY));
+        assertEquals(1, authenticator.getVerifiedTokensCacheHits());
+    }
+
+    @Test
+    public void testVerifiedTokensCacheIgnoredAfterConfigurationChange() {
+        val token = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET)).generate(createProfile());
+        val authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        authenticator.setVerifiedTokensCacheSize(10);
+        assertNotNull(authenticator.validateToken(token));
+        assertNotNull(authenticator.validateToken(token));
+        assertEquals(1, authenticator.getVerifiedTokensCacheHits());
+
+        authenticator.setSignatureConfigurations(new ArrayList<>(List.of(new SecretSignatureConfiguration(KEY2))));
+        assertNull(authenticator.validateToken(token));
+        authenticator.getSignatureConfigurations().set(0, new SecretSignatureConfiguration(MAC_SECRET));
+        assertNotNull(authenticator.validateToken(token));
+        assertEquals(1, authenticator.getVerifiedTokensCacheHits());
+        assertEquals(3, authenticator.getVerifiedTokensCacheMisses());
+    }
+
+    @Test
+    public void testVerifiedTokensCacheDisabled() {
+        val generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET));
+        val token = generator.generate(createProfile());
+        val authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        assertNotNull(authenticator.validateToken(token));
+        assertNotNull(authenticator.validateToken(token));
+        assertEquals(0, authenticator.getVerifiedTokensCacheMisses());
+        assertEquals(0, authenticator.getVerifiedTokensCacheHits());
+    }
+
+    @Test
+    public void testVerifiedTokensCacheNoInvalidToken() {
+        val authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        authenticator.setVerifiedTokensCacheSize(10);
+        val token = new JwtGenerator(new SecretSignatureConfiguration(KEY2)).generate(createProfile());
+        assertNull(authenticator.validateToken(token));
+        assertNull(authenticator.validateToken(token));
+        assertEquals(2, authenticator.getVerifiedTokensCacheMisses());
+        assertEquals(0, authenticator.getVerifiedTokensCacheHits());
+    }
+
+    @Test
+    public void testKeyIdDispatch() throws ParseException {
+        val signatureConfiguration = new SecretSignatureConfiguration(MAC_SECRET);
+        signatureConfiguration.setKeyId("sig2");
+        val encryptionConfiguration = new SecretEncryptionConfiguration(MAC_SECRET);
+        encryptionConfiguration.setKeyId("enc2");
+        val profile = createProfile();
+        val token = new JwtGenerator(signatureConfiguration, encryptionConfiguration).generate(profile);
+        val encryptedJwt = (EncryptedJWT) JWTParser.parse(token);
+        assertEquals("enc2", encryptedJwt.getHeader().getKeyID());
+
+        val verifications = new AtomicInteger();
+        val otherSignatureConfiguration = new SecretSignatureConfiguration(KEY2) {
+            @Override
+            public boolean verify(final SignedJWT jwt) throws JOSEException {
+                verifications.incrementAndGet();
+                return super.verify(jwt);
+            }
+        };
+        otherSignatureConfiguration.setKeyId("sig1");
+        val decryptions = new AtomicInteger();
+        val otherEncryptionConfiguration = new SecretEncryptionConfiguration(KEY2) {
+            @Override
+            public void decrypt(final EncryptedJWT jwt) throws JOSEException {
+                decryptions.incrementAndGet();
+                super.decrypt(jwt);
+            }
+        };
+        otherEncryptionConfiguration.setKeyId("enc1");
+        val authenticator = new JwtAuthenticator(
+            new ArrayList<>(List.of(otherSignatureConfiguration, new SecretSignatureConfiguration(MAC_SECRET))),
+            new ArrayList<>(List.of(otherEncryptionConfiguration, new SecretEncryptionConfiguration(MAC_SECRET))));
+        // the configurations have no key identifiers: sequential scan
+        assertToken(profile, token, authenticator);
+        assertEquals(1, verifications.get());
+        assertEquals(1, decryptions.get());
+
+        authenticator.addSignatureConfiguration(signatureConfiguration);
+        authenticator.addEncryptionConfiguration(encryptionConfiguration);
+        // direct dispatch by key identifier
+        assertToken(profile, token, authenticator);
+        assertEquals(1, verifications.get());
+        assertEquals(1, decryptions.get());
+    }
+
+    @Test
+    public void testKeyIdDispatchAfterReplacementInPlace() {
+        val signatureConfiguration = new SecretSignatureConfiguration(MAC_SECRET);
+        signatureConfiguration.setKeyId("sig2");
+        val profile = createProfile();
+        val token = new JwtGenerator(signatureConfiguration).generate(profile);
+
+        val verifications = new AtomicInteger();
+        val otherSignatureConfiguration = new SecretSignatureConfiguration(KEY2) {
+            @Override
+            public boolean verify(final SignedJWT jwt) throws JOSEException {
+                verifications.incrementAndGet();
+                return super.verify(jwt);
+            }
+        };
+        otherSignatureConfiguration.setKeyId("sig1");
+        val authenticator = new JwtAuthenticator(new ArrayList<>(List.of(otherSignatureConfiguration, signatureConfiguration)));
+        assertToken(profile, token, authenticator);
+        assertEquals(0, verifications.get());
+
+        val newSignatureConfiguration = new SecretSignatureConfiguration(MAC_SECRET);
+        newSignatureConfiguration.setKeyId("sig2");
+        authenticator.getSignatureConfigurations().set(1, newSignatureConfiguration);
+        // the index is rebuilt: the new configuration is still tried first
+        assertToken(profile, token, authenticator);
+        assertEquals(0, verifications.get());
+    }
+
+    @Test
+    public void testUnknownKeyIdFallback() {
+        val signatureConfiguration = new SecretSignatureConfiguration(MAC_SECRET);
+        signatureConfiguration.setKeyId("unknown");
+        val profile = createProfile();
+        val token = new JwtGenerator(signatureConfiguration).generate(profile);
+        val otherSignatureConfiguration = new SecretSignatureConfiguration(KEY2);
+        otherSignatureConfiguration.setKeyId("sig1");
+        val authenticator = new JwtAuthenticator(
+            new ArrayList<>(List.of(otherSignatureConfiguration, new SecretSignatureConfiguration(MAC_SECRET))));
+        assertToken(profile, token, authenticator);
+    }
+
+    private List<CommonProfile> createProfiles(final int nb) {
+        return IntStream.range(0, nb).mapToObj(i -> {
+            val profile = new CommonProfile();
+            profile.setId(ID + i);
+            return profile;
+        }).collect(Collectors.toList());
+    }
+
+    private void assertTokens(final List<CommonProfile> profiles, final List<String> tokens) {
+        val authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET),
+            new SecretEncryptionConfiguration(MAC_SECRET));
+        assertEquals(profiles.size(), tokens.size());
+        for (var i = 0; i < profiles.size(); i++) {
+            assertEquals(profiles.get(i).getId(), authenticator.validateToken(tokens.get(i)).getId());
+        }
+    }
+
+    @Test
+    public void testGenerateAll() {
+        val generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET),
+            new SecretEncryptionConfiguration(MAC_SECRET));
+        val profiles = createProfiles(20);
+        val tokens = new ArrayList<String>();
+        generator.generateAll(profiles, tokens::add);
+        assertTokens(profiles, tokens);
+        assertTokens(profiles, generator.generateAll(profiles.stream().parallel()).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testGenerateAllWithExecutor() {
+        val executor = Executors.newFixedThreadPool(4);
+        try {
+            val generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET),
+                new SecretEncryptionConfiguration(MAC_SECRET));
+            generator.setBatchExecutor(executor);
+            generator.setBatchWindowSize(3);
+            val profiles = createProfiles(20);
+            val tokens = new ArrayList<String>();
+            generator.generateAll(profiles, tokens::add);
+            assertTokens(profiles, tokens);
+
+            val claims = new ArrayList<Map<String, Object>>();
+            claims.add(Map.of(JwtClaims.SUBJECT, ID));
+            claims.add(Map.of(JwtClaims.SUBJECT, VALUE));
+            val claimsTokens = new ArrayList<String>();
+            generator.generateAllFromClaims(claims, claimsTokens::add);
+            val authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET),
+                new SecretEncryptionConfiguration(MAC_SECRET));
+            assertEquals(ID, authenticator.validateToken(claimsTokens.get(0)).getId());
+            assertEquals(VALUE, authenticator.validateToken(claimsTokens.get(1)).getId());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testGenerateAllWithExecutorFailure() {
+        val executor = Executors.newFixedThreadPool(2);
+        try {
+            val generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET));
+            generator.setBatchExecutor(executor);
+            val profiles = createProfiles(5);
+            profiles.get(2).addAttribute(JwtGenerator.INTERNAL_ROLES, VALUE);
+            TestsHelper.expectException(() -> generator.generateAll(profiles, token -> {}), TechnicalException.class,
+                JwtGenerator.INTERNAL_ROLES + " must be null");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test(expected = CredentialsException.class)
     public void testAuthenticateFailed() {
         Authenticator authenticator =
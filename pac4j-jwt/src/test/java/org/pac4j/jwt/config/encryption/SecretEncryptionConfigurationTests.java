@@ -16,6 +16,7 @@ import org.pac4j.jwt.config.signature.SignatureConfiguration;
 import java.text.ParseException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests {@link SecretEncryptionConfiguration}.
@@ -115,4 +116,18 @@ public final class SecretEncryptionConfigurationTests implements TestsConstants
         final JWT jwt2 = encryptedJwt;
         assertEquals(VALUE, jwt2.getJWTClaimsSet().getSubject());
     }
+
+    @Test
+    public void testSecretRotation() throws ParseException, JOSEException {
+        val config = new SecretEncryptionConfiguration(MAC_SECRET);
+        val token = config.encrypt(new PlainJWT(buildClaims()));
+        config.decrypt((EncryptedJWT) JWTParser.parse(token));
+
+        config.setSecret(MAC_SECRET.substring(1) + "X");
+        assertTrue(TestsHelper.expectException(() -> config.decrypt((EncryptedJWT) JWTParser.parse(token))) instanceof JOSEException);
+        val token2 = config.encrypt(new PlainJWT(buildClaims()));
+        val encryptedJwt = (EncryptedJWT) JWTParser.parse(token2);
+        config.decrypt(encryptedJwt);
+        assertEquals(VALUE, encryptedJwt.getJWTClaimsSet().getSubject());
+    }
 }
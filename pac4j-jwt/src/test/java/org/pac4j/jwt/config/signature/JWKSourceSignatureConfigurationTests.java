@@ -0,0 +1,100 @@
+package org.pac4j.jwt.config.signature;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.jwt.config.AbstractKeyEncryptionConfigurationTests;
+import org.pac4j.jwt.util.JWKSourceCache;
+
+import java.net.URI;
+import java.security.interfaces.RSAPublicKey;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link JWKSourceSignatureConfiguration}.
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+public final class JWKSourceSignatureConfigurationTests extends AbstractKeyEncryptionConfigurationTests {
+
+    @Override
+    protected String getAlgorithm() {
+        return "RSA";
+    }
+
+    private JWTClaimsSet buildClaims() {
+        return new JWTClaimsSet.Builder().subject(VALUE).build();
+    }
+
+    @Test
+    public void testMissingJwkSource() {
+        val config = new JWKSourceSignatureConfiguration();
+        TestsHelper.expectException(config::init, TechnicalException.class, "jwkSource cannot be null");
+    }
+
+    @Test
+    public void testSupports() {
+        val config = new JWKSourceSignatureConfiguration();
+        assertTrue(config.supports(JWSAlgorithm.RS256));
+        assertTrue(config.supports(JWSAlgorithm.ES256));
+        assertFalse(config.supports(JWSAlgorithm.HS256));
+    }
+
+    @Test
+    public void testSharedJwkSource() throws Exception {
+        val url = new URI(PAC4J_BASE_URL).toURL();
+        try {
+            assertSame(JWKSourceCache.get(url, null), new JWKSourceSignatureConfiguration(url).getJwkSource());
+        } finally {
+            JWKSourceCache.remove(url);
+        }
+    }
+
+    @Test
+    public void testVerify() throws JOSEException {
+        val keyPair = buildKeyPair();
+        val otherKeyPair = buildKeyPair();
+        val jwks = new JWKSet(List.of(
+            new RSAKey.Builder((RSAPublicKey) otherKeyPair.getPublic()).keyID("key1").build(),
+            new RSAKey.Builder((RSAPublicKey) keyPair.getPublic()).keyID("key2").build()));
+        val config = new JWKSourceSignatureConfiguration(new ImmutableJWKSet<>(jwks));
+
+        val signer = new RSASignatureConfiguration(keyPair);
+        signer.setKeyId("key2");
+        assertTrue(config.verify(signer.sign(buildClaims())));
+
+        val unknownSigner = new RSASignatureConfiguration(buildKeyPair());
+        unknownSigner.setKeyId("key2");
+        assertFalse(config.verify(unknownSigner.sign(buildClaims())));
+    }
+
+    @Test
+    public void testKeyRotation() throws JOSEException {
+        val keyPair = buildKeyPair();
+        val jwks = new AtomicReference<>(new JWKSet(new RSAKey.Builder((RSAPublicKey) keyPair.getPublic()).keyID("key").build()));
+        val config = new JWKSourceSignatureConfiguration((selector, context) -> selector.select(jwks.get()));
+
+        val signer = new RSASignatureConfiguration(keyPair);
+        signer.setKeyId("key");
+        assertTrue(config.verify(signer.sign(buildClaims())));
+        assertTrue(config.verify(signer.sign(buildClaims())));
+
+        val newKeyPair = buildKeyPair();
+        jwks.set(new JWKSet(new RSAKey.Builder((RSAPublicKey) newKeyPair.getPublic()).keyID("key").build()));
+        val newSigner = new RSASignatureConfiguration(newKeyPair);
+        newSigner.setKeyId("key");
+        assertTrue(config.verify(newSigner.sign(buildClaims())));
+        assertFalse(config.verify(signer.sign(buildClaims())));
+    }
+}
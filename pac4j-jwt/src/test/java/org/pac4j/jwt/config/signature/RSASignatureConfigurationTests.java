@@ -14,6 +14,10 @@ import org.pac4j.jwt.util.JWKHelper;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -73,4 +77,26 @@ public final class RSASignatureConfigurationTests extends AbstractKeyEncryptionC
         val signedJwt = config.sign(claims);
         assertTrue(config.verify(signedJwt));
     }
+
+    @Test
+    public void testKeyRotation() throws JOSEException {
+        val config = new RSASignatureConfiguration(buildKeyPair());
+        val signedJwt = config.sign(buildClaims());
+        assertTrue(config.verify(signedJwt));
+        assertTrue(config.verify(config.sign(buildClaims())));
+
+        config.setKeyPair(buildKeyPair());
+        assertFalse(config.verify(signedJwt));
+        assertTrue(config.verify(config.sign(buildClaims())));
+    }
+
+    @Test
+    public void testKeyIdentifiers() throws JOSEException {
+        val keyPair = buildKeyPair();
+        val config = new RSASignatureConfiguration(keyPair);
+        config.setKeyId(KEY);
+        val thumbprint = new RSAKey.Builder((RSAPublicKey) keyPair.getPublic()).build().computeThumbprint().toString();
+        assertEquals(List.of(KEY, thumbprint), config.getKeyIdentifiers());
+        assertEquals(KEY, config.sign(buildClaims()).getHeader().getKeyID());
+    }
 }
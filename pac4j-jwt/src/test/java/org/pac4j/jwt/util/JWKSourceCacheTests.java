@@ -0,0 +1,62 @@
+package org.pac4j.jwt.util;
+
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import lombok.val;
+import org.junit.After;
+import org.junit.Test;
+import org.pac4j.core.util.TestsConstants;
+
+import java.net.URI;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link JWKSourceCache}.
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+public final class JWKSourceCacheTests implements TestsConstants {
+
+    @After
+    public void tearDown() {
+        JWKSourceCache.clear();
+        JWKSourceCache.setMaxSize(JWKSourceCache.DEFAULT_MAX_SIZE);
+    }
+
+    @Test
+    public void testSharedBySettings() throws Exception {
+        val url = new URI(PAC4J_BASE_URL).toURL();
+        val retriever = new DefaultResourceRetriever();
+        val source = JWKSourceCache.get(url, retriever);
+        assertSame(source, JWKSourceCache.get(url, retriever, JWKSourceCache.Settings.DEFAULT));
+
+        assertSame(source, JWKSourceCache.get(url, new DefaultResourceRetriever()));
+        assertNotSame(source, JWKSourceCache.get(url, new DefaultResourceRetriever(1000, 1000)));
+        assertNotSame(source, JWKSourceCache.get(url, retriever, new JWKSourceCache.Settings(1000, 100, 100, 100, 1000)));
+        assertNotSame(source, JWKSourceCache.get(new URI(PAC4J_URL).toURL(), retriever));
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        val url = new URI(PAC4J_BASE_URL).toURL();
+        val otherUrl = new URI(PAC4J_URL).toURL();
+        val source = JWKSourceCache.get(url, null);
+        val otherSource = JWKSourceCache.get(otherUrl, null);
+        JWKSourceCache.remove(url);
+        assertNotSame(source, JWKSourceCache.get(url, null));
+        assertSame(otherSource, JWKSourceCache.get(otherUrl, null));
+    }
+
+    @Test
+    public void testMaxSize() throws Exception {
+        JWKSourceCache.setMaxSize(2);
+        val url = new URI(PAC4J_BASE_URL).toURL();
+        val source = JWKSourceCache.get(url, null);
+        JWKSourceCache.get(new URI(PAC4J_URL).toURL(), null);
+        JWKSourceCache.get(url, null);
+        JWKSourceCache.get(new URI(CALLBACK_URL).toURL(), null);
+        assertEquals(2, JWKSourceCache.size());
+        assertSame(source, JWKSourceCache.get(url, null));
+    }
+}
@@ -21,6 +21,7 @@ import org.pac4j.core.client.config.BaseClientConfiguration;
 import org.pac4j.core.context.HttpConstants;
 import org.pac4j.core.util.generator.RandomValueGenerator;
 import org.pac4j.core.util.generator.ValueGenerator;
+import org.pac4j.jwt.util.JWKSourceCache;
 import org.pac4j.oidc.exceptions.OidcConfigurationException;
 import org.pac4j.oidc.metadata.OidcOpMetadataResolver;
 import org.pac4j.oidc.util.SessionStoreValueRetriever;
@@ -39,6 +40,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
 
 import static org.pac4j.core.util.CommonHelper.assertNotBlank;
 import static org.pac4j.core.util.CommonHelper.assertNotNull;
@@ -231,6 +233,21 @@ public class OidcConfiguration extends BaseClientConfiguration {
 
     private boolean logoutValidation = true;
 
+    /* interval (in seconds) of the background refresh of the OP metadata (disabled if zero or less) */
+    private int metadataRefreshInterval = 0;
+
+    /* random jitter (as a fraction of the delay) applied to the background refreshes of the OP metadata */
+    private double metadataRefreshJitter = 0.1;
+
+    /* max delay (in seconds) between two background refreshes of the OP metadata after failures */
+    private int metadataRefreshMaxBackoff = 3600;
+
+    /* executor of the background refreshes of the OP metadata (a daemon thread is created if not defined) */
+    private ScheduledExecutorService metadataRefreshExecutor;
+
+    /* settings (time to live, refresh ahead time...) of the JWK set shared with the clients having the same settings */
+    private JWKSourceCache.Settings jwkSourceSettings = JWKSourceCache.Settings.DEFAULT;
+
     /**
      * {@inheritDoc}
      */
@@ -253,7 +270,7 @@ public class OidcConfiguration extends BaseClientConfiguration {
         // default value
         if (forceReinit || getResourceRetriever() == null) {
             try {
-                setResourceRetriever(new OidcResourceRetriever());
+                setResourceRetriever(new OidcResourceRetriever(getConnectTimeout(), getReadTimeout(), sslSocketFactory, hostnameVerifier));
             } catch (final Exception e) {
                 throw new OidcConfigurationException("SSLFactory loaded fail, please check your configuration");
             }
@@ -456,28 +473,51 @@ public class OidcConfiguration extends BaseClientConfiguration {
         return responseType.toString();
     }
 
-    private class OidcResourceRetriever extends DefaultResourceRetriever {
+    /**
+     * The resource retriever of the configuration: two retrievers with the same settings are equal,
+     * so that they can share the same resources (like the JWK sets of the {@link JWKSourceCache}).
+     * It does not reference the configuration, which can be garbage collected while the JWK set is still shared.
+     */
+    private static class OidcResourceRetriever extends DefaultResourceRetriever {
 
-        public OidcResourceRetriever() {
-            setConnectTimeout(OidcConfiguration.this.getConnectTimeout());
-            setReadTimeout(OidcConfiguration.this.getReadTimeout());
-            if (sslSocketFactory != null) {
-                setSslSocketFactory(sslSocketFactory);
-            }
+        private final SSLSocketFactory retrieverSslSocketFactory;
+
+        private final HostnameVerifier retrieverHostnameVerifier;
+
+        public OidcResourceRetriever(final int connectTimeout, final int readTimeout, final SSLSocketFactory sslSocketFactory,
+                                     final HostnameVerifier hostnameVerifier) {
+            super(connectTimeout, readTimeout, 0, true, sslSocketFactory);
+            this.retrieverSslSocketFactory = sslSocketFactory;
+            this.retrieverHostnameVerifier = hostnameVerifier;
         }
 
         @Override
         protected HttpURLConnection openHTTPConnection(URL url) throws IOException {
             var connection = super.openHTTPConnection(url);
             if (connection instanceof HttpsURLConnection) {
-                if (sslSocketFactory != null) {
-                    ((HttpsURLConnection) connection).setSSLSocketFactory(sslSocketFactory);
+                if (retrieverSslSocketFactory != null) {
+                    ((HttpsURLConnection) connection).setSSLSocketFactory(retrieverSslSocketFactory);
                 }
-                if (hostnameVerifier != null) {
-                    ((HttpsURLConnection) connection).setHostnameVerifier(hostnameVerifier);
+                if (retrieverHostnameVerifier != null) {
+                    ((HttpsURLConnection) connection).setHostnameVerifier(retrieverHostnameVerifier);
                 }
             }
             return connection;
         }
+
+        private List<Object> getSettings() {
+            return Arrays.asList(super.getConnectTimeout(), super.getReadTimeout(), getSizeLimit(), getProxy(), getHeaders(),
+                disconnectsAfterUse(), retrieverSslSocketFactory, retrieverHostnameVerifier);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o != null && o.getClass() == getClass() && getSettings().equals(((OidcResourceRetriever) o).getSettings());
+        }
+
+        @Override
+        public int hashCode() {
+            return getSettings().hashCode();
+        }
     }
 }
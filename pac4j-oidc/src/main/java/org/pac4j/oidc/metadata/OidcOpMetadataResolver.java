@@ -7,7 +7,6 @@ import com.nimbusds.oauth2.sdk.auth.*;
 import com.nimbusds.oauth2.sdk.id.ClientID;
 import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
 import lombok.EqualsAndHashCode;
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.pac4j.core.resource.SpringResourceHelper;
@@ -21,10 +20,17 @@ import org.springframework.core.io.UrlResource;
 
 import javax.net.ssl.HttpsURLConnection;
 import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import static org.pac4j.core.util.CommonHelper.assertNotNull;
 import static org.pac4j.core.util.CommonHelper.isNotEmpty;
@@ -32,6 +38,16 @@ import static org.pac4j.core.util.CommonHelper.isNotEmpty;
 /**
  * The metadata resolver for the OIDC OP.
  *
+ * <p>If a {@code OidcConfiguration#getMetadataRefreshInterval()} is defined for a discovery URL, the metadata are refreshed
+ * in the background (with a random jitter, waiting longer if the <code>Cache-Control: max-age</code> directive requires it,
+ * never less than the refresh interval, and revalidating with the <code>ETag</code> and <code>Last-Modified</code> headers
+ * of the previous response, including the initial load) and the cached metadata are served meanwhile,
+ * so that the request threads never wait for the discovery document. On failure, the cached metadata are kept
+ * and the refresh is retried with an exponential backoff.</p>
+ *
+ * <p>The client authentication and the token validator are built from the new metadata before being published
+ * together with them.</p>
+ *
  * @author Jerome LELEU
  * @since 6.0.0
  */
@@ -45,13 +61,25 @@ public class OidcOpMetadataResolver extends SpringResourceLoader<OIDCProviderMet
             ClientAuthenticationMethod.PRIVATE_KEY_JWT,
             ClientAuthenticationMethod.NONE);
 
+    private static final long MIN_REFRESH_DELAY = 1000;
+
+    private static final long MIN_RETRY_DELAY = 5000;
+
     protected final OidcConfiguration configuration;
 
-    @Getter
-    protected ClientAuthentication clientAuthentication;
+    private volatile State state;
+
+    private volatile ScheduledExecutorService refreshExecutor;
+
+    private boolean ownRefreshExecutor;
+
+    private ScheduledFuture<?> refreshTask;
 
-    @Getter
-    protected TokenValidator tokenValidator;
+    private String etag;
+
+    private String lastModifiedHeader;
+
+    private int refreshFailures;
 
     /**
      * <p>Constructor for OidcOpMetadataResolver.</p>
@@ -75,11 +103,49 @@ public class OidcOpMetadataResolver extends SpringResourceLoader<OIDCProviderMet
 
     @Override
     protected void internalLoad() {
-        this.loaded = retrieveMetadata();
+        if (isRefreshable()) {
+            // full load, recording the validators of the response for the next (conditional) refresh
+            etag = null;
+            lastModifiedHeader = null;
+            val maxAge = revalidateMetadata();
+            startBackgroundRefresh(computeRefreshDelay(maxAge));
+        } else {
+            update(retrieveMetadata());
+        }
+    }
 
-        this.clientAuthentication = computeClientAuthentication();
+    private boolean isRefreshable() {
+        return configuration.getMetadataRefreshInterval() > 0 && resource instanceof UrlResource;
+    }
 
-        this.tokenValidator = createTokenValidator();
+    /**
+     * Replace the metadata and the objects depending on them. If they cannot be built, the previous metadata are kept.
+     *
+     * @param metadata the new metadata
+     */
+    protected synchronized void update(final OIDCProviderMetadata metadata) {
+        this.state = new State(metadata, computeClientAuthentication(metadata), createTokenValidator(metadata));
+        this.loaded = metadata;
+    }
+
+    /**
+     * Return the client authentication built from the current metadata.
+     *
+     * @return the client authentication
+     */
+    public ClientAuthentication getClientAuthentication() {
+        val current = state;
+        return current != null ? current.clientAuthentication() : null;
+    }
+
+    /**
+     * Return the token validator built from the current metadata.
+     *
+     * @return the token validator
+     */
+    public TokenValidator getTokenValidator() {
+        val current = state;
+        return current != null ? current.tokenValidator() : null;
     }
 
     /**
@@ -96,24 +162,191 @@ public class OidcOpMetadataResolver extends SpringResourceLoader<OIDCProviderMet
             configuration.getConnectTimeout(),
             configuration.getReadTimeout()
         )) {
-            val metadata = IOUtils.readInputStreamToString(in);
-            return OIDCProviderMetadata.parse(metadata);
+            return parseMetadata(IOUtils.readInputStreamToString(in));
         } catch (final IOException | ParseException e) {
             throw new OidcException("Error getting OP metadata", e);
         }
     }
 
+    /**
+     * Parse the discovery document.
+     *
+     * @param metadata the discovery document
+     * @return the metadata
+     * @throws ParseException if the document cannot be parsed
+     */
+    protected OIDCProviderMetadata parseMetadata(final String metadata) throws ParseException {
+        return OIDCProviderMetadata.parse(metadata);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean isRefreshedInBackground() {
+        return refreshExecutor != null;
+    }
+
+    /**
+     * Start the background refresh of the metadata, if enabled and not already started.
+     */
+    protected void startBackgroundRefresh() {
+        startBackgroundRefresh(getRefreshInterval());
+    }
+
+    private synchronized void startBackgroundRefresh(final long firstDelay) {
+        if (refreshExecutor != null || !isRefreshable()) {
+            return;
+        }
+
+        var executor = configuration.getMetadataRefreshExecutor();
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                val thread = new Thread(runnable, "pac4j-oidc-metadata-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ownRefreshExecutor = true;
+        }
+        refreshExecutor = executor;
+        LOGGER.debug("Refreshing the OP metadata every {} seconds in the background", configuration.getMetadataRefreshInterval());
+        scheduleRefresh(firstDelay);
+    }
+
+    /**
+     * Stop the background refresh of the metadata: they will be checked for changes on load again.
+     */
+    public synchronized void stopBackgroundRefresh() {
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+            refreshTask = null;
+        }
+        if (refreshExecutor != null && ownRefreshExecutor) {
+            refreshExecutor.shutdownNow();
+        }
+        refreshExecutor = null;
+        ownRefreshExecutor = false;
+    }
+
+    private long getRefreshInterval() {
+        return TimeUnit.SECONDS.toMillis(configuration.getMetadataRefreshInterval());
+    }
+
+    private long computeRefreshDelay(final long maxAge) {
+        // the max age may only lengthen the refresh interval: a misconfigured OP cannot make us poll it more often
+        return Math.max(getRefreshInterval(), TimeUnit.SECONDS.toMillis(maxAge));
+    }
+
+    private synchronized void scheduleRefresh(final long delay) {
+        if (refreshExecutor != null) {
+            val jitter = configuration.getMetadataRefreshJitter();
+            var jitteredDelay = delay;
+            if (jitter > 0) {
+                jitteredDelay += (long) (delay * jitter * ThreadLocalRandom.current().nextDouble(-1, 1));
+            }
+            refreshTask = refreshExecutor.schedule(this::refresh, Math.max(jitteredDelay, MIN_REFRESH_DELAY), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Refresh the metadata and schedule the next refresh.
+     */
+    protected void refresh() {
+        long delay;
+        try {
+            val maxAge = revalidateMetadata();
+            refreshFailures = 0;
+            delay = computeRefreshDelay(maxAge);
+        } catch (final RuntimeException e) {
+            refreshFailures++;
+            LOGGER.warn("Cannot refresh the OP metadata (failures: {}), keeping the cached ones: {}", refreshFailures, e.getMessage());
+            LOGGER.debug("Cannot refresh the OP metadata", e);
+            delay = Math.min(MIN_RETRY_DELAY << Math.min(refreshFailures - 1, 20),
+                TimeUnit.SECONDS.toMillis(configuration.getMetadataRefreshMaxBackoff()));
+        }
+        scheduleRefresh(delay);
+    }
+
+    /**
+     * Retrieve the metadata again if they have changed (conditional request) and update them.
+     *
+     * @return the max age (in seconds) of the metadata given by the <code>Cache-Control</code> header, or -1 if none
+     */
+    protected long revalidateMetadata() {
+        HttpURLConnection connection = null;
+        try {
+            val urlConnection = resource.getURL().openConnection();
+            if (!(urlConnection instanceof HttpURLConnection)) {
+                update(retrieveMetadata());
+                return -1;
+            }
+            connection = (HttpURLConnection) urlConnection;
+            if (connection instanceof final HttpsURLConnection httpsConnection) {
+                if (configuration.getHostnameVerifier() != null) {
+                    httpsConnection.setHostnameVerifier(configuration.getHostnameVerifier());
+                }
+                if (configuration.getSslSocketFactory() != null) {
+                    httpsConnection.setSSLSocketFactory(configuration.getSslSocketFactory());
+                }
+            }
+            connection.setConnectTimeout(configuration.getConnectTimeout());
+            connection.setReadTimeout(configuration.getReadTimeout());
+            if (etag != null) {
+                connection.setRequestProperty("If-None-Match", etag);
+            }
+            if (lastModifiedHeader != null) {
+                connection.setRequestProperty("If-Modified-Since", lastModifiedHeader);
+            }
+
+            val status = connection.getResponseCode();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                LOGGER.debug("OP metadata not modified");
+            } else if (status == HttpURLConnection.HTTP_OK) {
+                try (val in = connection.getInputStream()) {
+                    update(parseMetadata(IOUtils.readInputStreamToString(in)));
+                }
+                etag = connection.getHeaderField("ETag");
+                lastModifiedHeader = connection.getHeaderField("Last-Modified");
+                LOGGER.debug("OP metadata refreshed");
+            } else {
+                throw new OidcException("Unexpected HTTP status when refreshing OP metadata: " + status);
+            }
+            return parseMaxAge(connection.getHeaderField("Cache-Control"));
+        } catch (final IOException | ParseException e) {
+            throw new OidcException("Error refreshing OP metadata", e);
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    private static long parseMaxAge(final String cacheControl) {
+        if (cacheControl != null) {
+            for (val directive : cacheControl.split(",")) {
+                val value = directive.trim().toLowerCase(Locale.ROOT);
+                if (value.startsWith("max-age=")) {
+                    try {
+                        return Long.parseLong(value.substring("max-age=".length()));
+                    } catch (final NumberFormatException e) {
+                        return -1;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
     /**
      * <p>computeClientAuthentication.</p>
      *
+     * @param metadata the metadata
      * @return a {@link ClientAuthentication} object
      */
-    protected ClientAuthentication computeClientAuthentication() {
+    protected ClientAuthentication computeClientAuthentication(final OIDCProviderMetadata metadata) {
         val _clientID = new ClientID(configuration.getClientId());
 
         if (configuration.getSecret() != null || configuration.getPrivateKeyJWTClientAuthnMethodConfig() != null) {
             // check authentication methods
-            val serverSupportedAuthMethods = this.loaded.getTokenEndpointAuthMethods();
+            val serverSupportedAuthMethods = metadata.getTokenEndpointAuthMethods();
             val preferredMethod = getPreferredAuthenticationMethod(configuration);
 
             final ClientAuthenticationMethod chosenMethod;
@@ -151,7 +384,7 @@ public class OidcOpMetadataResolver extends SpringResourceLoader<OIDCProviderMet
                 assertNotNull("privateKeyJwtConfig.getPrivateKey()", privateKey);
                 val keyID = privateKeyJwtConfig.getKeyID();
                 try {
-                    return new PrivateKeyJWT(_clientID, this.loaded.getTokenEndpointURI(), jwsAlgo, privateKey, keyID, null);
+                    return new PrivateKeyJWT(_clientID, metadata.getTokenEndpointURI(), jwsAlgo, privateKey, keyID, null);
                 } catch (final JOSEException e) {
                     throw new OidcException("Cannot instantiate private key JWT client authentication method", e);
                 }
@@ -191,8 +424,24 @@ public class OidcOpMetadataResolver extends SpringResourceLoader<OIDCProviderMet
         }
     }
 
-    protected TokenValidator createTokenValidator() {
-        return new TokenValidator(configuration, this.loaded);
+    /**
+     * Create the token validator.
+     *
+     * @param metadata the metadata
+     * @return the token validator
+     */
+    protected TokenValidator createTokenValidator(final OIDCProviderMetadata metadata) {
+        return new TokenValidator(configuration, metadata);
+    }
+
+    /**
+     * The metadata and the objects built from them, published at once.
+     *
+     * @param metadata the metadata
+     * @param clientAuthentication the client authentication
+     * @param tokenValidator the token validator
+     */
+    private record State(OIDCProviderMetadata metadata, ClientAuthentication clientAuthentication, TokenValidator tokenValidator) {
     }
 
     @EqualsAndHashCode(callSuper = true)
@@ -27,10 +27,6 @@ public class StaticOidcOpMetadataResolver extends OidcOpMetadataResolver {
     /** {@inheritDoc} */
     @Override
     protected void internalLoad() {
-        this.loaded = staticMetadata;
-
-        this.clientAuthentication = computeClientAuthentication();
-
-        this.tokenValidator = createTokenValidator();
+        update(staticMetadata);
     }
 }
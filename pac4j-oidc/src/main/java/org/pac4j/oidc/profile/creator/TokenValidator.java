@@ -3,6 +3,7 @@ package org.pac4j.oidc.profile.creator;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
 import com.nimbusds.jwt.JWT;
 import com.nimbusds.oauth2.sdk.auth.Secret;
 import com.nimbusds.oauth2.sdk.id.ClientID;
@@ -18,6 +19,7 @@ import org.pac4j.core.util.CommonHelper;
 import org.pac4j.oidc.config.OidcConfiguration;
 import org.pac4j.oidc.exceptions.OidcException;
 import org.pac4j.oidc.exceptions.OidcTokenException;
+import org.pac4j.jwt.util.JWKSourceCache;
 
 import java.net.MalformedURLException;
 import java.util.ArrayList;
@@ -97,7 +99,7 @@ public class TokenValidator {
     }
 
     /**
-     * <p>createRSATokenValidator.</p>
+     * Create a validator based on the shared JWK set of the provider (see {@link JWKSourceCache}).
      *
      * @param jwsAlgorithm a {@link JWSAlgorithm} object
      * @param clientID a {@link ClientID} object
@@ -105,8 +107,9 @@ public class TokenValidator {
      */
     protected IDTokenValidator createRSATokenValidator(final JWSAlgorithm jwsAlgorithm, final ClientID clientID) {
         try {
-            return new IDTokenValidator(metadata.getIssuer(), clientID, jwsAlgorithm, metadata.getJWKSetURI().toURL(),
-                configuration.findResourceRetriever());
+            val jwkSource = JWKSourceCache.get(metadata.getJWKSetURI().toURL(), configuration.findResourceRetriever(),
+                configuration.getJwkSourceSettings());
+            return new IDTokenValidator(metadata.getIssuer(), clientID, new JWSVerificationKeySelector<>(jwsAlgorithm, jwkSource), null);
         } catch (final MalformedURLException e) {
             throw new OidcException(e);
         }
@@ -1,11 +1,18 @@
 package org.pac4j.oidc.metadata;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import com.nimbusds.oauth2.sdk.auth.ClientAuthenticationMethod;
+import com.nimbusds.oauth2.sdk.id.Issuer;
+import fi.iki.elonen.NanoHTTPD;
+import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.val;
 import org.junit.Assert;
 import org.junit.Test;
 import org.pac4j.core.exception.TechnicalException;
@@ -50,5 +57,136 @@ public class OidcOpMetadataResolverTest extends OidcOpMetadataResolverTestBase {
         }
     }
 
+    @Test
+    public void shouldKeepThePreviousStateOnFailedUpdate() throws URISyntaxException {
+        OidcConfiguration configuration = getOidcConfiguration(Set.of(ClientAuthenticationMethod.CLIENT_SECRET_BASIC), "test");
+        OidcOpMetadataResolver metadataResolver = getStaticMetadataResolver(configuration,
+            List.of(ClientAuthenticationMethod.CLIENT_SECRET_BASIC));
+        val metadata = metadataResolver.load();
+        val clientAuthentication = metadataResolver.getClientAuthentication();
+        val tokenValidator = metadataResolver.getTokenValidator();
+
+        try {
+            metadataResolver.update(getOidcProviderMetadata(List.of(ClientAuthenticationMethod.CLIENT_SECRET_POST)));
+            Assert.fail("TechnicalException expected");
+        } catch (TechnicalException e) {
+            assertSame(metadata, metadataResolver.load());
+            assertSame(clientAuthentication, metadataResolver.getClientAuthentication());
+            assertSame(tokenValidator, metadataResolver.getTokenValidator());
+        }
+    }
+
+    @Test
+    public void shouldRefreshInBackground() throws IOException, URISyntaxException, InterruptedException {
+        val server = new MetadataServer();
+        server.start(NanoHTTPD.SOCKET_READ_TIMEOUT, true);
+        try {
+            val configuration = getOidcConfiguration(null, "http://localhost:" + server.getListeningPort() + "/");
+            configuration.setMetadataRefreshInterval(1);
+            configuration.setMetadataRefreshJitter(0);
+            val metadataResolver = new OidcOpMetadataResolver(configuration);
+            metadataResolver.init();
+            try {
+                assertEquals("issuer1", metadataResolver.load().getIssuer().getValue());
+                assertEquals("issuer1", metadataResolver.load().getIssuer().getValue());
+                assertEquals(1, server.requests.get());
+
+                server.version.set(2);
+                waitFor(() -> "issuer2".equals(metadataResolver.load().getIssuer().getValue()));
+                waitFor(() -> server.notModified.get() > 0);
+
+                server.failing = true;
+                val requests = server.requests.get();
+                waitFor(() -> server.requests.get() > requests);
+                assertEquals("issuer2", metadataResolver.load().getIssuer().getValue());
+            } finally {
+                metadataResolver.stopBackgroundRefresh();
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void shouldNotRefreshMoreOftenThanTheInterval() throws IOException, URISyntaxException, InterruptedException {
+        val server = new MetadataServer();
+        server.cacheControl = "max-age=1";
+        server.start(NanoHTTPD.SOCKET_READ_TIMEOUT, true);
+        try {
+            val configuration = getOidcConfiguration(null, "http://localhost:" + server.getListeningPort() + "/");
+            configuration.setMetadataRefreshInterval(2);
+            configuration.setMetadataRefreshJitter(0);
+            val metadataResolver = new OidcOpMetadataResolver(configuration);
+            metadataResolver.init();
+            try {
+                assertEquals("issuer1", metadataResolver.load().getIssuer().getValue());
+                Thread.sleep(1500);
+                assertEquals(1, server.requests.get());
 
+                // the first refresh is conditional: the validators of the initial load are used
+                waitFor(() -> server.requests.get() > 1);
+                assertEquals(1, server.notModified.get());
+            } finally {
+                metadataResolver.stopBackgroundRefresh();
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static void waitFor(final java.util.function.BooleanSupplier condition) throws InterruptedException {
+        for (var i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static final class MetadataServer extends NanoHTTPD {
+
+        private final AtomicInteger version = new AtomicInteger(1);
+
+        private final AtomicInteger requests = new AtomicInteger();
+
+        private final AtomicInteger notModified = new AtomicInteger();
+
+        private volatile boolean failing;
+
+        private volatile String cacheControl;
+
+        private MetadataServer() {
+            super(0);
+        }
+
+        @Override
+        public Response serve(final IHTTPSession session) {
+            requests.incrementAndGet();
+            if (failing) {
+                return newFixedLengthResponse(Response.Status.INTERNAL_ERROR, "text/plain", "error");
+            }
+            val etag = "\"v" + version.get() + "\"";
+            if (etag.equals(session.getHeaders().get("if-none-match"))) {
+                notModified.incrementAndGet();
+                return withCacheControl(newFixedLengthResponse(Response.Status.NOT_MODIFIED, "application/json", ""));
+            }
+            try {
+                val metadata = getOidcProviderMetadata(List.of(ClientAuthenticationMethod.CLIENT_SECRET_POST));
+                val json = new com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata(new Issuer("issuer" + version.get()),
+                    metadata.getSubjectTypes(), metadata.getJWKSetURI());
+                json.setIDTokenJWSAlgs(metadata.getIDTokenJWSAlgs());
+                json.setTokenEndpointAuthMethods(metadata.getTokenEndpointAuthMethods());
+                val response = newFixedLengthResponse(Response.Status.OK, "application/json", json.toJSONObject().toJSONString());
+                response.addHeader("ETag", etag);
+                return withCacheControl(response);
+            } catch (final URISyntaxException e) {
+                return newFixedLengthResponse(Response.Status.INTERNAL_ERROR, "text/plain", e.getMessage());
+            }
+        }
+
+        private Response withCacheControl(final Response response) {
+            if (cacheControl != null) {
+                response.addHeader("Cache-Control", cacheControl);
+            }
+            return response;
+        }
+    }
 }
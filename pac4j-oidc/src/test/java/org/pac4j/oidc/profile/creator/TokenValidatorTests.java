@@ -1,6 +1,8 @@
 package org.pac4j.oidc.profile.creator;
 
 import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.oauth2.sdk.id.Issuer;
 import com.nimbusds.openid.connect.sdk.Nonce;
@@ -15,6 +17,7 @@ import org.pac4j.core.util.TestsHelper;
 import org.pac4j.jwt.config.signature.SecretSignatureConfiguration;
 import org.pac4j.jwt.profile.JwtGenerator;
 import org.pac4j.oidc.config.OidcConfiguration;
+import org.pac4j.jwt.util.JWKSourceCache;
 
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -48,6 +51,7 @@ public final class TokenValidatorTests implements TestsConstants {
         when(metadata.getJWKSetURI()).thenReturn(new URI(PAC4J_BASE_URL));
         when(configuration.getClientId()).thenReturn(ID);
         when(configuration.getSecret()).thenReturn(CLIENT_SECRET);
+        when(configuration.getJwkSourceSettings()).thenReturn(JWKSourceCache.Settings.DEFAULT);
         algorithms = new ArrayList<>();
         when(metadata.getIDTokenJWSAlgs()).thenReturn(algorithms);
     }
@@ -95,6 +99,18 @@ public final class TokenValidatorTests implements TestsConstants {
         assertEquals(2, validators.size());
     }
 
+    @Test
+    public void testSharedJwkSource() throws Exception {
+        algorithms.add(JWSAlgorithm.RS256);
+        algorithms.add(JWSAlgorithm.RS384);
+        final List<IDTokenValidator> validators = new TokenValidator(configuration, metadata).getIdTokenValidators();
+        final List<IDTokenValidator> otherValidators = new TokenValidator(configuration, metadata).getIdTokenValidators();
+        final JWKSource<?> jwkSource = JWKSourceCache.get(new URI(PAC4J_BASE_URL).toURL(), null);
+        assertSame(jwkSource, ((JWSVerificationKeySelector<?>) validators.get(0).getJWSKeySelector()).getJWKSource());
+        assertSame(jwkSource, ((JWSVerificationKeySelector<?>) validators.get(1).getJWSKeySelector()).getJWKSource());
+        assertSame(jwkSource, ((JWSVerificationKeySelector<?>) otherValidators.get(0).getJWSKeySelector()).getJWKSource());
+    }
+
     @Test
     public void testTwoAlgorithmsOnePreferred() {
         algorithms.add(JWSAlgorithm.HS256);
@@ -23,12 +23,13 @@ import org.pac4j.saml.logout.SAML2LogoutActionBuilder;
 import org.pac4j.saml.logout.impl.SAML2LogoutRequestMessageSender;
 import org.pac4j.saml.logout.impl.SAML2LogoutValidator;
 import org.pac4j.saml.logout.processor.SAML2LogoutProcessor;
+import org.pac4j.saml.metadata.SAML2IdentityProviderMetadataResolver;
 import org.pac4j.saml.metadata.SAML2MetadataResolver;
 import org.pac4j.saml.metadata.SAML2ServiceProviderMetadataResolver;
 import org.pac4j.saml.profile.api.SAML2ResponseValidator;
 import org.pac4j.saml.redirect.SAML2RedirectionActionBuilder;
-import org.pac4j.saml.replay.InMemoryReplayCacheProvider;
 import org.pac4j.saml.replay.ReplayCacheProvider;
+import org.pac4j.saml.replay.ShardedInMemoryReplayCacheProvider;
 import org.pac4j.saml.sso.artifact.DefaultSOAPPipelineProvider;
 import org.pac4j.saml.sso.artifact.SOAPPipelineProvider;
 import org.pac4j.saml.sso.impl.SAML2AuthnResponseValidator;
@@ -256,12 +257,15 @@ public class SAML2Client extends IndirectClient implements Closeable {
 
     protected void initSAMLReplayCache(final boolean forceReinit) {
         if (replayCache == null || forceReinit) {
-            replayCache = new InMemoryReplayCacheProvider();
+            replayCache = new ShardedInMemoryReplayCacheProvider();
         }
     }
 
     public void destroy() {
         ((SAML2ServiceProviderMetadataResolver) serviceProviderMetadataResolver).destroy();
+        if (identityProviderMetadataResolver instanceof SAML2IdentityProviderMetadataResolver idpMetadataResolver) {
+            idpMetadataResolver.stopBackgroundRefresh();
+        }
     }
 
     @Override
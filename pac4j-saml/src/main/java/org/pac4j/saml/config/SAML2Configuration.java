@@ -40,6 +40,8 @@ import javax.net.ssl.SSLSocketFactory;
 import java.net.URL;
 import java.time.Period;
 import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 /**
@@ -216,6 +218,31 @@ public class SAML2Configuration extends BaseClientConfiguration {
 
     private int identityProviderMetadataReadTimeout = 2500;
 
+    /**
+     * Whether the idp metadata are parsed in streaming, keeping only the entity descriptors of identity providers matching
+     * the {@link #identityProviderEntityId} (or the {@link #identityProviderEntityIdFilter}) instead of building the DOM
+     * of the whole metadata: recommended for large federation metadata.
+     */
+    private boolean identityProviderMetadataStreaming = false;
+
+    /**
+     * In streaming mode, the filter of the entity identifiers to keep when no {@link #identityProviderEntityId} is defined.
+     */
+    private Predicate<String> identityProviderEntityIdFilter;
+
+    /**
+     * The path of the on-disk copy of the idp metadata downloaded from a URL: it is revalidated with the <code>ETag</code>
+     * and <code>Last-Modified</code> headers of the previous download and it is used at startup without downloading again.
+     */
+    private String identityProviderMetadataCachePath;
+
+    /**
+     * The interval (in seconds) of the background refresh of the idp metadata downloaded from a URL (0 to disable it).
+     */
+    private int identityProviderMetadataRefreshInterval = 0;
+
+    private ScheduledExecutorService identityProviderMetadataRefreshExecutor;
+
     /**
      * <p>Constructor for SAML2Configuration.</p>
      *
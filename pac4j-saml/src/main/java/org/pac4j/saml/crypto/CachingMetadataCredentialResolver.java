@@ -0,0 +1,84 @@
+package org.pac4j.saml.crypto;
+
+import lombok.val;
+import net.shibboleth.shared.resolver.CriteriaSet;
+import net.shibboleth.shared.resolver.ResolverException;
+import org.opensaml.core.criterion.EntityIdCriterion;
+import org.opensaml.saml.criterion.EntityRoleCriterion;
+import org.opensaml.saml.criterion.ProtocolCriterion;
+import org.opensaml.saml.security.impl.MetadataCredentialResolver;
+import org.opensaml.security.credential.Credential;
+import org.opensaml.security.criteria.UsageCriterion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link MetadataCredentialResolver} caching the credentials resolved for an entity ID (and role, protocol and usage).
+ *
+ * Its lifecycle is bound to the metadata it resolves from: it must be rebuilt when they are refreshed.
+ * The criteria sets containing other criteria are not cached.
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+public class CachingMetadataCredentialResolver extends MetadataCredentialResolver {
+
+    private final Map<CacheKey, List<Credential>> cache = new ConcurrentHashMap<>();
+
+    /** {@inheritDoc} */
+    @Override
+    protected Iterable<Credential> resolveFromSource(final CriteriaSet criteriaSet) throws ResolverException {
+        val key = buildCacheKey(criteriaSet);
+        if (key == null) {
+            return super.resolveFromSource(criteriaSet);
+        }
+
+        val cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final List<Credential> credentials = new ArrayList<>();
+        for (val credential : super.resolveFromSource(criteriaSet)) {
+            credentials.add(credential);
+        }
+        val result = Collections.unmodifiableList(credentials);
+        cache.put(key, result);
+        return result;
+    }
+
+    private static CacheKey buildCacheKey(final CriteriaSet criteriaSet) {
+        if (criteriaSet == null) {
+            return null;
+        }
+        for (val criterion : criteriaSet) {
+            if (!(criterion instanceof EntityIdCriterion || criterion instanceof EntityRoleCriterion
+                || criterion instanceof ProtocolCriterion || criterion instanceof UsageCriterion)) {
+                return null;
+            }
+        }
+        val entityId = criteriaSet.get(EntityIdCriterion.class);
+        if (entityId == null) {
+            return null;
+        }
+        val role = criteriaSet.get(EntityRoleCriterion.class);
+        val protocol = criteriaSet.get(ProtocolCriterion.class);
+        val usage = criteriaSet.get(UsageCriterion.class);
+        return new CacheKey(entityId.getEntityId(),
+            role != null ? role.getRole().toString() : null,
+            protocol != null ? protocol.getProtocol() : null,
+            usage != null ? usage.getUsage().name() : null);
+    }
+
+    /**
+     * Discard the cached credentials.
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    private record CacheKey(String entityId, String role, String protocol, String usage) {}
+}
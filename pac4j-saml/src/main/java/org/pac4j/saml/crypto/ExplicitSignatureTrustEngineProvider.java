@@ -1,10 +1,12 @@
 package org.pac4j.saml.crypto;
 
+import lombok.Getter;
+import lombok.Setter;
 import lombok.val;
 import net.shibboleth.shared.component.ComponentInitializationException;
 import org.opensaml.saml.metadata.resolver.MetadataResolver;
+import org.opensaml.saml.metadata.resolver.RefreshableMetadataResolver;
 import org.opensaml.saml.metadata.resolver.impl.PredicateRoleDescriptorResolver;
-import org.opensaml.saml.security.impl.MetadataCredentialResolver;
 import org.opensaml.xmlsec.config.impl.DefaultSecurityConfigurationBootstrap;
 import org.opensaml.xmlsec.signature.support.SignatureTrustEngine;
 import org.opensaml.xmlsec.signature.support.impl.ExplicitKeySignatureTrustEngine;
@@ -12,9 +14,18 @@ import org.pac4j.saml.exceptions.SAMLException;
 import org.pac4j.saml.metadata.SAML2MetadataResolver;
 import org.pac4j.saml.util.SAML2Utils;
 
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Provider returning well configured {@link SignatureTrustEngine} instances.
  *
+ * The trust engine is built once and reused as long as the IdP and SP metadata are not refreshed: it is rebuilt when
+ * a metadata resolver is replaced by a new one or updated in place (last update of a {@link RefreshableMetadataResolver}),
+ * and at least every {@link #cacheTtlInSeconds} seconds for the resolvers which do not expose their updates.
+ * The credentials it resolves from the metadata are cached by entity ID for the life of the trust engine.
+ *
  * @author Misagh Moayyed
  * @since 1.8.0
  */
@@ -24,6 +35,12 @@ public class ExplicitSignatureTrustEngineProvider implements SAML2SignatureTrust
 
     private final SAML2MetadataResolver spMetadataResolver;
 
+    @Getter
+    @Setter
+    private long cacheTtlInSeconds = 300;
+
+    private volatile CachedTrustEngine cachedTrustEngine;
+
     /**
      * <p>Constructor for ExplicitSignatureTrustEngineProvider.</p>
      *
@@ -39,8 +56,41 @@ public class ExplicitSignatureTrustEngineProvider implements SAML2SignatureTrust
     /** {@inheritDoc} */
     @Override
     public SignatureTrustEngine build() {
-        val metadataCredentialResolver = new MetadataCredentialResolver();
-        final MetadataResolver metadataResolver = SAML2Utils.buildChainingMetadataResolver(idpMetadataResolver, spMetadataResolver);
+        val idpResolver = idpMetadataResolver.resolve();
+        val spResolver = spMetadataResolver.resolve();
+
+        val idpLastUpdate = getLastUpdate(idpResolver);
+        val spLastUpdate = getLastUpdate(spResolver);
+        val now = System.currentTimeMillis();
+
+        var current = cachedTrustEngine;
+        if (current == null || current.idpResolver() != idpResolver || current.spResolver() != spResolver
+            || !Objects.equals(current.idpLastUpdate(), idpLastUpdate) || !Objects.equals(current.spLastUpdate(), spLastUpdate)
+            || now - current.builtAt() >= TimeUnit.SECONDS.toMillis(cacheTtlInSeconds)) {
+            current = new CachedTrustEngine(idpResolver, spResolver, idpLastUpdate, spLastUpdate, now,
+                buildTrustEngine(idpResolver, spResolver));
+            cachedTrustEngine = current;
+        }
+        return current.trustEngine();
+    }
+
+    private static Instant getLastUpdate(final MetadataResolver resolver) {
+        if (resolver instanceof RefreshableMetadataResolver refreshableMetadataResolver) {
+            return refreshableMetadataResolver.getLastUpdate();
+        }
+        return null;
+    }
+
+    /**
+     * Build the trust engine for the given metadata resolvers.
+     *
+     * @param idpResolver the IdP metadata resolver
+     * @param spResolver the SP metadata resolver
+     * @return the trust engine
+     */
+    protected SignatureTrustEngine buildTrustEngine(final MetadataResolver idpResolver, final MetadataResolver spResolver) {
+        val metadataCredentialResolver = new CachingMetadataCredentialResolver();
+        final MetadataResolver metadataResolver = SAML2Utils.buildChainingMetadataResolver(idpResolver, spResolver);
         val roleResolver = new PredicateRoleDescriptorResolver(metadataResolver);
 
         val keyResolver =
@@ -58,4 +108,7 @@ public class ExplicitSignatureTrustEngineProvider implements SAML2SignatureTrust
 
         return new ExplicitKeySignatureTrustEngine(metadataCredentialResolver, keyResolver);
     }
+
+    private record CachedTrustEngine(MetadataResolver idpResolver, MetadataResolver spResolver, Instant idpLastUpdate,
+                                     Instant spLastUpdate, long builtAt, SignatureTrustEngine trustEngine) {}
 }
@@ -4,6 +4,7 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import net.shibboleth.shared.component.ComponentInitializationException;
+import net.shibboleth.shared.component.DestructableComponent;
 import net.shibboleth.shared.resolver.CriteriaSet;
 import net.shibboleth.shared.resolver.ResolverException;
 import net.shibboleth.shared.xml.XMLParserException;
@@ -26,10 +27,12 @@ import org.pac4j.saml.util.Configuration;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.w3c.dom.Element;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLSocketFactory;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
@@ -37,16 +40,26 @@ import java.net.HttpURLConnection;
 import java.net.Proxy;
 import java.net.URL;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.Properties;
+import java.util.concurrent.*;
+import java.util.function.Predicate;
 
 /**
  * Resolve and download idp metadata to form a metadata resolver.
  * <p>
  * The resolver supports proxies using {@link Proxy} when fetching metadata over URL resources.
+ * <p>
+ * If an {@link SAML2Configuration#getIdentityProviderMetadataCachePath()} is defined, the metadata downloaded from a URL
+ * are kept on disk and revalidated with a conditional request, so that unchanged metadata are never downloaded again,
+ * even after a restart. If an {@link SAML2Configuration#getIdentityProviderMetadataRefreshInterval()} is defined,
+ * the metadata are refreshed in the background (with conditional requests, even without cache path) and the resolver
+ * is atomically replaced when they have changed. A replaced resolver is destroyed on the next replacement,
+ * so that the requests still using it are not broken.
  *
  * @author Misagh Moayyed
  * @since 1.7
@@ -61,8 +74,38 @@ public class SAML2IdentityProviderMetadataResolver extends SpringResourceLoader<
     @Setter
     private SSLSocketFactory sslSocketFactory;
 
+    private static final int DOWNLOAD_PARALLELISM = Math.min(Runtime.getRuntime().availableProcessors(), 4);
+
+    private static final ExecutorService DOWNLOAD_EXECUTOR = newDownloadExecutor();
+
+    private static final String VALIDATORS_SUFFIX = ".properties";
+
+    private static final String ETAG = "ETag";
+
+    private static final String LAST_MODIFIED = "Last-Modified";
+
+    private static final long MIN_REFRESH_DELAY = 1000;
+
+    private static final long MIN_RETRY_DELAY = 5000;
+
+    private static final double REFRESH_JITTER = 0.1;
+
     private final SAML2Configuration configuration;
 
+    private volatile ScheduledExecutorService refreshExecutor;
+
+    private boolean ownRefreshExecutor;
+
+    private ScheduledFuture<?> refreshTask;
+
+    private String etag;
+
+    private String lastModifiedHeader;
+
+    private int refreshFailures;
+
+    private MetadataResolver retiredResolver;
+
     public SAML2IdentityProviderMetadataResolver(final SAML2Configuration configuration) {
         super(configuration.getIdentityProviderMetadataResource());
         if (configuration.getSslSocketFactory() != null) {
@@ -82,19 +125,140 @@ public class SAML2IdentityProviderMetadataResolver extends SpringResourceLoader<
         return load();
     }
 
+    private static ExecutorService newDownloadExecutor() {
+        val executor = new ThreadPoolExecutor(DOWNLOAD_PARALLELISM, DOWNLOAD_PARALLELISM, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                val thread = new Thread(runnable, "pac4j-saml-metadata-download");
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     protected void internalLoad() {
         val t0 = System.currentTimeMillis();
         try {
-            this.loaded = initializeMetadataResolver();
+            replaceResolver(initializeMetadataResolver());
         } finally {
             val t1 = System.currentTimeMillis();
             LOGGER.debug("Metadata resolution took: {} ms", t1 - t0);
         }
 
+        startBackgroundRefresh();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean isRefreshedInBackground() {
+        return refreshExecutor != null;
+    }
+
+    /**
+     * Start the background refresh of the metadata, if enabled and not already started.
+     */
+    protected synchronized void startBackgroundRefresh() {
+        if (refreshExecutor != null || configuration.getIdentityProviderMetadataRefreshInterval() <= 0
+            || !(configuration.getIdentityProviderMetadataResource() instanceof UrlResource)) {
+            return;
+        }
+
+        var executor = configuration.getIdentityProviderMetadataRefreshExecutor();
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                val thread = new Thread(runnable, "pac4j-saml-metadata-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ownRefreshExecutor = true;
+        }
+        refreshExecutor = executor;
+        LOGGER.debug("Refreshing the idp metadata every {} seconds in the background",
+            configuration.getIdentityProviderMetadataRefreshInterval());
+        scheduleRefresh(getRefreshInterval());
+    }
+
+    /**
+     * Stop the background refresh of the metadata: they will be checked for changes on load again.
+     */
+    public synchronized void stopBackgroundRefresh() {
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+            refreshTask = null;
+        }
+        if (refreshExecutor != null && ownRefreshExecutor) {
+            refreshExecutor.shutdownNow();
+        }
+        refreshExecutor = null;
+        ownRefreshExecutor = false;
+        destroy(retiredResolver);
+        retiredResolver = null;
+    }
+
+    /**
+     * Replace the current resolver. The previously replaced resolver is destroyed: the replaced resolver is kept until then
+     * for the requests still using it.
+     *
+     * @param resolver the new resolver
+     */
+    protected synchronized void replaceResolver(final MetadataResolver resolver) {
+        val previous = this.loaded;
+        this.loaded = resolver;
+        if (previous != null && previous != resolver) {
+            destroy(retiredResolver);
+            retiredResolver = previous;
+        }
+    }
+
+    private static void destroy(final MetadataResolver resolver) {
+        if (resolver instanceof DestructableComponent component && !component.isDestroyed()) {
+            component.destroy();
+        }
+    }
+
+    private long getRefreshInterval() {
+        return TimeUnit.SECONDS.toMillis(configuration.getIdentityProviderMetadataRefreshInterval());
+    }
+
+    private synchronized void scheduleRefresh(final long delay) {
+        if (refreshExecutor != null) {
+            val jitteredDelay = delay + (long) (delay * REFRESH_JITTER * ThreadLocalRandom.current().nextDouble(-1, 1));
+            refreshTask = refreshExecutor.schedule(this::refresh, Math.max(jitteredDelay, MIN_REFRESH_DELAY), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Refresh the metadata, replace the resolver if they have changed and schedule the next refresh.
+     */
+    protected void refresh() {
+        long delay;
+        try {
+            replaceResolver(initializeMetadataResolver());
+            refreshFailures = 0;
+            delay = getRefreshInterval();
+        } catch (final Exception e) {
+            refreshFailures++;
+            LOGGER.warn("Cannot refresh the idp metadata (failures: {}), keeping the current ones: {}", refreshFailures, e.getMessage());
+            LOGGER.debug("Cannot refresh the idp metadata", e);
+            delay = Math.min(MIN_RETRY_DELAY << Math.min(refreshFailures - 1, 20), getRefreshInterval());
+        }
+        scheduleRefresh(delay);
     }
 
     protected DOMMetadataResolver initializeMetadataResolver() {
         if (configuration.getIdentityProviderMetadataResource() instanceof UrlResource urlResource) {
+            if (urlResource.getURL().getProtocol().startsWith("http")) {
+                try {
+                    if (configuration.getIdentityProviderMetadataCachePath() != null) {
+                        return loadCachedMetadata(urlResource.getURL());
+                    } else if (configuration.getIdentityProviderMetadataRefreshInterval() > 0) {
+                        return loadRevalidatedMetadata(urlResource.getURL());
+                    }
+                } catch (final IOException e) {
+                    throw new TechnicalException("Error getting idp metadata resource", e);
+                }
+            }
+
             var fileUrl = urlResource.getURL().toString();
             HttpURLConnection conn = null;
             try {
@@ -126,11 +290,158 @@ public class SAML2IdentityProviderMetadataResolver extends SpringResourceLoader<
         return loadMetadataFromResource(configuration.getIdentityProviderMetadataResource());
     }
 
+    /**
+     * Load the metadata from the on-disk copy, downloading them first if they have changed since the previous download
+     * (conditional request). At startup, the on-disk copy is loaded without any request.
+     *
+     * @param url the metadata URL
+     * @return the metadata resolver
+     * @throws IOException if the metadata cannot be downloaded or stored
+     */
+    protected synchronized DOMMetadataResolver loadCachedMetadata(final URL url) throws IOException {
+        val cacheFile = new File(configuration.getIdentityProviderMetadataCachePath()).getAbsoluteFile();
+        val validatorsFile = new File(cacheFile.getPath() + VALIDATORS_SUFFIX);
+        if (cacheFile.exists()) {
+            if (this.loaded == null) {
+                readValidators(validatorsFile);
+                LOGGER.debug("Loading idp metadata from the local copy {}", cacheFile);
+                return loadMetadataFromResource(new FileSystemResource(cacheFile));
+            }
+        } else {
+            etag = null;
+            lastModifiedHeader = null;
+        }
+
+        val download = downloadIfModified(url, cacheFile);
+        if (download == null) {
+            LOGGER.debug("Idp metadata not modified");
+            if (this.loaded instanceof DOMMetadataResolver current) {
+                return current;
+            }
+            return loadMetadataFromResource(new FileSystemResource(cacheFile));
+        }
+        try {
+            // the new metadata replace the local copy only if they are valid
+            val resolver = loadMetadataFromResource(new FileSystemResource(download.file().toFile()));
+            Files.move(download.file(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            etag = download.etag();
+            lastModifiedHeader = download.lastModified();
+            writeValidators(validatorsFile);
+            LOGGER.debug("Idp metadata downloaded to {}", cacheFile);
+            return resolver;
+        } finally {
+            Files.deleteIfExists(download.file());
+        }
+    }
+
+    /**
+     * Load the metadata downloaded to a temporary file if they have changed since the previous download (conditional request),
+     * or keep the current ones. The validators of the response are only kept in memory.
+     *
+     * @param url the metadata URL
+     * @return the metadata resolver
+     * @throws IOException if the metadata cannot be downloaded
+     */
+    protected synchronized DOMMetadataResolver loadRevalidatedMetadata(final URL url) throws IOException {
+        if (!(this.loaded instanceof DOMMetadataResolver)) {
+            etag = null;
+            lastModifiedHeader = null;
+        }
+
+        val download = downloadIfModified(url, new File(System.getProperty("java.io.tmpdir"), "idpmetadata.xml"));
+        if (download == null) {
+            LOGGER.debug("Idp metadata not modified");
+            if (this.loaded instanceof DOMMetadataResolver current) {
+                return current;
+            }
+            throw new TechnicalException("Idp metadata not modified but never loaded from: " + url);
+        }
+        try {
+            val resolver = loadMetadataFromResource(new FileSystemResource(download.file().toFile()));
+            etag = download.etag();
+            lastModifiedHeader = download.lastModified();
+            return resolver;
+        } finally {
+            Files.deleteIfExists(download.file());
+        }
+    }
+
+    private Download downloadIfModified(final URL url, final File cacheFile) throws IOException {
+        val connection = (HttpURLConnection) url.openConnection(proxy);
+        try {
+            if (connection instanceof HttpsURLConnection https) {
+                if (hostnameVerifier != null) {
+                    https.setHostnameVerifier(hostnameVerifier);
+                }
+                if (sslSocketFactory != null) {
+                    https.setSSLSocketFactory(sslSocketFactory);
+                }
+            }
+            connection.setConnectTimeout(configuration.getIdentityProviderMetadataConnectTimeout());
+            connection.setReadTimeout(configuration.getIdentityProviderMetadataReadTimeout());
+            if (etag != null) {
+                connection.setRequestProperty("If-None-Match", etag);
+            }
+            if (lastModifiedHeader != null) {
+                connection.setRequestProperty("If-Modified-Since", lastModifiedHeader);
+            }
+
+            val status = connection.getResponseCode();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                return null;
+            } else if (status != HttpURLConnection.HTTP_OK) {
+                throw new TechnicalException("Unexpected HTTP status when downloading idp metadata: " + status);
+            }
+
+            val directory = cacheFile.getParentFile().toPath();
+            Files.createDirectories(directory);
+            val file = Files.createTempFile(directory, cacheFile.getName(), ".tmp");
+            try (var in = connection.getInputStream()) {
+                Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final IOException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            return new Download(file, connection.getHeaderField(ETAG), connection.getHeaderField(LAST_MODIFIED));
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private void readValidators(final File validatorsFile) {
+        etag = null;
+        lastModifiedHeader = null;
+        if (validatorsFile.exists()) {
+            val validators = new Properties();
+            try (var in = Files.newInputStream(validatorsFile.toPath())) {
+                validators.load(in);
+                etag = validators.getProperty(ETAG);
+                lastModifiedHeader = validators.getProperty(LAST_MODIFIED);
+            } catch (final IOException e) {
+                LOGGER.warn("Cannot read the validators of the idp metadata from {}: {}", validatorsFile, e.getMessage());
+            }
+        }
+    }
+
+    private void writeValidators(final File validatorsFile) {
+        val validators = new Properties();
+        if (etag != null) {
+            validators.setProperty(ETAG, etag);
+        }
+        if (lastModifiedHeader != null) {
+            validators.setProperty(LAST_MODIFIED, lastModifiedHeader);
+        }
+        try (var out = Files.newOutputStream(validatorsFile.toPath())) {
+            validators.store(out, null);
+        } catch (final IOException e) {
+            LOGGER.warn("Cannot write the validators of the idp metadata to {}: {}", validatorsFile, e.getMessage());
+        }
+    }
+
     private DOMMetadataResolver downloadMetadata(final long contentLength, final String url) {
-        var numThreads = Runtime.getRuntime().availableProcessors();
+        var numThreads = DOWNLOAD_PARALLELISM;
 
         var partSize = contentLength / numThreads;
-        var executor = Executors.newFixedThreadPool(numThreads);
         try {
             var destination = Files.createTempFile("idpmetadata", ".xml").toFile();
             LOGGER.debug("Downloading idp metadata to {}", destination.getAbsolutePath());
@@ -140,7 +451,7 @@ public class SAML2IdentityProviderMetadataResolver extends SpringResourceLoader<
                 var start = i * partSize;
                 var end = i == numThreads - 1 ? contentLength - 1 : start + partSize - 1;
 
-                futures.add(executor.submit(() -> {
+                futures.add(DOWNLOAD_EXECUTOR.submit(() -> {
                     var conn = (HttpURLConnection) new URL(url).openConnection();
                     if (conn instanceof HttpsURLConnection https) {
                         if (hostnameVerifier != null) {
@@ -166,14 +477,20 @@ public class SAML2IdentityProviderMetadataResolver extends SpringResourceLoader<
                 }));
             }
 
-            for (var future : futures) {
-                future.get();
-            }
-            executor.shutdown();
+            try {
+                for (var future : futures) {
+                    future.get();
+                }
 
-            LOGGER.debug("Finished downloading idp metadata to {}", destination.getAbsolutePath());
-            var resource = new FileSystemResource(destination);
-            return loadMetadataFromResource(resource);
+                LOGGER.debug("Finished downloading idp metadata to {}", destination.getAbsolutePath());
+                var resource = new FileSystemResource(destination);
+                return loadMetadataFromResource(resource);
+            } finally {
+                for (var future : futures) {
+                    future.cancel(true);
+                }
+                Files.deleteIfExists(destination.toPath());
+            }
         } catch (Exception e) {
             throw new TechnicalException("Error downloading idp metadata", e);
         }
@@ -189,8 +506,12 @@ public class SAML2IdentityProviderMetadataResolver extends SpringResourceLoader<
             configuration.getIdentityProviderMetadataConnectTimeout(),
             configuration.getIdentityProviderMetadataReadTimeout()
         )) {
-            var parsedInput = Configuration.getParserPool().parse(in);
-            var metadataRoot = parsedInput.getDocumentElement();
+            final Element metadataRoot;
+            if (configuration.isIdentityProviderMetadataStreaming()) {
+                metadataRoot = new SAML2StreamingMetadataParser(buildEntityIdFilter()).parse(in);
+            } else {
+                metadataRoot = Configuration.getParserPool().parse(in).getDocumentElement();
+            }
             var resolver = new DOMMetadataResolver(metadataRoot);
             resolver.setIndexes(Collections.singleton(new RoleMetadataIndex()));
             resolver.setParserPool(Configuration.getParserPool());
@@ -215,6 +536,25 @@ public class SAML2IdentityProviderMetadataResolver extends SpringResourceLoader<
         }
     }
 
+    private record Download(Path file, String etag, String lastModified) {}
+
+    /**
+     * Build the filter of the entity identifiers to keep when parsing the metadata in streaming.
+     *
+     * @return the filter of the entity identifiers
+     */
+    protected Predicate<String> buildEntityIdFilter() {
+        val idpEntityId = configuration.getIdentityProviderEntityId();
+        if (idpEntityId != null) {
+            return idpEntityId::equals;
+        }
+        val entityIdFilter = configuration.getIdentityProviderEntityIdFilter();
+        if (entityIdFilter != null) {
+            return entityIdFilter;
+        }
+        return entityId -> true;
+    }
+
     /**
      * If no idpEntityId declared, select first EntityDescriptor entityId as our IDP.
      *
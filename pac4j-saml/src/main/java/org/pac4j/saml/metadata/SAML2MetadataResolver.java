@@ -3,6 +3,10 @@ package org.pac4j.saml.metadata;
 import org.opensaml.core.xml.XMLObject;
 import org.opensaml.saml.metadata.resolver.MetadataResolver;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Defines operations required to resolve metadata for idp and sp.
  *
@@ -41,6 +45,16 @@ public interface SAML2MetadataResolver {
      */
     String getMetadata();
 
+    /**
+     * Write the metadata (UTF-8 encoded).
+     *
+     * @param out the output stream
+     * @throws IOException if the metadata cannot be written
+     */
+    default void writeMetadata(final OutputStream out) throws IOException {
+        out.write(getMetadata().getBytes(StandardCharsets.UTF_8));
+    }
+
     /**
      * <p>getEntityDescriptorElement.</p>
      *
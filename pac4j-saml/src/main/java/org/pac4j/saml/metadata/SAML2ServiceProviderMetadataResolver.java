@@ -1,25 +1,42 @@
 package org.pac4j.saml.metadata;
 
+import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import net.shibboleth.shared.component.DestructableComponent;
 import net.shibboleth.shared.resolver.CriteriaSet;
 import net.shibboleth.shared.resolver.ResolverException;
+import net.shibboleth.shared.xml.SerializeSupport;
 import org.opensaml.core.criterion.EntityIdCriterion;
 import org.opensaml.core.xml.XMLObject;
 import org.opensaml.saml.metadata.resolver.MetadataResolver;
+import org.opensaml.saml.metadata.resolver.impl.AbstractMetadataResolver;
 import org.opensaml.saml.metadata.resolver.impl.FilesystemMetadataResolver;
+import org.opensaml.saml.saml2.metadata.EntityDescriptor;
 import org.pac4j.saml.config.SAML2Configuration;
 import org.pac4j.saml.exceptions.SAMLException;
+import org.pac4j.saml.util.Configuration;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
 
 /**
  * <p>SAML2ServiceProviderMetadataResolver class.</p>
+ * <p>
+ * The generated (and signed) metadata are cached until the metadata are prepared again ({@link #resolve(boolean)} forced).
+ * Unless their generation is forced, they are not stored again if the stored metadata only differ from the generated ones
+ * by their ID, validity and signature (see {@link #isStored(SAML2MetadataGenerator, String)}).
  *
  * @author Misagh Moayyed
  * @since 1.7
  */
+@Slf4j
 public class SAML2ServiceProviderMetadataResolver implements SAML2MetadataResolver {
 
     protected final SAML2Configuration configuration;
     private MetadataResolver metadataResolver;
+    private volatile byte[] metadata;
 
     /**
      * <p>Constructor for SAML2ServiceProviderMetadataResolver.</p>
@@ -44,14 +61,18 @@ public class SAML2ServiceProviderMetadataResolver implements SAML2MetadataResolv
     @SuppressWarnings("unchecked")
     protected MetadataResolver prepareServiceProviderMetadata() {
         try {
+            this.metadata = null;
             val metadataGenerator = configuration.toMetadataGenerator();
             val resource = configuration.getServiceProviderMetadataResource();
 
-            if (resource == null || !resource.exists() || configuration.isForceServiceProviderMetadataGeneration()) {
-                val entity = metadataGenerator.buildEntityDescriptor();
-                val metadata = metadataGenerator.getMetadata(entity);
-                metadataGenerator.storeMetadata(metadata,
-                    configuration.isForceServiceProviderMetadataGeneration());
+            val force = configuration.isForceServiceProviderMetadataGeneration();
+            if (resource == null || !resource.exists() || force) {
+                val generated = generateMetadata(metadataGenerator);
+                if (!force && isStored(metadataGenerator, generated)) {
+                    LOGGER.debug("Service provider metadata unchanged, not stored again");
+                } else {
+                    metadataGenerator.storeMetadata(generated, force);
+                }
             } else if (resource.exists() && metadataGenerator.canMerge()) {
                 metadataGenerator.merge(configuration);
             }
@@ -85,15 +106,92 @@ public class SAML2ServiceProviderMetadataResolver implements SAML2MetadataResolv
      */
     @Override
     public String getMetadata() {
+        return new String(getMetadataBytes(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The cached metadata are written as is, without any copy.</p>
+     */
+    @Override
+    public void writeMetadata(final OutputStream out) throws IOException {
+        out.write(getMetadataBytes());
+    }
+
+    private byte[] getMetadataBytes() {
+        var current = this.metadata;
+        if (current == null) {
+            try {
+                generateMetadata(configuration.toMetadataGenerator());
+                current = this.metadata;
+            } catch (final Exception e) {
+                throw new SAMLException("Unable to fetch metadata", e);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Generate the metadata and cache them (UTF-8 encoded).
+     *
+     * @param metadataGenerator the metadata generator
+     * @return the metadata
+     * @throws Exception if the metadata cannot be generated
+     */
+    protected String generateMetadata(final SAML2MetadataGenerator metadataGenerator) throws Exception {
+        val entity = metadataGenerator.buildEntityDescriptor();
+        val generated = metadataGenerator.getMetadata(entity);
+        this.metadata = generated.getBytes(StandardCharsets.UTF_8);
+        return generated;
+    }
+
+    /**
+     * Whether the stored metadata are the same as the generated ones, once their ID, validity and signature
+     * (which change at each generation) are removed.
+     *
+     * @param metadataGenerator the metadata generator
+     * @param generatedMetadata the generated metadata
+     * @return whether the stored metadata are up-to-date
+     */
+    protected boolean isStored(final SAML2MetadataGenerator metadataGenerator, final String generatedMetadata) {
+        if (!(metadataGenerator instanceof BaseSAML2MetadataGenerator generator)) {
+            return false;
+        }
+        AbstractMetadataResolver resolver = null;
         try {
-            val metadataGenerator = configuration.toMetadataGenerator();
-            val entity = metadataGenerator.buildEntityDescriptor();
-            return metadataGenerator.getMetadata(entity);
+            // the stored metadata only (the in-memory generator has none)
+            resolver = generator.createMetadataResolver();
+            if (resolver == null) {
+                return false;
+            }
+            resolver.setFailFastInitialization(true);
+            resolver.setId(resolver.getClass().getCanonicalName());
+            resolver.setParserPool(Configuration.getParserPool());
+            resolver.initialize();
+            val stored = resolver.resolveSingle(new CriteriaSet(new EntityIdCriterion(getEntityId())));
+            val generated = Configuration.deserializeSamlObject(generatedMetadata).orElse(null);
+            return stored != null && generated instanceof EntityDescriptor generatedEntity
+                && toComparableMetadata(stored).equals(toComparableMetadata(generatedEntity));
         } catch (final Exception e) {
-            throw new SAMLException("Unable to fetch metadata", e);
+            LOGGER.debug("Cannot read the stored service provider metadata: {}", e.getMessage());
+            return false;
+        } finally {
+            if (resolver instanceof DestructableComponent component) {
+                component.destroy();
+            }
         }
     }
 
+    private static String toComparableMetadata(final EntityDescriptor entity) throws Exception {
+        entity.setID(null);
+        entity.setValidUntil(null);
+        entity.setCacheDuration(null);
+        entity.setSignature(null);
+        val element = Objects.requireNonNull(Configuration.getMarshallerFactory().getMarshaller(entity)).marshall(entity);
+        return SerializeSupport.nodeToString(element);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,242 @@
+package org.pac4j.saml.metadata;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import net.shibboleth.shared.xml.XMLParserException;
+import org.opensaml.saml.common.xml.SAMLConstants;
+import org.opensaml.saml.saml2.metadata.EntitiesDescriptor;
+import org.opensaml.saml.saml2.metadata.EntityDescriptor;
+import org.opensaml.saml.saml2.metadata.IDPSSODescriptor;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.saml.util.Configuration;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Parse (federation) metadata in streaming with StAX, keeping only the entity descriptors of identity providers
+ * whose entity identifier matches a filter.
+ *
+ * <p>The DOM of each entity descriptor is built (and discarded if it does not match) one at a time, so the memory used
+ * is proportional to the kept entity descriptors and not to the whole metadata. The kept entity descriptors are returned
+ * under a new <code>EntitiesDescriptor</code> element, with the namespace declarations inherited from their ancestors.
+ * The attributes and the signature of the original root element (if any) are not kept.</p>
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+@Slf4j
+public class SAML2StreamingMetadataParser {
+
+    private static final String ENTITY_ID_ATTRIBUTE = "entityID";
+
+    private static final XMLInputFactory INPUT_FACTORY = newInputFactory();
+
+    private final Predicate<String> entityIdFilter;
+
+    /**
+     * <p>Constructor for SAML2StreamingMetadataParser.</p>
+     *
+     * @param entityIdFilter the filter of the entity identifiers to keep
+     */
+    public SAML2StreamingMetadataParser(final Predicate<String> entityIdFilter) {
+        CommonHelper.assertNotNull("entityIdFilter", entityIdFilter);
+        this.entityIdFilter = entityIdFilter;
+    }
+
+    private static XMLInputFactory newInputFactory() {
+        val factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * Parse the metadata.
+     *
+     * @param in the metadata input stream
+     * @return the <code>EntitiesDescriptor</code> element of the kept entity descriptors
+     * @throws XMLParserException if the metadata cannot be parsed
+     */
+    public Element parse(final InputStream in) throws XMLParserException {
+        XMLStreamReader reader = null;
+        try {
+            reader = INPUT_FACTORY.createXMLStreamReader(in);
+
+            val document = Configuration.getParserPool().newDocument();
+            val root = document.createElementNS(SAMLConstants.SAML20MD_NS,
+                SAMLConstants.SAML20MD_PREFIX + ':' + EntitiesDescriptor.DEFAULT_ELEMENT_LOCAL_NAME);
+            root.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI,
+                XMLConstants.XMLNS_ATTRIBUTE + ':' + SAMLConstants.SAML20MD_PREFIX, SAMLConstants.SAML20MD_NS);
+            document.appendChild(root);
+
+            final Deque<Map<String, String>> namespaces = new ArrayDeque<>();
+            var kept = 0;
+            var skipped = 0;
+            while (reader.hasNext()) {
+                val event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if (isEntityDescriptor(reader)) {
+                        val entityId = reader.getAttributeValue(null, ENTITY_ID_ATTRIBUTE);
+                        if (entityId != null && entityIdFilter.test(entityId)) {
+                            val element = copyElement(reader, document);
+                            if (hasIdentityProviderRole(element)) {
+                                declareInheritedNamespaces(element, namespaces);
+                                root.appendChild(element);
+                                kept++;
+                                continue;
+                            }
+                        } else {
+                            skipElement(reader);
+                        }
+                        skipped++;
+                    } else {
+                        namespaces.push(declaredNamespaces(reader));
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    namespaces.pop();
+                }
+            }
+            LOGGER.debug("Kept {} idp entity descriptor(s), skipped {} entity descriptor(s)", kept, skipped);
+            if (kept == 0) {
+                LOGGER.warn("No idp entity descriptor kept from the metadata");
+            }
+            return root;
+        } catch (final XMLStreamException e) {
+            throw new XMLParserException("Error streaming idp metadata", e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (final XMLStreamException e) {
+                    LOGGER.debug("Cannot close XML stream reader", e);
+                }
+            }
+        }
+    }
+
+    private static boolean isEntityDescriptor(final XMLStreamReader reader) {
+        return SAMLConstants.SAML20MD_NS.equals(reader.getNamespaceURI())
+            && EntityDescriptor.DEFAULT_ELEMENT_LOCAL_NAME.equals(reader.getLocalName());
+    }
+
+    private static boolean hasIdentityProviderRole(final Element element) {
+        for (var child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE && SAMLConstants.SAML20MD_NS.equals(child.getNamespaceURI())
+                && IDPSSODescriptor.DEFAULT_ELEMENT_LOCAL_NAME.equals(child.getLocalName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, String> declaredNamespaces(final XMLStreamReader reader) {
+        val count = reader.getNamespaceCount();
+        if (count == 0) {
+            return Collections.emptyMap();
+        }
+        final Map<String, String> declared = new HashMap<>();
+        for (var i = 0; i < count; i++) {
+            declared.put(Objects.requireNonNullElse(reader.getNamespacePrefix(i), XMLConstants.DEFAULT_NS_PREFIX),
+                Objects.requireNonNullElse(reader.getNamespaceURI(i), XMLConstants.NULL_NS_URI));
+        }
+        return declared;
+    }
+
+    private static void declareInheritedNamespaces(final Element element, final Deque<Map<String, String>> namespaces) {
+        // the innermost declarations are at the head of the deque and override the outer ones
+        final Map<String, String> inherited = new HashMap<>();
+        for (val declared : namespaces) {
+            for (val entry : declared.entrySet()) {
+                inherited.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+        for (val entry : inherited.entrySet()) {
+            val attributeName = namespaceAttributeName(entry.getKey());
+            if (!element.hasAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, localName(attributeName))) {
+                element.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, attributeName, entry.getValue());
+            }
+        }
+    }
+
+    private static String namespaceAttributeName(final String prefix) {
+        return prefix.isEmpty() ? XMLConstants.XMLNS_ATTRIBUTE : XMLConstants.XMLNS_ATTRIBUTE + ':' + prefix;
+    }
+
+    private static String localName(final String qualifiedName) {
+        val colon = qualifiedName.indexOf(':');
+        return colon < 0 ? qualifiedName : qualifiedName.substring(colon + 1);
+    }
+
+    private static Element copyElement(final XMLStreamReader reader, final Document document) throws XMLStreamException {
+        val top = createElement(reader, document);
+        Node current = top;
+        var depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT -> {
+                    val child = createElement(reader, document);
+                    current.appendChild(child);
+                    current = child;
+                    depth++;
+                }
+                case XMLStreamConstants.END_ELEMENT -> {
+                    current = current.getParentNode();
+                    depth--;
+                }
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE ->
+                    current.appendChild(document.createTextNode(reader.getText()));
+                default -> {
+                    // comments and processing instructions are dropped
+                }
+            }
+        }
+        return top;
+    }
+
+    private static Element createElement(final XMLStreamReader reader, final Document document) {
+        val element = document.createElementNS(emptyToNull(reader.getNamespaceURI()),
+            qualifiedName(reader.getPrefix(), reader.getLocalName()));
+        for (var i = 0; i < reader.getNamespaceCount(); i++) {
+            element.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI,
+                namespaceAttributeName(Objects.requireNonNullElse(reader.getNamespacePrefix(i), XMLConstants.DEFAULT_NS_PREFIX)),
+                Objects.requireNonNullElse(reader.getNamespaceURI(i), XMLConstants.NULL_NS_URI));
+        }
+        for (var i = 0; i < reader.getAttributeCount(); i++) {
+            element.setAttributeNS(emptyToNull(reader.getAttributeNamespace(i)),
+                qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)), reader.getAttributeValue(i));
+        }
+        return element;
+    }
+
+    private static String qualifiedName(final String prefix, final String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
+    }
+
+    private static String emptyToNull(final String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static void skipElement(final XMLStreamReader reader) throws XMLStreamException {
+        var depth = 1;
+        while (depth > 0) {
+            val event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@ import org.opensaml.security.SecurityException;
 import org.opensaml.security.credential.UsageType;
 import org.opensaml.security.criteria.UsageCriterion;
 import org.opensaml.security.trust.TrustEngine;
+import org.opensaml.storage.ReplayCache;
 import org.opensaml.xmlsec.encryption.support.DecryptionException;
 import org.opensaml.xmlsec.signature.Signature;
 import org.opensaml.xmlsec.signature.support.SignatureException;
@@ -61,6 +62,8 @@ public abstract class AbstractSAML2ResponseValidator implements SAML2ResponseVal
     /* maximum skew in seconds between SP and IDP clocks */
     protected long acceptedSkew = 120;
 
+    private volatile CachedReplayHandler cachedReplayHandler;
+
     /**
      * <p>Constructor for AbstractSAML2ResponseValidator.</p>
      *
@@ -278,11 +281,7 @@ public abstract class AbstractSAML2ResponseValidator implements SAML2ResponseVal
         }
 
         try {
-            val messageReplayHandler = new MessageReplaySecurityHandler();
-            messageReplayHandler.setExpires(Duration.ofMillis(acceptedSkew * 1000));
-            messageReplayHandler.setReplayCache(replayCache.get());
-            messageReplayHandler.initialize();
-            messageReplayHandler.invoke(context.getMessageContext());
+            getMessageReplayHandler().invoke(context.getMessageContext());
         } catch (final ComponentInitializationException e) {
             throw new SAMLException(e);
         } catch (final MessageHandlerException e) {
@@ -290,6 +289,27 @@ public abstract class AbstractSAML2ResponseValidator implements SAML2ResponseVal
         }
     }
 
+    /**
+     * Get the message replay handler: it is initialized once and shared by all the threads, as it holds no state
+     * about the messages. It is rebuilt if the replay cache or the accepted skew changes.
+     *
+     * @return the message replay handler
+     * @throws ComponentInitializationException if the handler cannot be initialized
+     */
+    protected MessageReplaySecurityHandler getMessageReplayHandler() throws ComponentInitializationException {
+        val cache = replayCache.get();
+        var current = cachedReplayHandler;
+        if (current == null || current.replayCache() != cache || current.acceptedSkew() != acceptedSkew) {
+            val messageReplayHandler = new MessageReplaySecurityHandler();
+            messageReplayHandler.setExpires(Duration.ofMillis(acceptedSkew * 1000));
+            messageReplayHandler.setReplayCache(cache);
+            messageReplayHandler.initialize();
+            current = new CachedReplayHandler(cache, acceptedSkew, messageReplayHandler);
+            cachedReplayHandler = current;
+        }
+        return current.handler();
+    }
+
     /**
      * Decrypts an EncryptedID, using a decrypter.
      *
@@ -340,4 +360,6 @@ public abstract class AbstractSAML2ResponseValidator implements SAML2ResponseVal
     public final void setAcceptedSkew(final long acceptedSkew) {
         this.acceptedSkew = acceptedSkew;
     }
+
+    private record CachedReplayHandler(ReplayCache replayCache, long acceptedSkew, MessageReplaySecurityHandler handler) {}
 }
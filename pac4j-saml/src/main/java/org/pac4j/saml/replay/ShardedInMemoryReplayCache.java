@@ -0,0 +1,145 @@
+package org.pac4j.saml.replay;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.val;
+import org.opensaml.storage.ReplayCache;
+import org.pac4j.core.util.CommonHelper;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * An in-memory replay cache split into lock-striped shards (by hash of the context and key), so that concurrent
+ * checks of different messages rarely contend for the same lock.
+ *
+ * <p>Within a shard, the entries are also grouped into time buckets by expiration: the expired entries are dropped
+ * bucket by bucket on the next checks of the shard, without any scan of the live entries nor any background thread.</p>
+ *
+ * <p>Like the {@link InMemoryReplayCacheProvider}, it will not work in a clustered environment.</p>
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+public class ShardedInMemoryReplayCache implements ReplayCache {
+
+    /** Default number of shards. */
+    public static final int DEFAULT_SHARDS = 16;
+
+    /** Default duration of a time bucket (in milliseconds). */
+    public static final long DEFAULT_BUCKET_DURATION = 60 * 1000;
+
+    private final Shard[] shards;
+
+    private final long bucketDuration;
+
+    @Getter
+    @Setter
+    private Clock clock = Clock.systemUTC();
+
+    /**
+     * <p>Constructor for ShardedInMemoryReplayCache.</p>
+     */
+    public ShardedInMemoryReplayCache() {
+        this(DEFAULT_SHARDS, DEFAULT_BUCKET_DURATION);
+    }
+
+    /**
+     * <p>Constructor for ShardedInMemoryReplayCache.</p>
+     *
+     * @param nbShards the number of shards
+     * @param bucketDuration the duration of a time bucket (in milliseconds)
+     */
+    public ShardedInMemoryReplayCache(final int nbShards, final long bucketDuration) {
+        CommonHelper.assertTrue(nbShards > 0, "nbShards must be greater than zero");
+        CommonHelper.assertTrue(bucketDuration > 0, "bucketDuration must be greater than zero");
+        this.shards = new Shard[nbShards];
+        for (var i = 0; i < nbShards; i++) {
+            shards[i] = new Shard();
+        }
+        this.bucketDuration = bucketDuration;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean check(final String context, final String key, final Instant expires) {
+        CommonHelper.assertNotBlank("context", context);
+        CommonHelper.assertNotBlank("key", key);
+        CommonHelper.assertNotNull("expires", expires);
+
+        val entry = new Entry(context, key);
+        val now = clock.millis();
+        val shard = shards[Math.floorMod(entry.hashCode(), shards.length)];
+        synchronized (shard) {
+            shard.purge(now, bucketDuration);
+
+            val expiration = shard.expirations.get(entry);
+            if (expiration != null && expiration > now) {
+                return false;
+            }
+            val expiresAt = expires.toEpochMilli();
+            shard.expirations.put(entry, expiresAt);
+            shard.buckets.computeIfAbsent(bucketOf(expiresAt), k -> new ArrayList<>()).add(entry);
+            return true;
+        }
+    }
+
+    private long bucketOf(final long time) {
+        // the bucket b holds the entries expiring in ((b - 1) * bucketDuration, b * bucketDuration]
+        return Math.floorDiv(time - 1, bucketDuration) + 1;
+    }
+
+    /**
+     * Return the number of entries in the cache (including the expired entries not purged yet).
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        var size = 0;
+        for (val shard : shards) {
+            synchronized (shard) {
+                size += shard.expirations.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Remove all the entries.
+     */
+    public void clear() {
+        for (val shard : shards) {
+            synchronized (shard) {
+                shard.expirations.clear();
+                shard.buckets.clear();
+            }
+        }
+    }
+
+    private record Entry(String context, String key) {}
+
+    private static final class Shard {
+
+        private final Map<Entry, Long> expirations = new HashMap<>();
+
+        private final NavigableMap<Long, List<Entry>> buckets = new TreeMap<>();
+
+        private void purge(final long now, final long bucketDuration) {
+            val expiredBuckets = buckets.headMap(Math.floorDiv(now, bucketDuration), true);
+            if (expiredBuckets.isEmpty()) {
+                return;
+            }
+            for (val bucket : expiredBuckets.values()) {
+                for (val entry : bucket) {
+                    // the entry may have expired and been stored again with a later expiration
+                    val expiration = expirations.get(entry);
+                    if (expiration != null && expiration <= now) {
+                        expirations.remove(entry);
+                    }
+                }
+            }
+            expiredBuckets.clear();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.pac4j.saml.replay;
+
+import org.opensaml.storage.ReplayCache;
+
+/**
+ * Replay cache provider which stores the identifiers in memory in a {@link ShardedInMemoryReplayCache}, better suited
+ * to high concurrency than the {@link InMemoryReplayCacheProvider}. This implementation will not work in a clustered
+ * environment and requires the same instance is used for all SAML authentications.
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+public class ShardedInMemoryReplayCacheProvider implements ReplayCacheProvider {
+
+    private final ShardedInMemoryReplayCache cache;
+
+    /**
+     * <p>Constructor for ShardedInMemoryReplayCacheProvider.</p>
+     */
+    public ShardedInMemoryReplayCacheProvider() {
+        this(new ShardedInMemoryReplayCache());
+    }
+
+    /**
+     * <p>Constructor for ShardedInMemoryReplayCacheProvider.</p>
+     *
+     * @param cache the sharded in-memory replay cache
+     */
+    public ShardedInMemoryReplayCacheProvider(final ShardedInMemoryReplayCache cache) {
+        this.cache = cache;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ReplayCache get() {
+        return cache;
+    }
+}
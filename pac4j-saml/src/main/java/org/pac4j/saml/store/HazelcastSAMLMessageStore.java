@@ -15,7 +15,8 @@ import java.util.Optional;
  * Class implements store of SAML messages and uses Hazelcast as underlying dataStore.
  * As the XMLObjects can't be serialized (which could lead to problems during failover), the messages are transformed
  * into SAMLObject which internally marshalls the content into XML during serialization.
- * Base64 encoding / decoding is also used to reduce space allocation.
+ * The XML is stored deflated (see {@link Configuration#deflateSamlObject(XMLObject)}) to reduce space allocation.
+ * The messages stored by previous versions (Base64-encoded XML strings) can still be read.
  *
  * @author Francesco Chicchiriccò
  * @since 5.0.1
@@ -37,8 +38,8 @@ public class HazelcastSAMLMessageStore implements SAMLMessageStore {
         this.hazelcastInstance = hazelcastInstance;
     }
 
-    private IMap<String, String> getStoreMapInstance() {
-        IMap<String, String> inst = hazelcastInstance.getMap(MAP_NAME);
+    private IMap<String, Object> getStoreMapInstance() {
+        IMap<String, Object> inst = hazelcastInstance.getMap(MAP_NAME);
         LOGGER.debug("Located Hazelcast map instance [{}]", MAP_NAME);
         return inst;
     }
@@ -46,10 +47,11 @@ public class HazelcastSAMLMessageStore implements SAMLMessageStore {
     /** {@inheritDoc} */
     @Override
     public Optional<XMLObject> get(final String messageID) {
-        IMap<String, String> map = getStoreMapInstance();
+        IMap<String, Object> map = getStoreMapInstance();
         LOGGER.debug("Attempting to get message {} from Hazelcast map {}", messageID, MAP_NAME);
 
-        String message = map.get(messageID);
+        // messages stored by previous versions are Base64-encoded strings
+        Object message = map.get(messageID);
         if (message == null) {
             LOGGER.debug("Message {} not found in Hazelcast map {}", messageID, MAP_NAME);
             return Optional.empty();
@@ -58,23 +60,24 @@ public class HazelcastSAMLMessageStore implements SAMLMessageStore {
         LOGGER.debug("Message {} found in Hazelcast map {}, clearing", messageID, MAP_NAME);
         map.remove(messageID);
 
-        return Configuration.deserializeSamlObject(
-                new String(Base64.getDecoder().decode(message), StandardCharsets.UTF_8));
+        if (message instanceof String encoded) {
+            return Configuration.deserializeSamlObject(new String(Base64.getDecoder().decode(encoded), StandardCharsets.UTF_8));
+        }
+        return Configuration.inflateSamlObject((byte[]) message);
     }
 
     /** {@inheritDoc} */
     @Override
     public void set(final String messageID, final XMLObject message) {
-        IMap<String, String> map = getStoreMapInstance();
+        IMap<String, Object> map = getStoreMapInstance();
         LOGGER.debug("Storing message {} to Hazelcast map {}", messageID, MAP_NAME);
-        map.put(messageID, Base64.getEncoder().encodeToString(
-                Configuration.serializeSamlObject(message).toString().getBytes(StandardCharsets.UTF_8)));
+        map.put(messageID, Configuration.deflateSamlObject(message));
     }
 
     /** {@inheritDoc} */
     @Override
     public void remove(final String messageID) {
-        IMap<String, String> map = getStoreMapInstance();
+        IMap<String, Object> map = getStoreMapInstance();
         LOGGER.debug("Removing message {} from Hazelcast map {}", messageID, MAP_NAME);
         map.remove(messageID);
     }
@@ -14,7 +14,8 @@ import java.util.Optional;
 /**
  * Class implements store of SAML messages and uses HttpSession as underlying dataStore. As the XMLObjects
  * can't be serialized (which could lead to problems during failover), the messages are transformed into SAMLObject
- * which internally marshals the content into XML during serialization.
+ * which internally marshals the content into XML during serialization. The XML is stored deflated
+ * (see {@link Configuration#deflateSamlObject(XMLObject)}).
  *
  * Messages are populated to a Hashtable and stored inside HttpSession. The Hashtable is lazily initialized
  * during first attempt to create or retrieve a message.
@@ -35,7 +36,7 @@ public class HttpSessionStore implements SAMLMessageStore {
     /**
      * Internal store for messages, corresponding to the object in session.
      */
-    private LinkedHashMap<String, String> internalMessages;
+    private LinkedHashMap<String, byte[]> internalMessages;
 
     /**
      * Session key for storing the hashtable.
@@ -54,7 +55,7 @@ public class HttpSessionStore implements SAMLMessageStore {
         LOGGER.debug("Storing message {} to session {}", messageID,
             sessionStore.getSessionId(context, true).orElseThrow());
         val messages = getMessages();
-        messages.put(messageID, Configuration.serializeSamlObject(message).toString());
+        messages.put(messageID, Configuration.deflateSamlObject(message));
         updateSession(messages);
     }
 
@@ -64,7 +65,7 @@ public class HttpSessionStore implements SAMLMessageStore {
      * Returns previously stored message with the given ID or null, if there is no message
      * stored.
      * <p>
-     * Message is stored in String format and must be unmarshalled into XMLObject. Call to this
+     * Message is stored in deflated XML format and must be unmarshalled into XMLObject. Call to this
      * method may thus be expensive.
      * <p>
      * Messages are automatically cleared upon successful reception, as we presume that there
@@ -74,7 +75,8 @@ public class HttpSessionStore implements SAMLMessageStore {
     @Override
     public Optional<XMLObject> get(final String messageID) {
         val messages = getMessages();
-        val o = messages.get(messageID);
+        // messages stored by previous versions are strings
+        final Object o = messages.get(messageID);
         if (o == null) {
             LOGGER.debug("Message {} not found in session {}", messageID, sessionStore.getSessionId(context, true).orElseThrow());
             return Optional.empty();
@@ -84,7 +86,10 @@ public class HttpSessionStore implements SAMLMessageStore {
         messages.clear();
         updateSession(messages);
 
-        return Configuration.deserializeSamlObject(o);
+        if (o instanceof String xml) {
+            return Configuration.deserializeSamlObject(xml);
+        }
+        return Configuration.inflateSamlObject((byte[]) o);
     }
 
     /**
@@ -93,7 +98,7 @@ public class HttpSessionStore implements SAMLMessageStore {
      *
      * @return message store
      */
-    private LinkedHashMap<String, String> getMessages() {
+    private LinkedHashMap<String, byte[]> getMessages() {
         if (internalMessages == null) {
             internalMessages = initializeSession();
         }
@@ -107,31 +112,33 @@ public class HttpSessionStore implements SAMLMessageStore {
      * Method synchronizes on session object to prevent two threads from overwriting each others hashtable.
      */
     @SuppressWarnings("unchecked")
-    private LinkedHashMap<String, String> initializeSession() {
+    private LinkedHashMap<String, byte[]> initializeSession() {
         var messages = sessionStore.get(context, SAML_STORAGE_KEY);
         if (messages.isEmpty()) {
             synchronized (context) {
                 messages = sessionStore.get(context, SAML_STORAGE_KEY);
                 if (messages.isEmpty()) {
                     messages = Optional.of(new LinkedHashMap<>());
-                    updateSession((LinkedHashMap<String, String>) messages.get());
+                    updateSession((LinkedHashMap<String, byte[]>) messages.get());
                 }
             }
         }
-        return (LinkedHashMap<String, String>) messages.get();
+        return (LinkedHashMap<String, byte[]>) messages.get();
     }
 
     /**
      * Updates session with the internalMessages key. Some application servers require session value to be updated
      * in order to replicate the session across nodes or persist it correctly.
      */
-    private void updateSession(final LinkedHashMap<String, String> messages) {
+    private void updateSession(final LinkedHashMap<String, byte[]> messages) {
         sessionStore.set(context, SAML_STORAGE_KEY, messages);
     }
 
     /** {@inheritDoc} */
     @Override
     public void remove(final String key) {
-        set(key, null);
+        val messages = getMessages();
+        messages.remove(key);
+        updateSession(messages);
     }
 }
@@ -13,18 +13,22 @@ import org.opensaml.core.xml.util.XMLObjectSupport;
 import org.pac4j.core.adapter.FrameworkAdapter;
 import org.pac4j.saml.exceptions.SAMLException;
 
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Result;
-import javax.xml.transform.Source;
-import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.*;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 /**
  * OpenSAML configuration bean to bootstrap the parser pool.
@@ -40,6 +44,14 @@ import java.util.ServiceLoader;
 @Slf4j
 public final class Configuration {
 
+    private static final int MAX_POOLED_TRANSFORMERS = 64;
+
+    private static final TransformerFactory TRANSFORMER_FACTORY = TransformerFactory.newInstance();
+
+    private static final BlockingQueue<Transformer> INDENTING_TRANSFORMERS = new ArrayBlockingQueue<>(MAX_POOLED_TRANSFORMERS);
+
+    private static final BlockingQueue<Transformer> COMPACT_TRANSFORMERS = new ArrayBlockingQueue<>(MAX_POOLED_TRANSFORMERS);
+
     private Configuration() {
     }
 
@@ -119,24 +131,62 @@ public final class Configuration {
     public static StringWriter serializeSamlObject(final XMLObject samlObject) {
         val writer = new StringWriter();
         try {
-            val marshaller = getMarshallerFactory().getMarshaller(samlObject.getElementQName());
-            if (marshaller != null) {
-                val element = marshaller.marshall(samlObject);
-                Source domSource = new DOMSource(element);
-
-                Result result = new StreamResult(writer);
-                val tf = TransformerFactory.newInstance();
-                val transformer = tf.newTransformer();
-                transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-                transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
-                transformer.transform(domSource, result);
-            }
+            transform(samlObject, new StreamResult(writer), INDENTING_TRANSFORMERS, true);
         } catch (final Exception e) {
             throw new SAMLException(e.getMessage(), e);
         }
         return writer;
     }
 
+    /**
+     * Serialize a SAML object into compact (not indented) and deflated XML: the binary format used to store
+     * the SAML messages.
+     *
+     * @param samlObject a {@link XMLObject} object
+     * @return the deflated XML
+     */
+    public static byte[] deflateSamlObject(final XMLObject samlObject) {
+        val bytes = new ByteArrayOutputStream();
+        try (val out = new DeflaterOutputStream(bytes)) {
+            transform(samlObject, new StreamResult(out), COMPACT_TRANSFORMERS, false);
+        } catch (final Exception e) {
+            throw new SAMLException(e.getMessage(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void transform(final XMLObject samlObject, final Result result, final BlockingQueue<Transformer> pool,
+                                  final boolean indent) throws Exception {
+        val marshaller = getMarshallerFactory().getMarshaller(samlObject.getElementQName());
+        if (marshaller != null) {
+            val element = marshaller.marshall(samlObject);
+            Source domSource = new DOMSource(element);
+
+            var transformer = pool.poll();
+            if (transformer == null) {
+                transformer = newTransformer(indent);
+            }
+            transformer.transform(domSource, result);
+            // a transformer which has failed is not reused
+            pool.offer(transformer);
+        }
+    }
+
+    private static Transformer newTransformer(final boolean indent) throws TransformerConfigurationException {
+        final Transformer transformer;
+        synchronized (TRANSFORMER_FACTORY) {
+            transformer = TRANSFORMER_FACTORY.newTransformer();
+        }
+        if (indent) {
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
+        } else {
+            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+            transformer.setOutputProperty(OutputKeys.ENCODING, StandardCharsets.UTF_8.name());
+        }
+        return transformer;
+    }
+
     /**
      * <p>deserializeSamlObject.</p>
      *
@@ -151,4 +201,19 @@ public final class Configuration {
             return Optional.empty();
         }
     }
+
+    /**
+     * Deserialize a SAML object from deflated XML (see {@link #deflateSamlObject(XMLObject)}).
+     *
+     * @param deflated the deflated XML
+     * @return a {@link Optional} object
+     */
+    public static Optional<XMLObject> inflateSamlObject(final byte[] deflated) {
+        try (val in = new InflaterInputStream(new ByteArrayInputStream(deflated))) {
+            return Optional.of(XMLObjectSupport.unmarshallFromInputStream(getParserPool(), in));
+        } catch (final Exception e) {
+            LOGGER.error("Error unmarshalling message from input stream", e);
+            return Optional.empty();
+        }
+    }
 }
@@ -119,12 +119,24 @@ public final class SAML2Utils implements HttpConstants {
      */
     public static ChainingMetadataResolver buildChainingMetadataResolver(final SAML2MetadataResolver idpMetadataProvider,
                                                                          final SAML2MetadataResolver spMetadataProvider) {
+        return buildChainingMetadataResolver(idpMetadataProvider.resolve(), spMetadataProvider.resolve());
+    }
+
+    /**
+     * <p>buildChainingMetadataResolver.</p>
+     *
+     * @param idpMetadataResolver the resolved idp metadata
+     * @param spMetadataResolver the resolved sp metadata
+     * @return a {@link ChainingMetadataResolver} object
+     */
+    public static ChainingMetadataResolver buildChainingMetadataResolver(final MetadataResolver idpMetadataResolver,
+                                                                         final MetadataResolver spMetadataResolver) {
         val metadataManager = new ChainingMetadataResolver();
         metadataManager.setId(ChainingMetadataResolver.class.getCanonicalName());
         try {
             final List<MetadataResolver> list = new ArrayList<>();
-            list.add(idpMetadataProvider.resolve());
-            list.add(spMetadataProvider.resolve());
+            list.add(idpMetadataResolver);
+            list.add(spMetadataResolver);
             metadataManager.setResolvers(list);
             metadataManager.initialize();
         } catch (final ResolverException e) {
@@ -0,0 +1,85 @@
+package org.pac4j.saml.crypto;
+
+import lombok.val;
+import org.junit.Test;
+import org.opensaml.saml.metadata.resolver.MetadataResolver;
+import org.opensaml.saml.metadata.resolver.RefreshableMetadataResolver;
+import org.opensaml.xmlsec.signature.support.SignatureTrustEngine;
+import org.pac4j.saml.config.SAML2Configuration;
+import org.pac4j.saml.metadata.SAML2IdentityProviderMetadataResolver;
+import org.pac4j.saml.metadata.SAML2MetadataResolver;
+import org.pac4j.saml.metadata.SAML2ServiceProviderMetadataResolver;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+
+import java.time.Instant;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests {@link ExplicitSignatureTrustEngineProvider}.
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+public final class ExplicitSignatureTrustEngineProviderTests {
+
+    @Test
+    public void testTrustEngineReusedUntilMetadataRefresh() {
+        val config = new SAML2Configuration();
+        config.setForceKeystoreGeneration(true);
+        config.setIdentityProviderMetadataResource(new ClassPathResource("idp-metadata.xml"));
+        config.setServiceProviderMetadataResource(new FileSystemResource("target/out.xml"));
+        config.setForceServiceProviderMetadataGeneration(true);
+        config.setKeystorePath("target/keystore.jks");
+        config.setKeystorePassword("pac4j");
+        config.setPrivateKeyPassword("pac4j");
+        config.init();
+
+        val idp = new SAML2IdentityProviderMetadataResolver(config);
+        idp.init();
+        val sp = new SAML2ServiceProviderMetadataResolver(config);
+        val provider = new ExplicitSignatureTrustEngineProvider(idp, sp);
+
+        val engine = provider.build();
+        assertSame(engine, provider.build());
+
+        idp.resolve(true);
+        val newEngine = provider.build();
+        assertNotSame(engine, newEngine);
+        assertSame(newEngine, provider.build());
+    }
+
+    @Test
+    public void testTrustEngineRebuiltWhenMetadataUpdatedInPlace() {
+        val idpResolver = mock(RefreshableMetadataResolver.class);
+        val spResolver = mock(MetadataResolver.class);
+        val idp = mock(SAML2MetadataResolver.class);
+        when(idp.resolve()).thenReturn(idpResolver);
+        val sp = mock(SAML2MetadataResolver.class);
+        when(sp.resolve()).thenReturn(spResolver);
+        val provider = new ExplicitSignatureTrustEngineProvider(idp, sp) {
+            @Override
+            protected SignatureTrustEngine buildTrustEngine(final MetadataResolver idpResolver, final MetadataResolver spResolver) {
+                return mock(SignatureTrustEngine.class);
+            }
+        };
+
+        val now = Instant.now();
+        when(idpResolver.getLastUpdate()).thenReturn(now);
+        val engine = provider.build();
+        assertSame(engine, provider.build());
+
+        // the IdP keys are rotated: the same resolver is updated in place
+        when(idpResolver.getLastUpdate()).thenReturn(now.plusSeconds(60));
+        val newEngine = provider.build();
+        assertNotSame(engine, newEngine);
+        assertSame(newEngine, provider.build());
+
+        provider.setCacheTtlInSeconds(0);
+        assertNotSame(newEngine, provider.build());
+    }
+}
@@ -1,12 +1,15 @@
 package org.pac4j.saml.metadata;
 
+import com.github.tomakehurst.wiremock.WireMockServer;
 import net.shibboleth.shared.resolver.CriteriaSet;
 import net.shibboleth.shared.xml.XMLParserException;
 import org.junit.Before;
 import org.junit.Test;
 import org.opensaml.core.criterion.EntityIdCriterion;
+import org.opensaml.saml.common.xml.SAMLConstants;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.saml.config.SAML2Configuration;
+import org.pac4j.saml.exceptions.SAMLException;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.UrlResource;
@@ -14,11 +17,14 @@ import org.springframework.core.io.UrlResource;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
+import java.io.File;
 import java.net.InetSocketAddress;
 import java.net.Proxy;
+import java.nio.file.Files;
 import java.security.SecureRandom;
 import java.security.cert.X509Certificate;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.junit.Assert.*;
 
 @SuppressWarnings("PMD.TooManyStaticImports")
@@ -127,6 +133,66 @@ public class SAML2IdentityProviderMetadataResolverTest {
         assertNotNull(resolver);
     }
 
+    @Test
+    public void resolveMetadataInStreaming() throws Exception {
+        var configuration = new SAML2Configuration();
+        configuration.setIdentityProviderMetadataResource(new ClassPathResource("testshib-providers.xml"));
+        configuration.setIdentityProviderMetadataStreaming(true);
+        metadataResolver = new SAML2IdentityProviderMetadataResolver(configuration);
+
+        var resolver = metadataResolver.resolve();
+        var entity = resolver.resolveSingle(new CriteriaSet(new EntityIdCriterion("https://idp.testshib.org/idp/shibboleth")));
+        assertNotNull(entity);
+        assertNotNull(entity.getIDPSSODescriptor(SAMLConstants.SAML20P_NS));
+        assertNull(resolver.resolveSingle(new CriteriaSet(new EntityIdCriterion("https://sp.testshib.org/shibboleth-sp"))));
+        assertEquals("https://idp.testshib.org/idp/shibboleth", metadataResolver.getEntityId());
+    }
+
+    @Test
+    public void resolveMetadataInStreamingWithFilter() {
+        var configuration = new SAML2Configuration();
+        configuration.setIdentityProviderMetadataResource(new ClassPathResource("testshib-providers.xml"));
+        configuration.setIdentityProviderMetadataStreaming(true);
+        configuration.setIdentityProviderEntityIdFilter(entityId -> entityId.startsWith("https://other"));
+        metadataResolver = new SAML2IdentityProviderMetadataResolver(configuration);
+        metadataResolver.init();
+
+        assertThrows(SAMLException.class, () -> metadataResolver.getEntityDescriptorElement());
+    }
+
+    @Test
+    public void resolveMetadataFromLocalCopy() throws Exception {
+        var cacheFile = new File("target/idp-metadata-cache.xml");
+        Files.deleteIfExists(cacheFile.toPath());
+        var body = new ClassPathResource("idp-metadata.xml").getInputStream().readAllBytes();
+        var wireMockServer = new WireMockServer(8089);
+        wireMockServer.stubFor(get(urlPathEqualTo("/idp")).atPriority(1)
+            .withHeader("If-None-Match", equalTo("\"v1\""))
+            .willReturn(aResponse().withStatus(304)));
+        wireMockServer.stubFor(any(urlPathEqualTo("/idp")).atPriority(2)
+            .willReturn(aResponse().withStatus(200).withHeader("ETag", "\"v1\"").withBody(body)));
+        wireMockServer.start();
+        try {
+            var configuration = new SAML2Configuration();
+            configuration.setIdentityProviderMetadataResource(new UrlResource("http://localhost:8089/idp"));
+            configuration.setIdentityProviderMetadataCachePath(cacheFile.getPath());
+            metadataResolver = new SAML2IdentityProviderMetadataResolver(configuration);
+            metadataResolver.init();
+            var resolver = metadataResolver.resolve();
+            assertTrue(cacheFile.exists());
+
+            assertSame(resolver, metadataResolver.resolve(true));
+
+            var restartedResolver = new SAML2IdentityProviderMetadataResolver(configuration);
+            restartedResolver.init();
+            assertEquals("mmoayyed.example.net", restartedResolver.getEntityId());
+
+            wireMockServer.verify(2, getRequestedFor(urlPathEqualTo("/idp")));
+        } finally {
+            wireMockServer.stop();
+        }
+    }
+
     @Test
     public void resolveExpiringMetadata() {
         var configuration = new SAML2Configuration();
@@ -5,19 +5,24 @@ import lombok.val;
 import org.apache.commons.io.IOUtils;
 import org.apache.hc.core5.http.ContentType;
 import org.junit.Test;
+import org.opensaml.saml.saml2.metadata.EntityDescriptor;
 import org.pac4j.saml.config.SAML2Configuration;
+import org.pac4j.saml.util.Configuration;
 import org.pac4j.saml.util.SAML2HttpClientBuilder;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.FileUrlResource;
 import org.springframework.core.io.Resource;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.net.URL;
+import java.nio.file.Files;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
-import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.*;
 
 public class SAML2ServiceProviderMetadataResolverTest {
 
@@ -54,6 +59,42 @@ public class SAML2ServiceProviderMetadataResolverTest {
         assertNotNull(metadataResolver.resolve());
     }
 
+    @Test
+    public void cacheServiceProviderMetadataUntilPreparedAgain() throws Exception {
+        val file = new File("target/out-cached.xml");
+        Files.deleteIfExists(file.toPath());
+        val configuration = initializeConfiguration(new FileSystemResource(file), "target/keystore.jks");
+        val metadataResolver = new SAML2ServiceProviderMetadataResolver(configuration);
+        assertTrue(file.exists());
+
+        val metadata = metadataResolver.getMetadata();
+        assertEquals(metadata, metadataResolver.getMetadata());
+        val out = new ByteArrayOutputStream();
+        metadataResolver.writeMetadata(out);
+        assertEquals(metadata, out.toString(StandardCharsets.UTF_8));
+        val entity = (EntityDescriptor) Configuration.deserializeSamlObject(metadata).orElseThrow();
+        assertFalse(metadata.contains("MetadataFingerprint"));
+
+        // the generation is forced: the metadata are stored again, even if unchanged
+        assertTrue(file.setLastModified(1000));
+        metadataResolver.resolve(true);
+        assertNotEquals(1000, file.lastModified());
+        val newMetadata = metadataResolver.getMetadata();
+        assertNotEquals(metadata, newMetadata);
+        val newEntity = (EntityDescriptor) Configuration.deserializeSamlObject(newMetadata).orElseThrow();
+        assertNotEquals(entity.getID(), newEntity.getID());
+
+        // the stored metadata only differ from new generated ones by their ID, validity and signature
+        val generator = configuration.toMetadataGenerator();
+        val regenerated = generator.getMetadata(generator.buildEntityDescriptor());
+        assertNotEquals(newMetadata, regenerated);
+        assertTrue(metadataResolver.isStored(generator, regenerated));
+
+        configuration.setWantsAssertionsSigned(!configuration.isWantsAssertionsSigned());
+        val changedGenerator = configuration.toMetadataGenerator();
+        assertFalse(metadataResolver.isStored(changedGenerator, changedGenerator.getMetadata(changedGenerator.buildEntityDescriptor())));
+    }
+
     @Test
     public void resolveServiceProviderMetadataViaExistingClasspath() {
         val configuration =
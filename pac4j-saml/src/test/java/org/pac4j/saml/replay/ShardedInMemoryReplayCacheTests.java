@@ -0,0 +1,63 @@
+package org.pac4j.saml.replay;
+
+import lombok.val;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link ShardedInMemoryReplayCache}.
+ *
+ * @author agent
+ * @since 6.1.3
+ */
+public final class ShardedInMemoryReplayCacheTests {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    public void testReplay() {
+        val cache = new ShardedInMemoryReplayCache();
+        cache.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertTrue(cache.check("context", "id1", NOW.plusSeconds(120)));
+        assertFalse(cache.check("context", "id1", NOW.plusSeconds(120)));
+        assertTrue(cache.check("context", "id2", NOW.plusSeconds(120)));
+        assertTrue(cache.check("other", "id1", NOW.plusSeconds(120)));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void testExpiration() {
+        val cache = new ShardedInMemoryReplayCache(4, 1000);
+        cache.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+        assertTrue(cache.check("context", "id1", NOW.plusSeconds(10)));
+        assertTrue(cache.check("context", "id2", NOW.plusSeconds(100)));
+
+        cache.setClock(Clock.fixed(NOW.plusSeconds(11), ZoneOffset.UTC));
+        assertTrue(cache.check("context", "id1", NOW.plusSeconds(200)));
+        assertFalse(cache.check("context", "id2", NOW.plusSeconds(200)));
+
+        cache.setClock(Clock.fixed(NOW.plusSeconds(150), ZoneOffset.UTC));
+        assertFalse(cache.check("context", "id1", NOW.plusSeconds(300)));
+        assertTrue(cache.check("context", "id2", NOW.plusSeconds(300)));
+    }
+
+    @Test
+    public void testBulkExpiration() {
+        val cache = new ShardedInMemoryReplayCache(1, 1000);
+        cache.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+        for (var i = 0; i < 100; i++) {
+            assertTrue(cache.check("context", "id" + i, NOW.plusMillis(i * 10)));
+        }
+        assertEquals(100, cache.size());
+
+        cache.setClock(Clock.fixed(NOW.plusSeconds(2), ZoneOffset.UTC));
+        assertTrue(cache.check("context", "last", NOW.plusSeconds(60)));
+        assertEquals(1, cache.size());
+    }
+}
@@ -32,16 +32,16 @@ public class HazelcastSAMLMessageStoreTests implements TestsConstants {
 
     private final XMLObjectBuilderFactory builderFactory = Configuration.getBuilderFactory();
 
-    private final Map<String, String> backendMap = new HashMap<>();
+    private final Map<String, Object> backendMap = new HashMap<>();
 
     @Mock
-    private IMap<String, String> storeMapInstance;
+    private IMap<String, Object> storeMapInstance;
 
     private HazelcastSAMLMessageStore store;
 
     @Before
     public void setUp() {
-        when(storeMapInstance.put(anyString(), anyString())).thenAnswer(ic -> {
+        when(storeMapInstance.put(anyString(), any(byte[].class))).thenAnswer(ic -> {
             backendMap.put(ic.getArgument(0), ic.getArgument(1));
             return ic.getArgument(0);
         });
@@ -63,8 +63,7 @@ public class HazelcastSAMLMessageStoreTests implements TestsConstants {
         message.setValue("value");
 
         store.set("id", message);
-        verify(storeMapInstance, times(1)).put(eq("id"), eq(Base64.getEncoder().encodeToString(
-                Configuration.serializeSamlObject(message).toString().getBytes(StandardCharsets.UTF_8))));
+        verify(storeMapInstance, times(1)).put(eq("id"), aryEq(Configuration.deflateSamlObject(message)));
 
         assertEquals(message.getValue(), ((NameID) store.get("id").get()).getValue());
         verify(storeMapInstance, times(1)).get(eq("id"));
@@ -73,6 +72,31 @@ public class HazelcastSAMLMessageStoreTests implements TestsConstants {
         assertTrue(store.get("id").isEmpty());
     }
 
+    @Test
+    public void getLegacyMessage() {
+        @SuppressWarnings("unchecked")
+        NameID message = ((SAMLObjectBuilder<NameID>) builderFactory.getBuilder(NameID.DEFAULT_ELEMENT_NAME)).
+                buildObject();
+        message.setValue("value");
+        backendMap.put("id", Base64.getEncoder().encodeToString(
+                Configuration.serializeSamlObject(message).toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(message.getValue(), ((NameID) store.get("id").get()).getValue());
+        verify(storeMapInstance, times(1)).remove(eq("id"));
+        assertTrue(store.get("id").isEmpty());
+    }
+
+    @Test
+    public void deflatedMessageIsSmaller() {
+        @SuppressWarnings("unchecked")
+        NameID message = ((SAMLObjectBuilder<NameID>) builderFactory.getBuilder(NameID.DEFAULT_ELEMENT_NAME)).
+                buildObject();
+        message.setValue(VALUE.repeat(50));
+
+        assertTrue(Configuration.deflateSamlObject(message).length
+            < Configuration.serializeSamlObject(message).toString().length());
+    }
+
     @Test
     public void getEmpty() {
         assertTrue(store.get("notfound").isEmpty());